@@ -1,5 +1,6 @@
 package co.edu.uniquindio.application.api;
 
+import co.edu.uniquindio.application.repository.indice.BusquedaExpiradaException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +22,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorBody(HttpStatus.FORBIDDEN, ex.getMessage(), req));
     }
 
+    @ExceptionHandler(BusquedaExpiradaException.class)
+    public ResponseEntity<?> handleBusquedaExpirada(BusquedaExpiradaException ex, HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(errorBody(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), req));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGeneric(Exception ex, HttpServletRequest req) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
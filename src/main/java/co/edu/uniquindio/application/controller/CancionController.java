@@ -2,6 +2,10 @@ package co.edu.uniquindio.application.controller;
 
 import co.edu.uniquindio.application.model.Cancion;
 import co.edu.uniquindio.application.service.CancionService;
+import co.edu.uniquindio.application.service.PaginaRadio;
+import co.edu.uniquindio.application.service.RadioService;
+import co.edu.uniquindio.application.service.Versionado;
+import co.edu.uniquindio.application.trie.IndiceAutocompletado.Sugerencia;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -17,13 +21,19 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/api/canciones")
-@CrossOrigin(origins = "http://localhost:3000") // Permite peticiones desde React
+@CrossOrigin(origins = "http://localhost:3000", // Permite peticiones desde React
+        exposedHeaders = {CancionController.CABECERA_VERSION_SIMILITUD, CancionController.CABECERA_VERSION_AUTOCOMPLETADO})
 public class CancionController {
 
+    static final String CABECERA_VERSION_SIMILITUD = "X-Version-Similitud";
+    static final String CABECERA_VERSION_AUTOCOMPLETADO = "X-Version-Autocompletado";
+
     private final CancionService cancionService;
+    private final RadioService radioService;
 
-    public CancionController(CancionService cancionService) {
+    public CancionController(CancionService cancionService, RadioService radioService) {
         this.cancionService = cancionService;
+        this.radioService = radioService;
     }
 
     // 📋 Obtener todas las canciones
@@ -106,16 +116,47 @@ public class CancionController {
         }
     }
 
+    // 🔖 La versión del Trie / grafo que respondió viaja en una cabecera (el cuerpo no cambia)
+    // fuzzy = errores de tipeo tolerados (0 = prefijo exacto, máximo 2)
     @GetMapping("/autocompletar")
-    public List<String> autocompletar(@RequestParam String prefijo) {
-        return cancionService.autocompletarTitulo(prefijo);
+    public ResponseEntity<List<String>> autocompletar(@RequestParam String prefijo,
+                                                      @RequestParam(defaultValue = "10") int limite,
+                                                      @RequestParam(defaultValue = "0") int fuzzy) {
+        Versionado<List<String>> sugerencias = fuzzy > 0
+                ? cancionService.consultarAutocompletadoAproximado(prefijo, fuzzy, limite)
+                : cancionService.consultarAutocompletado(prefijo, limite);
+        return ResponseEntity.ok()
+                .header(CABECERA_VERSION_AUTOCOMPLETADO, String.valueOf(sugerencias.version()))
+                .body(sugerencias.valor());
+    }
+
+    // 🏷️ Sugerencias tipadas (canción / artista / género) por cualquier palabra del campo, con sus ids
+    @GetMapping("/autocompletar/sugerencias")
+    public ResponseEntity<List<Sugerencia>> sugerencias(@RequestParam String prefijo,
+                                                        @RequestParam(defaultValue = "5") int limite) {
+        Versionado<List<Sugerencia>> sugerencias = cancionService.consultarSugerencias(prefijo, limite);
+        return ResponseEntity.ok()
+                .header(CABECERA_VERSION_AUTOCOMPLETADO, String.valueOf(sugerencias.version()))
+                .body(sugerencias.valor());
+    }
+
+    // 🆔 Ids de las canciones sugeridas: no hace falta volver a buscarlas por título
+    @GetMapping("/autocompletar/ids")
+    public ResponseEntity<List<String>> autocompletarIds(@RequestParam String prefijo,
+                                                         @RequestParam(defaultValue = "10") int limite) {
+        Versionado<List<String>> ids = cancionService.consultarAutocompletadoIds(prefijo, limite);
+        return ResponseEntity.ok()
+                .header(CABECERA_VERSION_AUTOCOMPLETADO, String.valueOf(ids.version()))
+                .body(ids.valor());
     }
 
     @GetMapping("/{id}/similares")
     public ResponseEntity<List<Cancion>> obtenerSimilares(@PathVariable String id,
                                                           @RequestParam(defaultValue = "5") int limite) {
-        List<Cancion> similares = cancionService.obtenerCancionesSimilares(id, limite);
-        return ResponseEntity.ok(similares);
+        Versionado<List<Cancion>> similares = cancionService.consultarSimilares(id, limite);
+        return ResponseEntity.ok()
+                .header(CABECERA_VERSION_SIMILITUD, String.valueOf(similares.version()))
+                .body(similares.valor());
     }
 
     @GetMapping("/{id}/radio")
@@ -123,8 +164,39 @@ public class CancionController {
             @PathVariable String id,
             @RequestParam(defaultValue = "10") int limite) {
 
-        List<Cancion> cola = cancionService.iniciarRadio(id, limite);
-        return ResponseEntity.ok(cola);
+        Versionado<List<Cancion>> cola = cancionService.consultarRadio(id, limite);
+        return ResponseEntity.ok()
+                .header(CABECERA_VERSION_SIMILITUD, String.valueOf(cola.version()))
+                .body(cola.valor());
+    }
+
+    // 📻 Sesión de radio: primera página (semilla + caminata) y el id para pedir más
+    @PostMapping("/{id}/radio")
+    public ResponseEntity<PaginaRadio> iniciarSesionRadio(@PathVariable String id,
+                                                          @RequestParam(defaultValue = "10") int tamanio) {
+        PaginaRadio pagina = radioService.iniciar(id, tamanio);
+        if (pagina == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok()
+                .header(CABECERA_VERSION_SIMILITUD, String.valueOf(pagina.version()))
+                .body(pagina);
+    }
+
+    // ⏭️ Siguiente página de la sesión (404 si expiró por inactividad)
+    @GetMapping("/radio/{sesion}")
+    public ResponseEntity<PaginaRadio> siguientePaginaRadio(@PathVariable String sesion,
+                                                            @RequestParam(defaultValue = "10") int tamanio) {
+        PaginaRadio pagina = radioService.siguiente(sesion, tamanio);
+        if (pagina == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok()
+                .header(CABECERA_VERSION_SIMILITUD, String.valueOf(pagina.version()))
+                .body(pagina);
+    }
+
+    @DeleteMapping("/radio/{sesion}")
+    public ResponseEntity<Void> terminarSesionRadio(@PathVariable String sesion) {
+        return radioService.terminar(sesion)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     // 👇 NUEVO: Actualizar SOLO el fileName de una canción (útil para enlazar al MP3 del front)
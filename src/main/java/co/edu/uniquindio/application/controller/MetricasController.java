@@ -101,4 +101,36 @@ public class MetricasController {
         var data = metricasService.topGenerosDesdeFavoritos(limit);
         return ResponseEntity.ok(data);
     }
+
+    // 💾 CONTADORES DE PERSISTENCIA (escrituras agrupadas vs. volcados)
+    @GetMapping("/persistencia")
+    public ResponseEntity<?> estadisticasPersistencia(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("🚫 Token no proporcionado.");
+        }
+        String token = authHeader.substring(7);
+        if (!jwtUtil.validarToken(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("❌ Token inválido o expirado.");
+        }
+
+        return ResponseEntity.ok(metricasService.estadisticasPersistencia());
+    }
+
+    // 🔎 EJECUTOR DE BÚSQUEDAS (tareas encoladas / activas, cancelaciones, plazos vencidos)
+    @GetMapping("/busqueda")
+    public ResponseEntity<?> estadisticasBusqueda(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("🚫 Token no proporcionado.");
+        }
+        String token = authHeader.substring(7);
+        if (!jwtUtil.validarToken(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("❌ Token inválido o expirado.");
+        }
+
+        return ResponseEntity.ok(metricasService.estadisticasBusqueda());
+    }
 }
@@ -225,6 +225,7 @@ public class UsuarioController {
     public ResponseEntity<?> generarDescubrimientoSemanal(
             @PathVariable String username,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "vecinos") String modo,
             @RequestHeader("Authorization") String authHeader) {
 
         // Validar token JWT
@@ -237,7 +238,7 @@ public class UsuarioController {
             return ResponseEntity.status(403).body("❌ Token inválido o expirado.");
         }
 
-        List<Cancion> playlist = usuarioService.generarPlaylistDescubrimiento(username, size);
+        List<Cancion> playlist = usuarioService.generarPlaylistDescubrimiento(username, size, modo);
 
         if (playlist.isEmpty()) {
             return ResponseEntity.ok("⚠️ No se encontraron recomendaciones para el usuario.");
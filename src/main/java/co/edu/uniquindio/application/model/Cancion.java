@@ -1,5 +1,7 @@
 package co.edu.uniquindio.application.model;
 
+import co.edu.uniquindio.application.utils.ParserCancion;
+
 import java.util.Objects;
 
 public class Cancion {
@@ -13,13 +15,17 @@ public class Cancion {
     // 👇 NUEVO: nombre del archivo MP3 tal como existe en el front (public/music)
     private String fileName; // ej: "song1.mp3"
 
+    // 🔑 Códigos de diccionario (DiccionarioCatalogo) para comparar sin tocar los textos
+    private int codigoArtista = DiccionarioCatalogo.SIN_CODIGO;
+    private int codigoGenero = DiccionarioCatalogo.SIN_CODIGO;
+
     public Cancion() {}
 
     public Cancion(String id, String titulo, String artista, String genero, int anio, double duracion) {
         this.id = id;
         this.titulo = titulo;
-        this.artista = artista;
-        this.genero = genero;
+        setArtista(artista);
+        setGenero(genero);
         this.anio = anio;
         this.duracion = duracion;
     }
@@ -37,10 +43,16 @@ public class Cancion {
     public void setTitulo(String titulo) { this.titulo = titulo; }
 
     public String getArtista() { return artista; }
-    public void setArtista(String artista) { this.artista = artista; }
+    public void setArtista(String artista) {
+        this.artista = DiccionarioCatalogo.ARTISTAS.canonica(artista);
+        this.codigoArtista = DiccionarioCatalogo.ARTISTAS.codigo(artista);
+    }
 
     public String getGenero() { return genero; }
-    public void setGenero(String genero) { this.genero = genero; }
+    public void setGenero(String genero) {
+        this.genero = DiccionarioCatalogo.GENEROS.canonica(genero);
+        this.codigoGenero = DiccionarioCatalogo.GENEROS.codigo(genero);
+    }
 
     public int getAnio() { return anio; }
     public void setAnio(int anio) { this.anio = anio; }
@@ -48,6 +60,10 @@ public class Cancion {
     public double getDuracion() { return duracion; }
     public void setDuracion(double duracion) { this.duracion = duracion; }
 
+    // Sin prefijo "get": no forman parte del JSON
+    public int codigoArtista() { return codigoArtista; }
+    public int codigoGenero() { return codigoGenero; }
+
     // 👇 getters/setters nuevos
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
@@ -81,26 +97,7 @@ public class Cancion {
      *  - 7 campos: id;titulo;artista;genero;anio;duracion;fileName
      */
     public static Cancion fromString(String linea) {
-        if (linea == null || linea.trim().isEmpty()) return null;
-        String[] partes = linea.split(";");
-        if (partes.length < 6) return null;
-
-        try {
-            String id = partes[0].trim();
-            String titulo = partes[1].trim();
-            String artista = partes[2].trim();
-            String genero = partes[3].trim();
-            int anio = Integer.parseInt(partes[4].trim());
-            double duracion = Double.parseDouble(partes[5].trim().replace(",", "."));
-
-            Cancion c = new Cancion(id, titulo, artista, genero, anio, duracion);
-            if (partes.length >= 7) {
-                c.setFileName(partes[6].trim());
-            }
-            return c;
-        } catch (NumberFormatException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        // línea mal formada → null: quien carga la cuenta y la descarta
+        return new ParserCancion().parsear(linea);
     }
 }
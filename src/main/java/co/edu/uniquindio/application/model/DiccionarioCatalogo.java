@@ -0,0 +1,109 @@
+package co.edu.uniquindio.application.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de valores del catálogo (artistas y géneros): cada valor normalizado
+ * (minúsculas, sin tildes, sin espacios en los extremos) recibe un código entero la
+ * primera vez que aparece. "Rock", "rock" y "ROCK " comparten código, igual que
+ * "Música" y "musica", así que comparar dos canciones es comparar dos enteros.
+ *
+ * El diccionario se indexa por el valor normalizado: guarda una entrada por valor distinto,
+ * no por cada forma de escribirlo. Los textos originales pasan por una caché acotada (a lo
+ * sumo el doble de valores distintos; se vacía al llenarse) que evita normalizar en cada
+ * canción y hace que las canciones con el mismo artista compartan la instancia de String.
+ * Los códigos no se liberan: las canciones vivas los llevan consigo.
+ */
+public final class DiccionarioCatalogo {
+
+    public static final DiccionarioCatalogo ARTISTAS = new DiccionarioCatalogo();
+    public static final DiccionarioCatalogo GENEROS = new DiccionarioCatalogo();
+
+    /** Código de los valores nulos: nunca coincide con otro. */
+    public static final int SIN_CODIGO = -1;
+
+    // La caché de textos admite al menos estas entradas aunque haya pocos valores distintos
+    private static final int MIN_CACHE_TEXTOS = 1024;
+
+    private record Entrada(String texto, int codigo) {}
+
+    // Valor normalizado → código (una entrada por valor distinto)
+    private final Map<String, Integer> porNormalizado = new ConcurrentHashMap<>();
+    // Código → valor normalizado (solo crece, protegido por el monitor de 'this')
+    private final List<String> normalizados = new ArrayList<>();
+    // 🧊 Caché acotada: texto original → instancia compartida + código
+    private final Map<String, Entrada> cacheTextos = new ConcurrentHashMap<>();
+
+    private DiccionarioCatalogo() {}
+
+    // 🔑 Código del valor (lo asigna si es nuevo)
+    public int codigo(String texto) {
+        return texto == null ? SIN_CODIGO : entrada(texto).codigo();
+    }
+
+    // 📌 Instancia compartida del texto original
+    public String canonica(String texto) {
+        return texto == null ? null : entrada(texto).texto();
+    }
+
+    private Entrada entrada(String texto) {
+        Entrada e = cacheTextos.get(texto);
+        if (e != null) return e;
+        String normalizado = normalizar(texto);
+        Integer codigo = porNormalizado.get(normalizado);
+        if (codigo == null) codigo = registrar(normalizado);
+
+        // Escrituras raras o de valores ya eliminados no se acumulan: la caché se vacía al llenarse
+        if (cacheTextos.size() >= Math.max(MIN_CACHE_TEXTOS, 2 * porNormalizado.size())) cacheTextos.clear();
+        Entrada nueva = new Entrada(texto, codigo);
+        e = cacheTextos.putIfAbsent(texto, nueva);
+        return e != null ? e : nueva;
+    }
+
+    private synchronized int registrar(String normalizado) {
+        Integer existente = porNormalizado.get(normalizado);
+        if (existente != null) return existente;
+        int nuevo = normalizados.size();
+        normalizados.add(normalizado);
+        porNormalizado.put(normalizado, nuevo);
+        return nuevo;
+    }
+
+    /** Códigos cuyo valor normalizado contiene la consulta normalizada (búsquedas por subcadena). */
+    public synchronized BitSet codigosQueContienen(String consulta) {
+        String buscada = normalizar(consulta);
+        BitSet codigos = new BitSet(normalizados.size());
+        for (int i = 0; i < normalizados.size(); i++) {
+            if (normalizados.get(i).contains(buscada)) codigos.set(i);
+        }
+        return codigos;
+    }
+
+    public synchronized int tamanio() {
+        return normalizados.size();
+    }
+
+    // 🔤 Minúsculas (misma equivalencia que equalsIgnoreCase) y sin marcas diacríticas
+    public static String normalizar(String texto) {
+        String sinTildes = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(sinTildes.length());
+        sinTildes.codePoints()
+                .filter(cp -> Character.getType(cp) != Character.NON_SPACING_MARK)
+                .forEach(cp -> sb.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return sb.toString();
+    }
+
+    // ✂️ Palabras normalizadas: cortando en todo lo que no sea letra o dígito
+    public static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        for (String p : normalizar(texto).split("[^\\p{L}\\p{Nd}]+")) {
+            if (!p.isEmpty()) palabras.add(p);
+        }
+        return palabras;
+    }
+}
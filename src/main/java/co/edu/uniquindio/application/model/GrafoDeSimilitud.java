@@ -1,43 +1,538 @@
 package co.edu.uniquindio.application.model;
 
+import java.io.Serial;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
 
-public class GrafoDeSimilitud {
+/**
+ * Grafo ponderado no dirigido de similitud entre canciones.
+ * Además de la construcción completa admite mantenimiento incremental: agregar,
+ * eliminar o recalcular una canción solo toca las aristas de esa canción.
+ *
+ * Representación compacta por filas (estilo CSR): cada canción tiene un índice entero y su
+ * fila es un par de arreglos primitivos {@code int[]} vecinos / {@code float[]} pesos,
+ * ordenados por peso descendente (a igual peso, por índice). El top-K de cualquier canción
+ * es el prefijo de su fila: la consulta no ordena ni crea objetos por arista.
+ *
+ * Los cambios incrementales no copian la fila del vecino: van a dos listas cortas de claves
+ * por fila (agregadas y quitadas) que los recorridos mezclan con la base en orden. Cuando
+ * esos cambios pasan de ~√grado, la fila se fusiona en arreglos nuevos; así cada arista
+ * agregada o quitada cuesta O(√grado) amortizado en lugar de O(grado).
+ *
+ * Ni las filas ni sus cambios se modifican en su lugar (cada cambio crea arreglos nuevos), por
+ * eso {@link #copiar()} solo copia los arreglos externos y comparte el resto. Las consultas
+ * no se sincronizan: la instancia publicada a los lectores no se vuelve a mutar.
+ */
+public class GrafoDeSimilitud implements MotorSimilitud {
 
-    private final Map<Cancion, Map<Cancion, Double>> grafo = new HashMap<>();
+    // Por debajo de este tamaño la construcción paralela no compensa
+    private static final int UMBRAL_PARALELO = 2_000;
 
-    // ✅ Construir el grafo basándose en similitud de género, artista o año cercano
-    public void construirGrafo(Collection<Cancion> canciones) {
-        grafo.clear();
+    // Cambios pendientes que toda fila admite antes de fusionarse, aunque √grado sea menor
+    private static final int MIN_CAMBIOS_PENDIENTES = 8;
 
-        List<Cancion> lista = new ArrayList<>(canciones);
+    // 🗂️ Índice de cada canción y filas de adyacencia (posiciones libres = null)
+    private final Map<Cancion, Integer> indice = new HashMap<>();
+    private Cancion[] canciones = new Cancion[0];
+    private int[][] vecinos = new int[0][];
+    private float[][] pesos = new float[0][];
+    // 🧩 Cambios pendientes por fila, claves ordenadas (null = ninguno): las agregadas no están
+    // en la base; las quitadas sí, y los recorridos las saltan
+    private long[][] agregadas = new long[0][];
+    private long[][] quitadas = new long[0][];
+    private int usados;
+    private final ArrayDeque<Integer> libres = new ArrayDeque<>();
+
+    // Hilos para construirGrafo (1 = secuencial)
+    private final int paralelismo;
+
+    public GrafoDeSimilitud() {
+        this(1);
+    }
+
+    /** @param paralelismo hilos para la construcción completa; 0 o negativo = núcleos disponibles */
+    public GrafoDeSimilitud(int paralelismo) {
+        this.paralelismo = paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * ✅ Construir el grafo basándose en similitud de género, artista o año cercano.
+     *
+     * Solo puntúa pares que pueden tener peso positivo: los que comparten género, artista
+     * (por código de {@link DiccionarioCatalogo}) o ventana de ±2 años. El resultado
+     * es idéntico al de {@link #construirGrafoFuerzaBruta(Collection)}, pero el trabajo es
+     * proporcional a los candidatos y no a n². Con paralelismo mayor que 1 se usa
+     * {@link #construirGrafoParalelo(List, Bloques)}.
+     */
+    @Override
+    public synchronized void construirGrafo(Collection<Cancion> canciones) {
+        List<Cancion> lista = reiniciar(canciones);
+        Bloques bloques = new Bloques(lista);
+        if (paralelismo > 1 && lista.size() >= UMBRAL_PARALELO) {
+            construirGrafoParalelo(lista, bloques);
+            return;
+        }
+
+        int n = lista.size();
+        FilaEnConstruccion[] filas = nuevasFilas(n);
+
+        // Marca del último i que ya evaluó a cada j (evita puntuar dos veces el mismo par)
+        int[] visto = new int[n];
+        Arrays.fill(visto, -1);
+
+        for (int i = 0; i < n; i++) {
+            final int fila = i;
+            Cancion a = lista.get(i);
+            bloques.candidatos(i, true, visto, j -> {
+                float peso = (float) calcularSimilitud(a, lista.get(j));
+                if (peso > 0) {
+                    filas[fila].agregar(j, peso);
+                    filas[j].agregar(fila, peso);
+                }
+            });
+        }
+        publicarFilas(filas);
+    }
+
+    /**
+     * 🧵 Construcción paralela: el rango de filas se reparte en un {@link ForkJoinPool} y cada
+     * trabajador arma completas las filas que le tocan (ambas direcciones de cada par), así que
+     * ninguna fila la escriben dos hilos. La unión final solo publica las filas.
+     * Cada par se puntúa dos veces (una por fila) a cambio de no necesitar candados.
+     */
+    private void construirGrafoParalelo(List<Cancion> lista, Bloques bloques) {
+        int n = lista.size();
+        int tamTramo = Math.max(UMBRAL_PARALELO / 4, n / (paralelismo * 8));
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.invoke(new ConstruirFilas(lista, bloques, 0, n, tamTramo));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private final class ConstruirFilas extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // La tarea nunca se serializa: solo vive dentro del pool de construirGrafoParalelo
+        private final transient List<Cancion> lista;
+        private final transient Bloques bloques;
+        private final int desde;
+        private final int hasta;
+        private final int tamTramo;
+
+        ConstruirFilas(List<Cancion> lista, Bloques bloques, int desde, int hasta, int tamTramo) {
+            this.lista = lista;
+            this.bloques = bloques;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.tamTramo = tamTramo;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > tamTramo) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new ConstruirFilas(lista, bloques, desde, medio, tamTramo),
+                          new ConstruirFilas(lista, bloques, medio, hasta, tamTramo));
+                return;
+            }
+            int[] visto = new int[lista.size()];
+            Arrays.fill(visto, -1);
+            FilaEnConstruccion fila = new FilaEnConstruccion();
+            for (int i = desde; i < hasta; i++) {
+                Cancion a = lista.get(i);
+                fila.limpiar();
+                bloques.candidatos(i, false, visto, j -> {
+                    float peso = (float) calcularSimilitud(a, lista.get(j));
+                    if (peso > 0) fila.agregar(j, peso);
+                });
+                // cada hilo escribe solo sus propias filas: no hay carreras
+                fila.publicarEn(i, vecinos, pesos);
+            }
+        }
+    }
+
+    /** 🪣 Índices de bloqueo: por código de género, de artista y por año (solo lectura tras construirse). */
+    private static final class Bloques {
+        // bloque[código] = índices ascendentes de las canciones con ese código
+        private final int[][] porGenero;
+        private final int[][] porArtista;
+        // (anio << 32 | índice), ordenado
+        private final long[] porAnio;
+        private final List<Cancion> lista;
+
+        Bloques(List<Cancion> lista) {
+            this.lista = lista;
+            int n = lista.size();
+            porGenero = agrupar(lista, Cancion::codigoGenero);
+            porArtista = agrupar(lista, Cancion::codigoArtista);
+            porAnio = new long[n];
+            for (int i = 0; i < n; i++) {
+                porAnio[i] = ((long) lista.get(i).getAnio() << 32) | i;
+            }
+            Arrays.sort(porAnio);
+        }
+
+        // Conteo por código y reparto en orden de índice: los bloques quedan ascendentes
+        private static int[][] agrupar(List<Cancion> lista, ToIntFunction<Cancion> codigo) {
+            int maximo = -1;
+            for (Cancion c : lista) maximo = Math.max(maximo, codigo.applyAsInt(c));
+            int[] tamanios = new int[maximo + 1];
+            for (Cancion c : lista) {
+                int k = codigo.applyAsInt(c);
+                if (k >= 0) tamanios[k]++;
+            }
+            int[][] bloques = new int[maximo + 1][];
+            for (int k = 0; k <= maximo; k++) bloques[k] = new int[tamanios[k]];
+            Arrays.fill(tamanios, 0);
+            for (int i = 0; i < lista.size(); i++) {
+                int k = codigo.applyAsInt(lista.get(i));
+                if (k >= 0) bloques[k][tamanios[k]++] = i;
+            }
+            return bloques;
+        }
+
+        /**
+         * Entrega cada candidato j de la fila i una sola vez ({@code visto[j] == i} marca los ya
+         * entregados). Con {@code soloPosteriores} solo se entregan los j > i.
+         */
+        void candidatos(int i, boolean soloPosteriores, int[] visto, IntConsumer accion) {
+            Cancion a = lista.get(i);
+            if (a.codigoGenero() >= 0) {
+                recorrerBloque(i, porGenero[a.codigoGenero()], soloPosteriores, visto, accion);
+            }
+            if (a.codigoArtista() >= 0) {
+                recorrerBloque(i, porArtista[a.codigoArtista()], soloPosteriores, visto, accion);
+            }
+
+            long desde = Math.max((long) Integer.MIN_VALUE, (long) a.getAnio() - 2) << 32;
+            long hasta = Math.min((long) Integer.MAX_VALUE, (long) a.getAnio() + 2);
+            int k = Arrays.binarySearch(porAnio, desde);
+            if (k < 0) k = -k - 1;
+            for (; k < porAnio.length && (porAnio[k] >> 32) <= hasta; k++) {
+                int j = (int) porAnio[k];
+                if (soloPosteriores ? j > i : j != i) entregar(i, j, visto, accion);
+            }
+        }
+
+        // Los bloques son ascendentes: para j > i basta recorrerlos desde el final
+        private static void recorrerBloque(int i, int[] bloque, boolean soloPosteriores,
+                                           int[] visto, IntConsumer accion) {
+            for (int k = bloque.length - 1; k >= 0; k--) {
+                int j = bloque[k];
+                if (j <= i) {
+                    if (soloPosteriores) break;
+                    if (j == i) continue;
+                }
+                entregar(i, j, visto, accion);
+            }
+        }
+
+        private static void entregar(int i, int j, int[] visto, IntConsumer accion) {
+            if (visto[j] == i) return;
+            visto[j] = i;
+            accion.accept(j);
+        }
+    }
+
+    /**
+     * Fila en construcción: arreglos crecientes de (vecino, peso). Al publicarse se ordena
+     * por peso descendente y se recorta al tamaño justo.
+     */
+    private static final class FilaEnConstruccion {
+        private long[] claves = new long[8];
+        private int tam;
+
+        void agregar(int vecino, float peso) {
+            if (tam == claves.length) claves = Arrays.copyOf(claves, tam * 2);
+            claves[tam++] = clave(vecino, peso);
+        }
+
+        void limpiar() {
+            tam = 0;
+        }
+
+        void publicarEn(int fila, int[][] vecinos, float[][] pesos) {
+            Arrays.sort(claves, 0, tam);
+            int[] v = new int[tam];
+            float[] p = new float[tam];
+            for (int k = 0; k < tam; k++) {
+                v[k] = vecinoDe(claves[k]);
+                p[k] = pesoDe(claves[k]);
+            }
+            vecinos[fila] = v;
+            pesos[fila] = p;
+        }
+    }
+
+    /*
+     * Orden de una fila empaquetado en un long: para pesos positivos los bits del float son
+     * monótonos, así que (MAX - bits) << 32 | vecino ordena ascendente por peso descendente
+     * y, a igual peso, por índice.
+     */
+    private static long clave(int vecino, float peso) {
+        return ((long) (Integer.MAX_VALUE - Float.floatToIntBits(peso)) << 32) | vecino;
+    }
+
+    private static int vecinoDe(long clave) {
+        return (int) clave;
+    }
+
+    private static float pesoDe(long clave) {
+        return Float.intBitsToFloat(Integer.MAX_VALUE - (int) (clave >>> 32));
+    }
+
+    private static FilaEnConstruccion[] nuevasFilas(int n) {
+        FilaEnConstruccion[] filas = new FilaEnConstruccion[n];
+        for (int i = 0; i < n; i++) filas[i] = new FilaEnConstruccion();
+        return filas;
+    }
+
+    private void publicarFilas(FilaEnConstruccion[] filas) {
+        for (int i = 0; i < filas.length; i++) {
+            filas[i].publicarEn(i, vecinos, pesos);
+        }
+    }
+
+    // Vacía el grafo y asigna índices 0..n-1 en el orden de la colección (sin duplicados)
+    private List<Cancion> reiniciar(Collection<Cancion> nuevas) {
+        indice.clear();
+        libres.clear();
+        List<Cancion> lista = new ArrayList<>(nuevas.size());
+        for (Cancion c : nuevas) {
+            if (indice.putIfAbsent(c, lista.size()) == null) lista.add(c);
+        }
+        int n = lista.size();
+        canciones = lista.toArray(new Cancion[0]);
+        vecinos = new int[n][];
+        pesos = new float[n][];
+        agregadas = new long[n][];
+        quitadas = new long[n][];
+        usados = n;
+        return lista;
+    }
+
+    // 🐢 Construcción original comparando todos los pares (referencia para pruebas)
+    public synchronized void construirGrafoFuerzaBruta(Collection<Cancion> canciones) {
+        List<Cancion> lista = reiniciar(canciones);
+        FilaEnConstruccion[] filas = nuevasFilas(lista.size());
 
         for (int i = 0; i < lista.size(); i++) {
             Cancion a = lista.get(i);
-            grafo.putIfAbsent(a, new HashMap<>());
 
             for (int j = i + 1; j < lista.size(); j++) {
                 Cancion b = lista.get(j);
 
-                double peso = calcularSimilitud(a, b);
+                float peso = (float) calcularSimilitud(a, b);
                 if (peso > 0) {
-                    grafo.get(a).put(b, peso);
-                    grafo.putIfAbsent(b, new HashMap<>());
-                    grafo.get(b).put(a, peso);
+                    filas[i].agregar(j, peso);
+                    filas[j].agregar(i, peso);
                 }
             }
         }
+        publicarFilas(filas);
+    }
+
+    /*
+     * ➕ Agregar una canción: se puntúa contra las n existentes, O(n), y cada vecino recibe la
+     * arista en sus cambios pendientes, O(√grado) amortizado por vecino.
+     */
+    @Override
+    public synchronized void agregarCancion(Cancion nueva) {
+        if (indice.containsKey(nueva)) {
+            actualizarCancion(nueva);
+            return;
+        }
+        int idx = reservarIndice();
+        canciones[idx] = nueva;
+        indice.put(nueva, idx);
+
+        FilaEnConstruccion fila = new FilaEnConstruccion();
+        for (int j = 0; j < usados; j++) {
+            if (j == idx || canciones[j] == null) continue;
+            float peso = (float) calcularSimilitud(nueva, canciones[j]);
+            if (peso > 0) {
+                fila.agregar(j, peso);
+                insertarEnFila(j, idx, peso);
+            }
+        }
+        fila.publicarEn(idx, vecinos, pesos);
+    }
+
+    // ➖ Eliminar una canción: solo se recorren sus vecinos, O(√grado) amortizado por vecino
+    @Override
+    public synchronized boolean eliminarCancion(Cancion cancion) {
+        Integer encontrado = indice.remove(cancion);
+        if (encontrado == null) return false;
+        int idx = encontrado;
+        recorrerFila(idx, Integer.MAX_VALUE, (vecino, peso) -> quitarDeFila(vecino, idx, peso));
+        canciones[idx] = null;
+        vecinos[idx] = null;
+        pesos[idx] = null;
+        agregadas[idx] = null;
+        quitadas[idx] = null;
+        libres.push(idx);
+        return true;
+    }
+
+    // 🔄 Recalcular una canción modificada (género, artista o año): quitar y volver a agregar
+    @Override
+    public synchronized void actualizarCancion(Cancion cancion) {
+        eliminarCancion(cancion);
+        agregarCancion(cancion);
+    }
+
+    private int reservarIndice() {
+        if (!libres.isEmpty()) return libres.pop();
+        if (usados == canciones.length) {
+            int capacidad = Math.max(16, usados * 2);
+            canciones = Arrays.copyOf(canciones, capacidad);
+            vecinos = Arrays.copyOf(vecinos, capacidad);
+            pesos = Arrays.copyOf(pesos, capacidad);
+            agregadas = Arrays.copyOf(agregadas, capacidad);
+            quitadas = Arrays.copyOf(quitadas, capacidad);
+        }
+        return usados++;
+    }
+
+    // Agrega (vecino, peso) sin copiar la fila: anula una quitada o va a las agregadas
+    private void insertarEnFila(int fila, int vecino, float peso) {
+        long c = clave(vecino, peso);
+        int pos = buscar(quitadas[fila], c);
+        if (pos >= 0) quitadas[fila] = sinPosicion(quitadas[fila], pos);
+        else agregadas[fila] = conClave(agregadas[fila], c);
+        fusionarSiHaceFalta(fila);
+    }
+
+    // Quita (vecino, peso) sin copiar la fila: sale de las agregadas o pasa a las quitadas
+    private void quitarDeFila(int fila, int vecino, float peso) {
+        long c = clave(vecino, peso);
+        int pos = buscar(agregadas[fila], c);
+        if (pos >= 0) {
+            agregadas[fila] = sinPosicion(agregadas[fila], pos);
+        } else if (posicionEnFila(vecinos[fila], pesos[fila], vecino, peso) >= 0
+                && buscar(quitadas[fila], c) < 0) {
+            quitadas[fila] = conClave(quitadas[fila], c);
+        } else {
+            return;
+        }
+        fusionarSiHaceFalta(fila);
+    }
+
+    /*
+     * Pasados ~√grado cambios la fila se reescribe con ellos aplicados: la copia O(grado) se
+     * reparte entre √grado cambios, y los cambios pendientes nunca superan √grado elementos.
+     */
+    private void fusionarSiHaceFalta(int fila) {
+        int base = vecinos[fila].length;
+        int cambios = largo(agregadas[fila]) + largo(quitadas[fila]);
+        if (cambios <= Math.max(MIN_CAMBIOS_PENDIENTES, (int) Math.sqrt(base))) return;
+
+        int[] v = new int[grado(fila)];
+        float[] p = new float[v.length];
+        int[] k = {0};
+        recorrerFila(fila, v.length, (vecino, peso) -> {
+            v[k[0]] = vecino;
+            p[k[0]++] = peso;
+        });
+        vecinos[fila] = v;
+        pesos[fila] = p;
+        agregadas[fila] = null;
+        quitadas[fila] = null;
+    }
+
+    /*
+     * Recorre la fila en orden (peso desc, índice asc) hasta {@code limite} vecinos: mezcla la
+     * base con las agregadas y salta las quitadas. Sin cambios pendientes es un bucle simple.
+     */
+    private void recorrerFila(int fila, int limite, VisitanteVecino visitante) {
+        int[] v = vecinos[fila];
+        float[] p = pesos[fila];
+        long[] agr = agregadas[fila];
+        long[] quit = quitadas[fila];
+        if (agr == null && quit == null) {
+            for (int k = 0, hasta = Math.min(limite, v.length); k < hasta; k++) visitante.visitar(v[k], p[k]);
+            return;
+        }
+        int nAgr = largo(agr);
+        int nQuit = largo(quit);
+        int b = 0;
+        int a = 0;
+        int q = 0;
+        int entregados = 0;
+        while (entregados < limite && (b < v.length || a < nAgr)) {
+            long deBase = b < v.length ? clave(v[b], p[b]) : Long.MAX_VALUE;
+            if (a < nAgr && agr[a] < deBase) {
+                visitante.visitar(vecinoDe(agr[a]), pesoDe(agr[a]));
+                a++;
+                entregados++;
+            } else if (q < nQuit && quit[q] == deBase) {
+                q++;
+                b++;
+            } else {
+                visitante.visitar(v[b], p[b]);
+                b++;
+                entregados++;
+            }
+        }
+    }
+
+    // 🧩 Arreglos ordenados de claves, inmutables una vez publicados (null = vacío)
+    private static int largo(long[] claves) {
+        return claves == null ? 0 : claves.length;
+    }
+
+    private static int buscar(long[] claves, long clave) {
+        return claves == null ? -1 : Arrays.binarySearch(claves, clave);
+    }
+
+    private static long[] conClave(long[] claves, long clave) {
+        if (claves == null) return new long[]{clave};
+        int pos = -Arrays.binarySearch(claves, clave) - 1;
+        long[] nuevas = new long[claves.length + 1];
+        System.arraycopy(claves, 0, nuevas, 0, pos);
+        nuevas[pos] = clave;
+        System.arraycopy(claves, pos, nuevas, pos + 1, claves.length - pos);
+        return nuevas;
+    }
+
+    private static long[] sinPosicion(long[] claves, int pos) {
+        if (claves.length == 1) return null;
+        long[] nuevas = new long[claves.length - 1];
+        System.arraycopy(claves, 0, nuevas, 0, pos);
+        System.arraycopy(claves, pos + 1, nuevas, pos, claves.length - pos - 1);
+        return nuevas;
+    }
+
+    // Búsqueda binaria por (peso desc, índice asc); negativo = punto de inserción, como Arrays
+    private static int posicionEnFila(int[] v, float[] p, int vecino, float peso) {
+        long buscada = clave(vecino, peso);
+        int lo = 0;
+        int hi = v.length - 1;
+        while (lo <= hi) {
+            int medio = (lo + hi) >>> 1;
+            long actual = clave(v[medio], p[medio]);
+            if (actual < buscada) lo = medio + 1;
+            else if (actual > buscada) hi = medio - 1;
+            else return medio;
+        }
+        return -(lo + 1);
     }
 
     // ✅ Regla de similitud (ajustable)
-    private double calcularSimilitud(Cancion a, Cancion b) {
+    static double calcularSimilitud(Cancion a, Cancion b) {
         double similitud = 0.0;
 
-        // Mismo género: +0.6
-        if (a.getGenero().equalsIgnoreCase(b.getGenero())) similitud += 0.6;
+        // Mismo género: +0.6 (códigos de DiccionarioCatalogo: sin mayúsculas ni tildes)
+        if (a.codigoGenero() >= 0 && a.codigoGenero() == b.codigoGenero()) similitud += 0.6;
 
         // Mismo artista: +0.3
-        if (a.getArtista().equalsIgnoreCase(b.getArtista())) similitud += 0.3;
+        if (a.codigoArtista() >= 0 && a.codigoArtista() == b.codigoArtista()) similitud += 0.3;
 
         // Año cercano (±2): +0.1
         if (Math.abs(a.getAnio() - b.getAnio()) <= 2) similitud += 0.1;
@@ -45,17 +540,112 @@ public class GrafoDeSimilitud {
         return similitud;
     }
 
-    // ✅ Obtener las canciones más similares a una canción dada
+    // ✅ Obtener las canciones más similares a una canción dada: prefijo de su fila ordenada
+    @Override
     public List<Cancion> obtenerSimilares(Cancion origen, int limite) {
-        if (!grafo.containsKey(origen)) return List.of();
+        Integer idx = indice.get(origen);
+        if (idx == null || limite <= 0) return List.of();
+
+        Cancion[] top = new Cancion[Math.min(limite, grado(idx))];
+        int[] k = {0};
+        recorrerFila(idx, top.length, (vecino, peso) -> top[k[0]++] = canciones[vecino]);
+        return List.of(top);
+    }
 
-        Map<Cancion, Double> adyacentes = grafo.get(origen);
+    // 🔍 Vecinos de una canción con su peso (copia)
+    public Map<Cancion, Double> obtenerAdyacentes(Cancion cancion) {
+        Integer idx = indice.get(cancion);
+        if (idx == null) return Map.of();
+        Map<Cancion, Double> adyacentes = new HashMap<>();
+        recorrerFila(idx, Integer.MAX_VALUE, (vecino, peso) -> adyacentes.put(canciones[vecino], (double) peso));
+        return adyacentes;
+    }
+
+    @Override
+    public int cantidadCanciones() {
+        return indice.size();
+    }
 
-        return adyacentes.entrySet()
-                .stream()
-                .sorted(Map.Entry.<Cancion, Double>comparingByValue().reversed())
-                .limit(limite)
-                .map(Map.Entry::getKey)
-                .toList();
+    @Override
+    public int indiceDe(Cancion cancion) {
+        Integer idx = indice.get(cancion);
+        return idx == null ? -1 : idx;
+    }
+
+    @Override
+    public Cancion cancionEn(int idx) {
+        return idx >= 0 && idx < canciones.length ? canciones[idx] : null;
+    }
+
+    /*
+     * Muestreo por rechazo sobre la fila: posición uniforme entre la base y las agregadas,
+     * aceptada con probabilidad peso / pesoMáximo (el primero de cada parte). Con pesos entre
+     * 0.1 y 1 son a lo sumo ~10 intentos esperados, sin tablas de sumas acumuladas por fila;
+     * las quitadas (a lo sumo ~√grado) solo hacen repetir el intento.
+     */
+    @Override
+    public int vecinoAleatorio(int idx, Random azar) {
+        int[] v = idx >= 0 && idx < vecinos.length ? vecinos[idx] : null;
+        if (v == null || grado(idx) == 0) return -1;
+        float[] p = pesos[idx];
+        long[] agr = agregadas[idx];
+        long[] quit = quitadas[idx];
+        int posiciones = v.length + largo(agr);
+        float maximo = Math.max(v.length > 0 ? p[0] : 0f, agr != null ? pesoDe(agr[0]) : 0f);
+        while (true) {
+            int k = azar.nextInt(posiciones);
+            int vecino;
+            float peso;
+            if (k < v.length) {
+                if (buscar(quit, clave(v[k], p[k])) >= 0) continue;
+                vecino = v[k];
+                peso = p[k];
+            } else {
+                vecino = vecinoDe(agr[k - v.length]);
+                peso = pesoDe(agr[k - v.length]);
+            }
+            if (azar.nextFloat() * maximo < peso) return vecino;
+        }
+    }
+
+    @Override
+    public int capacidadIndices() {
+        return usados;
+    }
+
+    @Override
+    public int grado(int idx) {
+        int[] v = idx >= 0 && idx < usados ? vecinos[idx] : null;
+        return v == null ? 0 : v.length + largo(agregadas[idx]) - largo(quitadas[idx]);
+    }
+
+    @Override
+    public void recorrerVecinos(int idx, VisitanteVecino visitante) {
+        if (idx < 0 || idx >= usados || vecinos[idx] == null) return;
+        recorrerFila(idx, Integer.MAX_VALUE, visitante);
+    }
+
+    // 📋 Copia para modificar sin tocar la instancia publicada: O(n) referencias, filas compartidas
+    @Override
+    public synchronized GrafoDeSimilitud copiar() {
+        GrafoDeSimilitud copia = new GrafoDeSimilitud(paralelismo);
+        copia.indice.putAll(indice);
+        copia.canciones = canciones.clone();
+        copia.vecinos = vecinos.clone();
+        copia.pesos = pesos.clone();
+        copia.agregadas = agregadas.clone();
+        copia.quitadas = quitadas.clone();
+        copia.usados = usados;
+        copia.libres.addAll(libres);
+        return copia;
+    }
+
+    // 📊 Aristas dirigidas almacenadas (cada par similar cuenta dos veces)
+    public long cantidadAristas() {
+        long total = 0;
+        for (int i = 0; i < usados; i++) {
+            total += grado(i);
+        }
+        return total;
     }
 }
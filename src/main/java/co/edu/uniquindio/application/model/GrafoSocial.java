@@ -1,27 +1,42 @@
 package co.edu.uniquindio.application.model;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
 
 /**
  * Grafo no dirigido que modela las relaciones entre usuarios.
  * Permite seguir/dejar de seguir y obtener sugerencias mediante BFS.
+ * Las operaciones se sincronizan porque el archivo se escribe desde otro hilo.
+ *
+ * Persistencia incremental: cada cambio de relación genera un delta ({@code +u;v} al seguir,
+ * {@code -u;v} al dejar de seguir) que {@link #guardarCambiosEnArchivo(String)} anexa a
+ * {@code <ruta>.log}. Cuando la bitácora crece más que la mitad de la instantánea se compacta
+ * reescribiendo la instantánea completa. Al cargar se lee la instantánea y se reproducen los deltas.
  */
 public class GrafoSocial {
 
+    private static final long MINIMO_PARA_COMPACTAR = 256 * 1024;
+
     private final Map<String, Set<String>> relaciones = new HashMap<>();
 
+    // 📝 Deltas aún no escritos en la bitácora (protegidos por el monitor de 'this')
+    private final List<String> deltasPendientes = new ArrayList<>();
+    private long bytesBitacora;
+    private long bytesInstantanea;
+
     /**
      * Agrega un nuevo usuario al grafo (sin conexiones iniciales).
      */
-    public void agregarUsuario(String username) {
+    public synchronized void agregarUsuario(String username) {
         relaciones.putIfAbsent(username, new HashSet<>());
     }
 
     /**
      * Crea una conexión bidireccional entre dos usuarios.
      */
-    public boolean seguirUsuario(String origen, String destino) {
+    public synchronized boolean seguirUsuario(String origen, String destino) {
         // Evitar que un usuario se siga a sí mismo
         if (origen.equals(destino)) return false;
 
@@ -35,6 +50,7 @@ public class GrafoSocial {
 
         // Agregar la relación bidireccional en el grafo
         relaciones.get(origen).add(destino);
+        deltasPendientes.add("+" + origen + ";" + destino);
 
         return true;  // La relación se creó correctamente
     }
@@ -44,7 +60,7 @@ public class GrafoSocial {
     /**
      * Elimina la conexión entre dos usuarios (dejar de seguir).
      */
-    public boolean dejarDeSeguir(String origen, String destino) {
+    public synchronized boolean dejarDeSeguir(String origen, String destino) {
         // Evitar que un usuario se deje de seguir a sí mismo
         if (origen.equals(destino)) return false;
 
@@ -59,6 +75,7 @@ public class GrafoSocial {
         // Eliminar la relación bidireccional en el grafo
         relaciones.get(origen).remove(destino);
         relaciones.get(destino).remove(origen);
+        deltasPendientes.add("-" + origen + ";" + destino);
 
         return true;  // La relación se eliminó correctamente
     }
@@ -74,7 +91,7 @@ public class GrafoSocial {
     /**
      * Sugerencias de amistad usando BFS (amigos de amigos no seguidos aún).
      */
-    public List<String> sugerirUsuarios(String username, int limite) {
+    public synchronized List<String> sugerirUsuarios(String username, int limite) {
         if (!relaciones.containsKey(username)) return Collections.emptyList();
 
         Set<String> visitados = new HashSet<>();
@@ -109,13 +126,18 @@ public class GrafoSocial {
      * @param username usuario a eliminar
      * @return true si existía y fue eliminado; false si no estaba presente
      */
-    public boolean eliminarUsuario(String username) {
+    public synchronized boolean eliminarUsuario(String username) {
         if (!relaciones.containsKey(username)) {
             return false;
         }
         // Quitar la referencia del resto de usuarios
-        for (Set<String> amigos : relaciones.values()) {
-            amigos.remove(username);
+        for (Map.Entry<String, Set<String>> e : relaciones.entrySet()) {
+            if (e.getValue().remove(username)) {
+                deltasPendientes.add("-" + e.getKey() + ";" + username);
+            }
+        }
+        for (String amigo : relaciones.get(username)) {
+            deltasPendientes.add("-" + username + ";" + amigo);
         }
         // Remover el nodo del usuario
         relaciones.remove(username);
@@ -125,53 +147,192 @@ public class GrafoSocial {
     // 🔽🔽🔽 Métodos de persistencia 🔽🔽🔽
 
     /**
-     * Guarda todas las relaciones en un archivo de texto.
-     * Cada línea representa una relación bidireccional: usuario1;usuario2
+     * Anexa a la bitácora {@code <rutaArchivo>.log} los deltas pendientes y, si la bitácora
+     * ya pesa más que la mitad de la instantánea, compacta ambas en una instantánea nueva.
+     * Este método y {@link #guardarRelacionesEnArchivo(String)} deben llamarse desde un
+     * único hilo escritor.
+     *
+     * Los deltas solo salen de la lista de pendientes cuando quedaron escritos; si la escritura
+     * falla se conservan para el próximo intento (reproducirlos dos veces es inocuo) y el error
+     * se relanza para que lo informe el canal de persistencia.
      */
-    public void guardarRelacionesEnArchivo(String rutaArchivo) {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(rutaArchivo))) {
-            for (String usuario : relaciones.keySet()) {
-                for (String amigo : relaciones.get(usuario)) {
-                    // Guardar todas las relaciones, sin excluir ninguna
-                    bw.write(usuario + ";" + amigo);
-                    bw.newLine();
+    public void guardarCambiosEnArchivo(String rutaArchivo) {
+        List<String> deltas;
+        List<String> instantanea = null;
+        synchronized (this) {
+            if (deltasPendientes.isEmpty()) return;
+            deltas = new ArrayList<>(deltasPendientes);
+            long bytesDeltas = 0;
+            for (String d : deltas) bytesDeltas += bytesDeLinea(d);
+            if (bytesBitacora + bytesDeltas > Math.max(MINIMO_PARA_COMPACTAR, bytesInstantanea / 2)) {
+                // La copia ya incluye los deltas tomados: la bitácora vieja sobra
+                instantanea = lineasRelaciones();
+            }
+        }
+
+        Path bitacora = rutaBitacora(rutaArchivo);
+        try {
+            if (instantanea != null) {
+                compactar(rutaArchivo, instantanea);
+            } else {
+                try (BufferedWriter bw = Files.newBufferedWriter(bitacora, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    long bytes = 0;
+                    for (String d : deltas) {
+                        bw.write(d);
+                        bw.newLine();
+                        bytes += bytesDeLinea(d);
+                    }
+                    bw.flush();
+                    synchronized (this) {
+                        bytesBitacora += bytes;
+                    }
                 }
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al guardar cambios del grafo social", e);
+        }
+        descartarEscritos(deltas.size());
+    }
+
+    /**
+     * Guarda todas las relaciones en un archivo de texto (instantánea completa) y descarta
+     * la bitácora, que queda cubierta por la instantánea.
+     * Cada línea representa una relación bidireccional: usuario1;usuario2
+     */
+    public void guardarRelacionesEnArchivo(String rutaArchivo) {
+        // Copia bajo el candado; la escritura en disco no bloquea a las peticiones
+        List<String> lineas;
+        int cubiertos;
+        synchronized (this) {
+            lineas = lineasRelaciones();
+            cubiertos = deltasPendientes.size();
+        }
+        try {
+            compactar(rutaArchivo, lineas);
+            descartarEscritos(cubiertos);
         } catch (IOException e) {
             System.err.println("❌ Error al guardar grafo social: " + e.getMessage());
         }
     }
 
+    // Los primeros n pendientes ya están en disco; los agregados mientras tanto siguen pendientes
+    private synchronized void descartarEscritos(int n) {
+        deltasPendientes.subList(0, Math.min(n, deltasPendientes.size())).clear();
+    }
+
+    private static long bytesDeLinea(String linea) {
+        return linea.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+
+    // 🧹 Publica la instantánea nueva y luego borra la bitácora (reproducirla de más es inocuo)
+    private void compactar(String rutaArchivo, List<String> instantanea) throws IOException {
+        long bytes = escribirInstantanea(rutaArchivo, instantanea);
+        Files.deleteIfExists(rutaBitacora(rutaArchivo));
+        synchronized (this) {
+            bytesInstantanea = bytes;
+            bytesBitacora = 0;
+        }
+    }
+
+    private List<String> lineasRelaciones() {
+        List<String> lineas = new ArrayList<>();
+        for (String usuario : relaciones.keySet()) {
+            for (String amigo : relaciones.get(usuario)) {
+                // Guardar todas las relaciones, sin excluir ninguna
+                lineas.add(usuario + ";" + amigo);
+            }
+        }
+        return lineas;
+    }
+
+    // 💾 Escribe a un temporal y lo publica con renombrado atómico; devuelve los bytes escritos
+    private static long escribirInstantanea(String rutaArchivo, List<String> lineas) throws IOException {
+        Path destino = Paths.get(rutaArchivo);
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            for (String linea : lineas) {
+                bw.write(linea);
+                bw.newLine();
+            }
+        }
+        try {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return Files.size(destino);
+    }
 
     /**
-     * Carga las relaciones desde un archivo existente.
-     * Si el archivo no existe, no hace nada.
+     * Carga las relaciones desde un archivo existente y reproduce los deltas de su bitácora.
+     * Si el archivo no existe, solo se aplican los deltas (si los hay).
      */
-    public void cargarRelacionesDesdeArchivo(String rutaArchivo) {
+    public synchronized void cargarRelacionesDesdeArchivo(String rutaArchivo) {
         File archivo = new File(rutaArchivo);
-        if (!archivo.exists()) return;
+        if (archivo.exists()) {
+            try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    String[] partes = linea.split(";");
+                    if (partes.length == 2) {
+                        String u1 = partes[0].trim();
+                        String u2 = partes[1].trim();
+
+                        // Crear usuarios si no existen
+                        agregarUsuario(u1);
+                        agregarUsuario(u2);
+
+                        // Reconstruir la relación
+                        seguirUsuario(u1, u2);
+                    }
+                }
+                bytesInstantanea = archivo.length();
+            } catch (IOException e) {
+                System.err.println("❌ Error al cargar grafo social: " + e.getMessage());
+            }
+        }
+        reproducirBitacora(rutaBitacora(rutaArchivo));
+        // lo cargado ya está en disco
+        deltasPendientes.clear();
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
+    // 🔁 Cada delta fija el estado de sus aristas, así que reproducirlos es idempotente
+    private void reproducirBitacora(Path bitacora) {
+        if (!Files.exists(bitacora)) return;
+        try (BufferedReader br = Files.newBufferedReader(bitacora, StandardCharsets.UTF_8)) {
             String linea;
             while ((linea = br.readLine()) != null) {
-                String[] partes = linea.split(";");
-                if (partes.length == 2) {
-                    String u1 = partes[0].trim();
-                    String u2 = partes[1].trim();
-
-                    // Crear usuarios si no existen
+                if (linea.length() < 2) continue;
+                char op = linea.charAt(0);
+                String[] partes = linea.substring(1).split(";");
+                if (partes.length != 2) continue;
+                String u1 = partes[0].trim();
+                String u2 = partes[1].trim();
+                if (op == '+') {
                     agregarUsuario(u1);
                     agregarUsuario(u2);
-
-                    // Reconstruir la relación
-                    seguirUsuario(u1, u2);
+                    relaciones.get(u1).add(u2);
+                } else if (op == '-') {
+                    Set<String> a = relaciones.get(u1);
+                    Set<String> b = relaciones.get(u2);
+                    if (a != null) a.remove(u2);
+                    if (b != null) b.remove(u1);
                 }
             }
+            bytesBitacora = Files.size(bitacora);
         } catch (IOException e) {
-            System.err.println("❌ Error al cargar grafo social: " + e.getMessage());
+            System.err.println("❌ Error al reproducir bitácora del grafo social: " + e.getMessage());
         }
     }
 
+    private static Path rutaBitacora(String rutaArchivo) {
+        Path ruta = Paths.get(rutaArchivo);
+        String nombre = ruta.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        return ruta.resolveSibling((punto > 0 ? nombre.substring(0, punto) : nombre) + ".log");
+    }
+
     // ✅ (Opcional) Método auxiliar para inspeccionar el grafo
     public void imprimirRelaciones() {
         relaciones.forEach((usuario, amigos) -> {
@@ -0,0 +1,624 @@
+package co.edu.uniquindio.application.model;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Motor de similitud aproximado para catálogos muy grandes: índice HNSW
+ * (Hierarchical Navigable Small World) en memoria, sin materializar todas las aristas.
+ *
+ * Cada canción se codifica como un vector de rasgos (código de género, código de artista,
+ * año/década y tramo de duración) y la distancia entre dos canciones es
+ * {@code 1 - similitud} con la misma regla de {@link GrafoDeSimilitud}, más un desempate
+ * menor a 0.1 por década y duración. Así el orden aproximado respeta el orden exacto y
+ * solo se devuelven canciones con similitud positiva.
+ *
+ * Parámetros (recall contra latencia):
+ * <ul>
+ *   <li>{@code m}: enlaces por nodo y capa (capa 0 = 2m); más memoria y mejor recall;</li>
+ *   <li>{@code efConstruccion}: candidatos al insertar; construcción más lenta, grafo mejor;</li>
+ *   <li>{@code efBusqueda}: candidatos por consulta; se puede ajustar en caliente.</li>
+ * </ul>
+ * Las eliminaciones dejan una lápida: el nodo sigue sirviendo para navegar pero no se
+ * devuelve. Cuando las lápidas superan a las canciones vivas el índice se reconstruye.
+ *
+ * Las consultas no se sincronizan (ver {@link MotorSimilitud}): la instancia que leen
+ * otros hilos no se vuelve a modificar. Por eso cada cambio se hace sobre una
+ * {@link #copiar() copia}, que es copia en escritura: comparte rasgos, enlaces y mapa de
+ * nodos con el original y solo duplica lo que el cambio toca (los nodos re-enlazados y su
+ * página), así que su costo depende del cambio y no del tamaño del catálogo.
+ */
+public class IndiceSimilitudAproximado implements MotorSimilitud {
+
+    private static final int NIVEL_MAXIMO = 16;
+    private static final int MIN_LAPIDAS_RECONSTRUIR = 64;
+    private static final int BITS_PAGINA = 8;
+    private static final int TAM_PAGINA = 1 << BITS_PAGINA;
+    private static final int MIN_CAMBIOS_FUSIONAR = 256;
+
+    private final int m;
+    private final int mCapaCero;
+    private final double factorNivel;
+    private final int efConstruccion;
+    private volatile int efBusqueda;
+    private final Random azar = new Random(42);
+
+    // 🗂️ Rasgos de los nodos (estructura de arreglos). Un nodo no cambia sus rasgos, así que
+    // las copias comparten los arreglos; 'usados' dice qué copia puede anexar el siguiente
+    private Cancion[] canciones = new Cancion[0];
+    private int[] genero = new int[0];
+    private int[] artista = new int[0];
+    private int[] anio = new int[0];
+    private int[] tramoDuracion = new int[0];
+    private AtomicInteger usados = new AtomicInteger();
+
+    // 🔗 Enlaces en páginas de TAM_PAGINA nodos, compartidas entre copias hasta que se modifican
+    private Pagina[] paginas = new Pagina[0];
+    private BitSet paginasPropias = new BitSet();
+    private BitSet nodosPropios = new BitSet();
+
+    // 🧭 Canción → nodo: base compartida entre copias + cambios propios (-1 = eliminada)
+    private Map<Cancion, Integer> base = new HashMap<>();
+    private Map<Cancion, Integer> cambios = new HashMap<>();
+    private boolean baseCompartida;
+    private int vivas;
+
+    private BitSet lapidas = new BitSet();
+    private int tam;
+    private int puntoEntrada = -1;
+    private int nivelEntrada = -1;
+
+    // Marcas de visitado por época y por hilo (las consultas concurrentes no comparten estado)
+    private static final class Marcas {
+        int[] visitado = new int[0];
+        int epoca;
+    }
+
+    private static final ThreadLocal<Marcas> MARCAS = ThreadLocal.withInitial(Marcas::new);
+
+    // enlaces[i][capa] = vecinos del nodo (página·TAM_PAGINA + i); cuentas[i][capa] = cuántos en uso
+    private static final class Pagina {
+        final int[][][] enlaces;
+        final int[][] cuentas;
+
+        Pagina() {
+            enlaces = new int[TAM_PAGINA][][];
+            cuentas = new int[TAM_PAGINA][];
+        }
+
+        // Copia superficial: las listas de cada nodo siguen compartidas
+        Pagina(Pagina original) {
+            enlaces = original.enlaces.clone();
+            cuentas = original.cuentas.clone();
+        }
+    }
+
+    public IndiceSimilitudAproximado(int m, int efConstruccion, int efBusqueda) {
+        this.m = Math.max(2, m);
+        this.mCapaCero = this.m * 2;
+        this.factorNivel = 1.0 / Math.log(this.m);
+        this.efConstruccion = Math.max(this.m, efConstruccion);
+        this.efBusqueda = Math.max(1, efBusqueda);
+    }
+
+    @Override
+    public synchronized void construirGrafo(Collection<Cancion> nuevas) {
+        base = new HashMap<>();
+        cambios = new HashMap<>();
+        baseCompartida = false;
+        vivas = 0;
+        lapidas = new BitSet();
+        tam = 0;
+        puntoEntrada = -1;
+        nivelEntrada = -1;
+        int n = nuevas.size();
+        canciones = new Cancion[n];
+        genero = new int[n];
+        artista = new int[n];
+        anio = new int[n];
+        tramoDuracion = new int[n];
+        usados = new AtomicInteger();
+        paginas = new Pagina[(n + TAM_PAGINA - 1) >>> BITS_PAGINA];
+        paginasPropias = new BitSet();
+        nodosPropios = new BitSet();
+        for (Cancion c : nuevas) {
+            if (buscarNodo(c) < 0) insertar(c);
+        }
+    }
+
+    @Override
+    public synchronized void agregarCancion(Cancion cancion) {
+        if (buscarNodo(cancion) >= 0) {
+            actualizarCancion(cancion);
+            return;
+        }
+        insertar(cancion);
+    }
+
+    @Override
+    public synchronized boolean eliminarCancion(Cancion cancion) {
+        int nodo = buscarNodo(cancion);
+        if (nodo < 0) return false;
+        asignarNodo(cancion, -1);
+        vivas--;
+        // canciones[nodo] se conserva: el arreglo es compartido y las copias anteriores lo leen
+        lapidas.set(nodo);
+
+        int cantidadLapidas = lapidas.cardinality();
+        if (cantidadLapidas >= MIN_LAPIDAS_RECONSTRUIR && cantidadLapidas > vivas) {
+            List<Cancion> vigentes = new ArrayList<>(vivas);
+            for (int i = 0; i < tam; i++) {
+                if (!lapidas.get(i)) vigentes.add(canciones[i]);
+            }
+            construirGrafo(vigentes);
+        }
+        return true;
+    }
+
+    // 🔄 Los rasgos cambiaron: lápida para el nodo viejo y un nodo nuevo
+    @Override
+    public synchronized void actualizarCancion(Cancion cancion) {
+        eliminarCancion(cancion);
+        insertar(cancion);
+    }
+
+    @Override
+    public List<Cancion> obtenerSimilares(Cancion origen, int limite) {
+        int nodo = buscarNodo(origen);
+        if (nodo < 0 || limite <= 0) return List.of();
+
+        long[] encontrados = buscarVecinos(nodo, Math.max(efBusqueda, limite + 1));
+        List<Cancion> similares = new ArrayList<>(Math.min(limite, encontrados.length));
+        for (long clave : encontrados) {
+            int vecino = nodoDe(clave);
+            if (vecino == nodo || lapidas.get(vecino)) continue;
+            // 1 - distancia < 0.1 por el desempate: sin género, artista ni año en común
+            if (GrafoDeSimilitud.calcularSimilitud(origen, canciones[vecino]) <= 0) continue;
+            similares.add(canciones[vecino]);
+            if (similares.size() == limite) break;
+        }
+        return similares;
+    }
+
+    @Override
+    public int cantidadCanciones() {
+        return vivas;
+    }
+
+    @Override
+    public int indiceDe(Cancion cancion) {
+        return buscarNodo(cancion);
+    }
+
+    @Override
+    public Cancion cancionEn(int nodo) {
+        return nodo >= 0 && nodo < tam && !lapidas.get(nodo) ? canciones[nodo] : null;
+    }
+
+    // 🎲 Enlace de la capa 0 al azar, aceptado con probabilidad = similitud (lápidas y pesos 0 se rechazan)
+    @Override
+    public int vecinoAleatorio(int nodo, Random azar) {
+        if (nodo < 0 || nodo >= tam) return -1;
+        int[] lista = enlacesDe(nodo, 0);
+        int cuenta = cuentaDe(nodo, 0);
+        for (int intento = 0; cuenta > 0 && intento < 8 * cuenta; intento++) {
+            int vecino = lista[azar.nextInt(cuenta)];
+            if (lapidas.get(vecino)) continue;
+            if (azar.nextFloat() < similitud(nodo, vecino)) return vecino;
+        }
+        return -1;
+    }
+
+    @Override
+    public int capacidadIndices() {
+        return tam;
+    }
+
+    // Enlaces de la capa 0 (puede incluir lápidas o pesos 0, que recorrerVecinos omite)
+    @Override
+    public int grado(int nodo) {
+        return nodo >= 0 && nodo < tam ? cuentaDe(nodo, 0) : 0;
+    }
+
+    @Override
+    public void recorrerVecinos(int nodo, VisitanteVecino visitante) {
+        if (nodo < 0 || nodo >= tam || lapidas.get(nodo)) return;
+        int[] lista = enlacesDe(nodo, 0);
+        int cuenta = cuentaDe(nodo, 0);
+        for (int k = 0; k < cuenta; k++) {
+            int vecino = lista[k];
+            if (lapidas.get(vecino)) continue;
+            float peso = similitud(nodo, vecino);
+            if (peso > 0) visitante.visitar(vecino, peso);
+        }
+    }
+
+    /**
+     * 📋 Copia en escritura: comparte rasgos, páginas de enlaces y mapa de nodos. Desde aquí
+     * ninguna de las dos instancias es dueña de lo compartido; la que modifique un nodo copia
+     * antes su página y sus listas ({@link #paginaEscribible(int)}). Cuesta O(n / TAM_PAGINA)
+     * referencias, un bit por nodo (lápidas) y el mapa de cambios pendientes, acotado por
+     * {@link #fusionarSiHaceFalta()}.
+     */
+    @Override
+    public synchronized IndiceSimilitudAproximado copiar() {
+        IndiceSimilitudAproximado copia = new IndiceSimilitudAproximado(m, efConstruccion, efBusqueda);
+        copia.canciones = canciones;
+        copia.genero = genero;
+        copia.artista = artista;
+        copia.anio = anio;
+        copia.tramoDuracion = tramoDuracion;
+        copia.usados = usados;
+        copia.paginas = paginas.clone();
+        paginasPropias = new BitSet();
+        nodosPropios = new BitSet();
+        copia.base = base;
+        copia.cambios = new HashMap<>(cambios);
+        copia.baseCompartida = true;
+        baseCompartida = true;
+        copia.vivas = vivas;
+        copia.lapidas = (BitSet) lapidas.clone();
+        copia.tam = tam;
+        copia.puntoEntrada = puntoEntrada;
+        copia.nivelEntrada = nivelEntrada;
+        copia.azar.setSeed(azar.nextLong());
+        return copia;
+    }
+
+    public void setEfBusqueda(int efBusqueda) {
+        this.efBusqueda = Math.max(1, efBusqueda);
+    }
+
+    public int getEfBusqueda() {
+        return efBusqueda;
+    }
+
+    // 📊 Enlaces almacenados (para comparar memoria con el grafo exacto)
+    public long cantidadEnlaces() {
+        long total = 0;
+        for (int i = 0; i < tam; i++) {
+            for (int cuenta : paginas[i >>> BITS_PAGINA].cuentas[i & (TAM_PAGINA - 1)]) total += cuenta;
+        }
+        return total;
+    }
+
+    private int buscarNodo(Cancion cancion) {
+        Integer nodo = cambios.get(cancion);
+        if (nodo == null) nodo = base.get(cancion);
+        return nodo == null ? -1 : nodo;
+    }
+
+    // Con la base compartida se anota en 'cambios' (nodo -1 = eliminada) en vez de tocarla
+    private void asignarNodo(Cancion cancion, int nodo) {
+        if (!baseCompartida) {
+            if (nodo < 0) base.remove(cancion);
+            else base.put(cancion, nodo);
+            return;
+        }
+        cambios.put(cancion, nodo);
+        fusionarSiHaceFalta();
+    }
+
+    /*
+     * Cada copia duplica 'cambios' y fusionar duplica la base: con el umbral en ~raíz de n
+     * ambos costos quedan en O(raíz de n) por cambio en lugar de O(n).
+     */
+    private void fusionarSiHaceFalta() {
+        if (cambios.size() <= Math.max(MIN_CAMBIOS_FUSIONAR, (int) Math.sqrt(base.size()))) return;
+        Map<Cancion, Integer> fusion = new HashMap<>(base);
+        cambios.forEach((cancion, nodo) -> {
+            if (nodo < 0) fusion.remove(cancion);
+            else fusion.put(cancion, nodo);
+        });
+        base = fusion;
+        cambios = new HashMap<>();
+        baseCompartida = false;
+    }
+
+    private int[] enlacesDe(int nodo, int capa) {
+        return paginas[nodo >>> BITS_PAGINA].enlaces[nodo & (TAM_PAGINA - 1)][capa];
+    }
+
+    private int cuentaDe(int nodo, int capa) {
+        return paginas[nodo >>> BITS_PAGINA].cuentas[nodo & (TAM_PAGINA - 1)][capa];
+    }
+
+    // Página propia de esta instancia (se copia la compartida la primera vez que se escribe)
+    private Pagina paginaPropia(int nodo) {
+        int p = nodo >>> BITS_PAGINA;
+        if (!paginasPropias.get(p)) {
+            paginas[p] = paginas[p] == null ? new Pagina() : new Pagina(paginas[p]);
+            paginasPropias.set(p);
+        }
+        return paginas[p];
+    }
+
+    // ✍️ Antes de re-enlazar un nodo existente: su página y sus listas pasan a ser propias
+    private Pagina paginaEscribible(int nodo) {
+        Pagina pagina = paginaPropia(nodo);
+        if (!nodosPropios.get(nodo)) {
+            int i = nodo & (TAM_PAGINA - 1);
+            int[][] listas = pagina.enlaces[i].clone();
+            for (int capa = 0; capa < listas.length; capa++) listas[capa] = listas[capa].clone();
+            pagina.enlaces[i] = listas;
+            pagina.cuentas[i] = pagina.cuentas[i].clone();
+            nodosPropios.set(nodo);
+        }
+        return pagina;
+    }
+
+    // ➕ Inserción HNSW: descenso voraz hasta la capa del nodo y enlace en cada capa inferior
+    private void insertar(Cancion c) {
+        int nodo = reservarNodo();
+        int nivel = Math.min(NIVEL_MAXIMO, (int) (-Math.log(1.0 - azar.nextDouble()) * factorNivel));
+        canciones[nodo] = c;
+        genero[nodo] = c.codigoGenero();
+        artista[nodo] = c.codigoArtista();
+        anio[nodo] = c.getAnio();
+        tramoDuracion[nodo] = (int) Math.max(0, Math.min(20, c.getDuracion()));
+        Pagina pagina = paginaPropia(nodo);
+        int[][] listas = new int[nivel + 1][];
+        for (int capa = 0; capa <= nivel; capa++) {
+            listas[capa] = new int[maxEnlaces(capa)];
+        }
+        pagina.enlaces[nodo & (TAM_PAGINA - 1)] = listas;
+        pagina.cuentas[nodo & (TAM_PAGINA - 1)] = new int[nivel + 1];
+        nodosPropios.set(nodo);
+        asignarNodo(c, nodo);
+        vivas++;
+
+        if (puntoEntrada < 0) {
+            puntoEntrada = nodo;
+            nivelEntrada = nivel;
+            return;
+        }
+
+        int entrada = puntoEntrada;
+        for (int capa = nivelEntrada; capa > nivel; capa--) {
+            entrada = descensoVoraz(nodo, entrada, capa);
+        }
+        for (int capa = Math.min(nivel, nivelEntrada); capa >= 0; capa--) {
+            long[] candidatos = buscarEnCapa(nodo, entrada, efConstruccion, capa);
+            int[] elegidos = seleccionarVecinos(nodo, candidatos, m);
+            System.arraycopy(elegidos, 0, listas[capa], 0, elegidos.length);
+            pagina.cuentas[nodo & (TAM_PAGINA - 1)][capa] = elegidos.length;
+            for (int vecino : elegidos) enlazar(vecino, nodo, capa);
+            entrada = nodoDe(candidatos[0]);
+        }
+
+        if (nivel > nivelEntrada) {
+            puntoEntrada = nodo;
+            nivelEntrada = nivel;
+        }
+    }
+
+    /*
+     * El lugar 'tam' de los rasgos compartidos es de la primera copia que lo reclama; las
+     * copias anteriores no leen más allá de su propio 'tam'. Sin lugar (o si otra copia del
+     * mismo original ya anexó) se pasa a arreglos propios.
+     */
+    private int reservarNodo() {
+        if (tam == canciones.length || !usados.compareAndSet(tam, tam + 1)) {
+            int capacidad = tam == canciones.length ? Math.max(16, tam * 2) : canciones.length;
+            canciones = Arrays.copyOf(canciones, capacidad);
+            genero = Arrays.copyOf(genero, capacidad);
+            artista = Arrays.copyOf(artista, capacidad);
+            anio = Arrays.copyOf(anio, capacidad);
+            tramoDuracion = Arrays.copyOf(tramoDuracion, capacidad);
+            usados = new AtomicInteger(tam + 1);
+        }
+        int paginasNecesarias = (tam >>> BITS_PAGINA) + 1;
+        if (paginas.length < paginasNecesarias) {
+            paginas = Arrays.copyOf(paginas, Math.max(paginasNecesarias, paginas.length * 2));
+        }
+        return tam++;
+    }
+
+    private int maxEnlaces(int capa) {
+        return capa == 0 ? mCapaCero : m;
+    }
+
+    // Enlace inverso; si el vecino se pasa del máximo se vuelve a seleccionar su lista
+    private void enlazar(int nodo, int nuevo, int capa) {
+        Pagina pagina = paginaEscribible(nodo);
+        int i = nodo & (TAM_PAGINA - 1);
+        int[] lista = pagina.enlaces[i][capa];
+        int[] cuentas = pagina.cuentas[i];
+        int cuenta = cuentas[capa];
+        if (cuenta < lista.length) {
+            lista[cuenta] = nuevo;
+            cuentas[capa] = cuenta + 1;
+            return;
+        }
+        long[] candidatos = new long[cuenta + 1];
+        for (int k = 0; k < cuenta; k++) candidatos[k] = clave(distancia(nodo, lista[k]), lista[k]);
+        candidatos[cuenta] = clave(distancia(nodo, nuevo), nuevo);
+        Arrays.sort(candidatos);
+        int[] elegidos = seleccionarVecinos(nodo, candidatos, lista.length);
+        System.arraycopy(elegidos, 0, lista, 0, elegidos.length);
+        cuentas[capa] = elegidos.length;
+    }
+
+    /**
+     * Heurística de selección de HNSW: un candidato entra si está más cerca de la base que de
+     * todos los ya elegidos (diversifica las direcciones); si sobran cupos se completan con los
+     * descartados más cercanos. Los candidatos llegan ordenados por distancia a la base.
+     */
+    private int[] seleccionarVecinos(int base, long[] candidatos, int maximo) {
+        int[] elegidos = new int[Math.min(maximo, candidatos.length)];
+        int cuenta = 0;
+        int[] descartados = new int[candidatos.length];
+        int cuentaDescartados = 0;
+        for (long clave : candidatos) {
+            if (cuenta == elegidos.length) break;
+            int candidato = nodoDe(clave);
+            if (candidato == base) continue;
+            float distanciaBase = distanciaDe(clave);
+            boolean diverso = true;
+            for (int k = 0; k < cuenta && diverso; k++) {
+                if (distancia(candidato, elegidos[k]) < distanciaBase) diverso = false;
+            }
+            if (diverso) elegidos[cuenta++] = candidato;
+            else descartados[cuentaDescartados++] = candidato;
+        }
+        for (int k = 0; k < cuentaDescartados && cuenta < elegidos.length; k++) {
+            elegidos[cuenta++] = descartados[k];
+        }
+        return cuenta == elegidos.length ? elegidos : Arrays.copyOf(elegidos, cuenta);
+    }
+
+    // 🔍 Consulta: descenso voraz por las capas altas y búsqueda con ef en la capa 0
+    private long[] buscarVecinos(int consulta, int ef) {
+        int entrada = puntoEntrada;
+        for (int capa = nivelEntrada; capa > 0; capa--) {
+            entrada = descensoVoraz(consulta, entrada, capa);
+        }
+        return buscarEnCapa(consulta, entrada, ef, 0);
+    }
+
+    private int descensoVoraz(int consulta, int entrada, int capa) {
+        int actual = entrada;
+        float mejor = distancia(consulta, actual);
+        boolean mejoro = true;
+        while (mejoro) {
+            mejoro = false;
+            int[] lista = enlacesDe(actual, capa);
+            int cuenta = cuentaDe(actual, capa);
+            for (int k = 0; k < cuenta; k++) {
+                float d = distancia(consulta, lista[k]);
+                if (d < mejor) {
+                    mejor = d;
+                    actual = lista[k];
+                    mejoro = true;
+                }
+            }
+        }
+        return actual;
+    }
+
+    /** Búsqueda en una capa con lista dinámica de {@code ef} candidatos; devuelve claves ordenadas. */
+    private long[] buscarEnCapa(int consulta, int entrada, int ef, int capa) {
+        Marcas marcas = MARCAS.get();
+        if (marcas.visitado.length < tam) marcas.visitado = new int[canciones.length];
+        if (++marcas.epoca == 0) {
+            Arrays.fill(marcas.visitado, 0);
+            marcas.epoca = 1;
+        }
+        int[] visitado = marcas.visitado;
+        int epoca = marcas.epoca;
+        Monticulo candidatos = new Monticulo(ef * 2);
+        Monticulo resultados = new Monticulo(ef + 1); // máximo: se guardan claves negadas
+
+        long inicial = clave(distancia(consulta, entrada), entrada);
+        visitado[entrada] = epoca;
+        candidatos.agregar(inicial);
+        resultados.agregar(-inicial);
+
+        while (!candidatos.vacio()) {
+            long actual = candidatos.extraer();
+            if (resultados.tamanio() >= ef && actual > -resultados.tope()) break;
+            int nodo = nodoDe(actual);
+            Pagina pagina = paginas[nodo >>> BITS_PAGINA];
+            int[] lista = pagina.enlaces[nodo & (TAM_PAGINA - 1)][capa];
+            int cuenta = pagina.cuentas[nodo & (TAM_PAGINA - 1)][capa];
+            for (int k = 0; k < cuenta; k++) {
+                int vecino = lista[k];
+                if (visitado[vecino] == epoca) continue;
+                visitado[vecino] = epoca;
+                long c = clave(distancia(consulta, vecino), vecino);
+                if (resultados.tamanio() < ef || c < -resultados.tope()) {
+                    candidatos.agregar(c);
+                    resultados.agregar(-c);
+                    if (resultados.tamanio() > ef) resultados.extraer();
+                }
+            }
+        }
+
+        long[] ordenados = new long[resultados.tamanio()];
+        for (int k = ordenados.length - 1; k >= 0; k--) ordenados[k] = -resultados.extraer();
+        return ordenados;
+    }
+
+    /*
+     * Distancia = 1 - similitud (regla de GrafoDeSimilitud) + desempate < 0.1:
+     * 0.03 por década de diferencia (hasta 5) y 0.02 por tramo de duración (hasta 5), escalados.
+     */
+    private float distancia(int a, int b) {
+        float similitud = similitud(a, b);
+        int decadas = Math.min(5, Math.abs(anio[a] / 10 - anio[b] / 10));
+        int tramos = Math.min(5, Math.abs(tramoDuracion[a] - tramoDuracion[b]));
+        return 1f - similitud + 0.03f * decadas / 5 + 0.02f * tramos / 5;
+    }
+
+    // Regla de GrafoDeSimilitud sobre los rasgos del nodo
+    private float similitud(int a, int b) {
+        float similitud = 0f;
+        if (genero[a] >= 0 && genero[a] == genero[b]) similitud += 0.6f;
+        if (artista[a] >= 0 && artista[a] == artista[b]) similitud += 0.3f;
+        if (Math.abs(anio[a] - anio[b]) <= 2) similitud += 0.1f;
+        return similitud;
+    }
+
+    // (distancia, nodo) empaquetados: los bits de un float no negativo son monótonos
+    private static long clave(float distancia, int nodo) {
+        return ((long) Float.floatToIntBits(Math.max(0f, distancia)) << 32) | nodo;
+    }
+
+    private static int nodoDe(long clave) {
+        return (int) clave;
+    }
+
+    private static float distanciaDe(long clave) {
+        return Float.intBitsToFloat((int) (clave >>> 32));
+    }
+
+    /** Montículo mínimo de claves primitivas (sin cajas Long). */
+    private static final class Monticulo {
+        private long[] datos;
+        private int tam;
+
+        Monticulo(int capacidad) {
+            datos = new long[Math.max(4, capacidad)];
+        }
+
+        void agregar(long valor) {
+            if (tam == datos.length) datos = Arrays.copyOf(datos, tam * 2);
+            int i = tam++;
+            while (i > 0) {
+                int padre = (i - 1) >>> 1;
+                if (datos[padre] <= valor) break;
+                datos[i] = datos[padre];
+                i = padre;
+            }
+            datos[i] = valor;
+        }
+
+        long extraer() {
+            long raiz = datos[0];
+            long ultimo = datos[--tam];
+            int i = 0;
+            while (true) {
+                int hijo = 2 * i + 1;
+                if (hijo >= tam) break;
+                if (hijo + 1 < tam && datos[hijo + 1] < datos[hijo]) hijo++;
+                if (ultimo <= datos[hijo]) break;
+                datos[i] = datos[hijo];
+                i = hijo;
+            }
+            if (tam > 0) datos[i] = ultimo;
+            return raiz;
+        }
+
+        long tope() {
+            return datos[0];
+        }
+
+        int tamanio() {
+            return tam;
+        }
+
+        boolean vacio() {
+            return tam == 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package co.edu.uniquindio.application.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Motor de recomendaciones por similitud entre canciones.
+ * Implementaciones: {@link GrafoDeSimilitud} (exacto, todas las aristas) e
+ * {@link IndiceSimilitudAproximado} (vecinos aproximados con HNSW, para catálogos muy grandes).
+ *
+ * Las consultas no toman candados: una instancia compartida entre hilos no se vuelve a
+ * modificar. Para cambiarla se modifica una {@link #copiar() copia} y se publica la copia.
+ */
+public interface MotorSimilitud {
+
+    /** Descarta el estado actual y lo reconstruye desde el catálogo completo. */
+    void construirGrafo(Collection<Cancion> canciones);
+
+    void agregarCancion(Cancion cancion);
+
+    boolean eliminarCancion(Cancion cancion);
+
+    void actualizarCancion(Cancion cancion);
+
+    /** Canciones más parecidas a {@code origen}, de mayor a menor similitud. */
+    List<Cancion> obtenerSimilares(Cancion origen, int limite);
+
+    int cantidadCanciones();
+
+    /*
+     * 🎲 Caminata aleatoria (sesiones de radio). Los índices son internos de cada instancia y
+     * se conservan en las copias; una reconstrucción completa puede reasignarlos.
+     */
+
+    /** Índice interno de la canción, o -1 si no está. */
+    int indiceDe(Cancion cancion);
+
+    Cancion cancionEn(int indice);
+
+    /** Vecino de {@code indice} elegido con probabilidad proporcional al peso; -1 si no tiene. O(1) esperado. */
+    int vecinoAleatorio(int indice, Random azar);
+
+    /** Cota superior (exclusiva) de los índices: tamaño de los arreglos de puntajes por canción. */
+    int capacidadIndices();
+
+    /** Cantidad de vecinos de {@code indice}, en O(1). */
+    int grado(int indice);
+
+    /** Recorre los vecinos con peso positivo de {@code indice}, sin crear objetos por arista. */
+    void recorrerVecinos(int indice, VisitanteVecino visitante);
+
+    @FunctionalInterface
+    interface VisitanteVecino {
+        void visitar(int vecino, float peso);
+    }
+
+    /** Copia independiente con la misma configuración; comparte lo que ninguna de las dos modifica. */
+    MotorSimilitud copiar();
+}
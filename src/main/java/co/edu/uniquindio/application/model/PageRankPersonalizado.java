@@ -0,0 +1,264 @@
+package co.edu.uniquindio.application.model;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * PageRank personalizado sobre el motor de similitud (caminata aleatoria con reinicio en
+ * las canciones semilla, p. ej. los favoritos de un usuario).
+ *
+ * Se aproxima con el método de empuje local de Andersen–Chung–Lang: cada canción tiene un
+ * puntaje {@code p} y un residuo {@code r}; empujar {@code u} pasa {@code alfa·r[u]} a su
+ * puntaje y reparte el resto entre sus vecinos en proporción al peso de la arista. Solo se
+ * empujan canciones con {@code r[u] > epsilon·grado(u)}, así que el trabajo total está
+ * acotado por ~{@code 1 / (alfa·epsilon)} aristas recorridas, sin importar el tamaño del
+ * catálogo ni cuántas semillas haya. {@code maxEmpujes} es un tope adicional.
+ *
+ * La masa inicial se reparte entre las semillas antes de encolarlas y el umbral también
+ * vale para ellas: con miles de favoritos cada uno recibe poca masa y no se paga la suma de
+ * sus grados. Si ninguna lo supera se empujan, en orden, las que caben en ese mismo
+ * presupuesto de aristas (al menos una).
+ *
+ * Los puntajes viven en arreglos primitivos y el resultado sale de un montículo de tamaño K.
+ * Esos arreglos (del tamaño del catálogo) se reutilizan entre consultas: al terminar solo se
+ * limpian las posiciones tocadas, así que una consulta no paga O(n) en memoria nueva.
+ */
+public class PageRankPersonalizado {
+
+    // 🧺 Áreas de trabajo libres, compartidas por todas las instancias (hay una por consulta)
+    private static final ConcurrentLinkedQueue<Area> AREAS_LIBRES = new ConcurrentLinkedQueue<>();
+    private static final int MAX_AREAS_LIBRES = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final double alfa;
+    private final double epsilon;
+    private final int maxEmpujes;
+
+    /**
+     * @param alfa       probabilidad de reinicio (típico 0.15): más alto = más cerca de las semillas
+     * @param epsilon    residuo por vecino por debajo del cual no se empuja: más bajo = más preciso y más lento
+     * @param maxEmpujes tope de empujes por consulta
+     */
+    public PageRankPersonalizado(double alfa, double epsilon, int maxEmpujes) {
+        this.alfa = Math.min(0.99, Math.max(0.01, alfa));
+        this.epsilon = Math.max(1e-12, epsilon);
+        this.maxEmpujes = Math.max(1, maxEmpujes);
+    }
+
+    /** Las {@code k} canciones no semilla con mayor puntaje, de mayor a menor. */
+    public List<Cancion> recomendar(MotorSimilitud motor, Collection<Cancion> semillas, int k) {
+        if (motor.capacidadIndices() == 0 || k <= 0) return List.of();
+
+        int[] indicesSemilla = semillas.stream()
+                .mapToInt(motor::indiceDe)
+                .filter(i -> i >= 0)
+                .distinct()
+                .toArray();
+        if (indicesSemilla.length == 0) return List.of();
+
+        Area area = AREAS_LIBRES.poll();
+        if (area == null) area = new Area();
+        area.asegurar(motor.capacidadIndices());
+        try {
+            Empuje empuje = new Empuje(motor, area);
+            double inicial = 1.0 / indicesSemilla.length;
+            for (int s : indicesSemilla) {
+                empuje.residuo[s] = inicial;
+                empuje.tocar(s);
+                if (inicial > epsilon * Math.max(1, motor.grado(s))) empuje.encolar(s);
+            }
+            if (empuje.pendientes == 0) {
+                double presupuesto = 1.0 / (alfa * epsilon);
+                double aristas = 0;
+                for (int s : indicesSemilla) {
+                    aristas += motor.grado(s);
+                    if (empuje.pendientes > 0 && aristas > presupuesto) break;
+                    empuje.encolar(s);
+                }
+            }
+            for (int empujes = 0; empuje.pendientes > 0 && empujes < maxEmpujes; empujes++) {
+                empuje.empujar(empuje.desencolar());
+            }
+            return empuje.topK(indicesSemilla, k);
+        } finally {
+            area.limpiar();
+            if (AREAS_LIBRES.size() < MAX_AREAS_LIBRES) AREAS_LIBRES.offer(area);
+        }
+    }
+
+    /**
+     * Arreglos de trabajo de una consulta, indexados por canción. Entre usos todas las
+     * posiciones están en cero; {@link #limpiar()} deja así solo las tocadas.
+     */
+    private static final class Area {
+        double[] puntaje = new double[0];
+        double[] residuo = new double[0];
+        int[] cola = new int[0];
+        boolean[] enCola = new boolean[0];
+        boolean[] tocada = new boolean[0];
+        int[] tocadas = new int[256];
+        int cantidadTocadas;
+
+        // El catálogo creció desde el último uso: se amplía (los arreglos nuevos ya están en cero)
+        void asegurar(int n) {
+            if (puntaje.length >= n) return;
+            int capacidad = Math.max(n, puntaje.length + (puntaje.length >> 1));
+            puntaje = new double[capacidad];
+            residuo = new double[capacidad];
+            cola = new int[capacidad];
+            enCola = new boolean[capacidad];
+            tocada = new boolean[capacidad];
+        }
+
+        // Toda posición escrita en la consulta está en la lista de tocadas (semillas incluidas)
+        void limpiar() {
+            for (int t = 0; t < cantidadTocadas; t++) {
+                int i = tocadas[t];
+                puntaje[i] = 0;
+                residuo[i] = 0;
+                enCola[i] = false;
+                tocada[i] = false;
+            }
+            cantidadTocadas = 0;
+        }
+    }
+
+    /** Estado de una consulta: puntajes, residuos, cola FIFO y canciones tocadas. */
+    private final class Empuje implements MotorSimilitud.VisitanteVecino {
+        private final MotorSimilitud motor;
+        private final Area area;
+        private final double[] puntaje;
+        private final double[] residuo;
+
+        // Cola circular; cada canción está a lo sumo una vez
+        private final int[] cola;
+        private final boolean[] enCola;
+        private int cabeza;
+        private int pendientes;
+
+        // Solo las tocadas pueden tener puntaje: el top-K no recorre el catálogo entero
+        private final boolean[] tocada;
+
+        // Reparto en curso (el visitante es este mismo objeto: sin lambdas por arista)
+        private double factor;
+        private double sumaPesos;
+        private boolean sumando;
+
+        Empuje(MotorSimilitud motor, Area area) {
+            this.motor = motor;
+            this.area = area;
+            puntaje = area.puntaje;
+            residuo = area.residuo;
+            cola = area.cola;
+            enCola = area.enCola;
+            tocada = area.tocada;
+        }
+
+        void empujar(int u) {
+            double ru = residuo[u];
+            residuo[u] = 0;
+            puntaje[u] += alfa * ru;
+
+            sumando = true;
+            sumaPesos = 0;
+            motor.recorrerVecinos(u, this);
+            if (sumaPesos == 0) {
+                // Sin vecinos: la masa vuelve a la propia canción
+                puntaje[u] += (1 - alfa) * ru;
+                return;
+            }
+            sumando = false;
+            factor = (1 - alfa) * ru / sumaPesos;
+            motor.recorrerVecinos(u, this);
+        }
+
+        @Override
+        public void visitar(int v, float peso) {
+            if (sumando) {
+                sumaPesos += peso;
+                return;
+            }
+            residuo[v] += factor * peso;
+            tocar(v);
+            if (!enCola[v] && residuo[v] > epsilon * Math.max(1, motor.grado(v))) encolar(v);
+        }
+
+        void tocar(int v) {
+            if (tocada[v]) return;
+            tocada[v] = true;
+            if (area.cantidadTocadas == area.tocadas.length) {
+                area.tocadas = Arrays.copyOf(area.tocadas, area.cantidadTocadas * 2);
+            }
+            area.tocadas[area.cantidadTocadas++] = v;
+        }
+
+        void encolar(int v) {
+            enCola[v] = true;
+            cola[(cabeza + pendientes++) % cola.length] = v;
+        }
+
+        int desencolar() {
+            int u = cola[cabeza];
+            cabeza = (cabeza + 1) % cola.length;
+            pendientes--;
+            enCola[u] = false;
+            return u;
+        }
+
+        // 🏆 Montículo mínimo de tamaño k con (puntaje, índice) empaquetados en un long
+        List<Cancion> topK(int[] semillas, int k) {
+            for (int s : semillas) tocada[s] = false; // las semillas no se recomiendan
+
+            // k viene de la petición: el montículo no pasa de las canciones tocadas
+            k = Math.min(k, area.cantidadTocadas);
+            long[] monticulo = new long[k];
+            int tam = 0;
+            for (int t = 0; t < area.cantidadTocadas; t++) {
+                int i = area.tocadas[t];
+                // El residuo pendiente también es masa que terminaría en esta canción
+                float valor = (float) (puntaje[i] + residuo[i]);
+                if (!tocada[i] || valor <= 0) continue;
+                long clave = ((long) Float.floatToIntBits(valor) << 32) | i;
+                if (tam < k) {
+                    monticulo[tam] = clave;
+                    subir(monticulo, tam++);
+                } else if (clave > monticulo[0]) {
+                    monticulo[0] = clave;
+                    bajar(monticulo, tam);
+                }
+            }
+
+            Arrays.sort(monticulo, 0, tam);
+            List<Cancion> resultado = new ArrayList<>(tam);
+            for (int t = tam - 1; t >= 0; t--) {
+                Cancion c = motor.cancionEn((int) monticulo[t]);
+                if (c != null) resultado.add(c);
+            }
+            return resultado;
+        }
+    }
+
+    private static void subir(long[] m, int i) {
+        long valor = m[i];
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (m[padre] <= valor) break;
+            m[i] = m[padre];
+            i = padre;
+        }
+        m[i] = valor;
+    }
+
+    private static void bajar(long[] m, int tam) {
+        long valor = m[0];
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tam) break;
+            if (hijo + 1 < tam && m[hijo + 1] < m[hijo]) hijo++;
+            if (valor <= m[hijo]) break;
+            m[i] = m[hijo];
+            i = hijo;
+        }
+        m[i] = valor;
+    }
+}
@@ -77,13 +77,13 @@ public class Usuario {
     }
 
     // ========= Métodos de favoritos =========
-    public boolean agregarFavorito(Cancion cancion) {
+    public synchronized boolean agregarFavorito(Cancion cancion) {
         if (getListaFavoritos().contains(cancion)) return false;
         getListaFavoritos().add(cancion);
         return true;
     }
 
-    public boolean eliminarFavorito(String idCancion) {
+    public synchronized boolean eliminarFavorito(String idCancion) {
         return getListaFavoritos().removeIf(c -> c.getId().equals(idCancion));
     }
 
@@ -1,25 +1,52 @@
 package co.edu.uniquindio.application.repository;
 
 import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.DiccionarioCatalogo;
+import co.edu.uniquindio.application.repository.indice.EjecutorBusquedas;
+import co.edu.uniquindio.application.repository.indice.IndiceCanciones;
+import co.edu.uniquindio.application.repository.indice.MapaDeBits;
+import co.edu.uniquindio.application.repository.store.CatalogStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
 /**
- * Repositorio con persistencia en archivo canciones.txt
+ * Repositorio del catálogo: mantiene las canciones en memoria y delega la
+ * persistencia en el {@link CatalogStore} configurado (texto, kv o memoria).
  */
 @Repository
 public class CancionRepository {
 
     private final Map<String, Cancion> canciones = new ConcurrentHashMap<>();
-    private static final String FILE_PATH = "src/main/resources/data/canciones.txt";
 
-    public CancionRepository() {
-        cargarCancionesDesdeArchivo();
+    // 🗂️ Índice invertido (título, artista, género, año) de la búsqueda avanzada
+    private final IndiceCanciones indice = new IndiceCanciones();
+
+    // 🧵 Ejecutor compartido de los filtros de la búsqueda avanzada
+    private final EjecutorBusquedas ejecutorBusquedas;
+    // Solo el ejecutor creado aquí se apaga en cerrar(); el inyectado es de quien lo creó
+    private final boolean ejecutorPropio;
+
+    private final CatalogStore store;
+
+    public CancionRepository(CatalogStore store) {
+        this(store, new EjecutorBusquedas("virtual", 0, 2000), true);
+    }
+
+    @Autowired
+    public CancionRepository(CatalogStore store, EjecutorBusquedas ejecutorBusquedas) {
+        this(store, ejecutorBusquedas, false);
+    }
+
+    private CancionRepository(CatalogStore store, EjecutorBusquedas ejecutorBusquedas, boolean ejecutorPropio) {
+        this.store = store;
+        this.ejecutorBusquedas = ejecutorBusquedas;
+        this.ejecutorPropio = ejecutorPropio;
+        store.cargar(c -> canciones.put(c.getId(), c));
+        canciones.values().forEach(indice::agregar);
     }
 
     // ✅ Buscar canción por ID
@@ -32,8 +59,8 @@ public class CancionRepository {
         return canciones.values();
     }
 
-    // ✅ Agregar canción (con control de IDs duplicados)
-    public void agregarCancion(Cancion cancion) {
+    // ✅ Agregar canción (con control de IDs duplicados); el futuro indica cuándo quedó persistida
+    public CompletableFuture<Void> agregarCancion(Cancion cancion) {
         String id = cancion.getId();
 
         // Si el ID ya existe, asignar el siguiente disponible
@@ -44,76 +71,53 @@ public class CancionRepository {
         }
 
         canciones.put(id, cancion);
-        guardarCancionesEnArchivo();
+        indice.agregar(cancion);
+        return store.guardar(cancion);
     }
 
-    // ✅ Actualizar canción
-    public boolean actualizarCancion(Cancion cancion) {
-        if (!canciones.containsKey(cancion.getId())) return false;
+    // ✅ Actualizar canción; false si no existe, y el futuro indica cuándo quedó persistida
+    public Escritura<Boolean> actualizarCancion(Cancion cancion) {
+        if (!canciones.containsKey(cancion.getId())) return Escritura.sinCambios(false);
         canciones.put(cancion.getId(), cancion);
-        guardarCancionesEnArchivo();
-        return true;
+        indice.agregar(cancion);
+        return new Escritura<>(true, store.guardar(cancion));
     }
 
-    // ✅ Eliminar canción
-    public boolean eliminarCancion(String id) {
+    // ✅ Eliminar canción; false si no existía
+    public Escritura<Boolean> eliminarCancion(String id) {
         Cancion eliminada = canciones.remove(id);
         if (eliminada != null) {
-            guardarCancionesEnArchivo();
-            return true;
-        }
-        return false;
-    }
-
-    // 🔹 Cargar canciones desde archivo (soporta 6 o 7 columnas)
-    private void cargarCancionesDesdeArchivo() {
-        File archivo = new File(FILE_PATH);
-        if (!archivo.exists()) return;
-
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                Cancion c = Cancion.fromString(linea);
-                if (c != null) {
-                    canciones.put(c.getId(), c);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("❌ Error al cargar canciones: " + e.getMessage());
+            indice.quitar(id);
+            return new Escritura<>(true, store.eliminar(id));
         }
+        return Escritura.sinCambios(false);
     }
 
-    // 💾 Guardar canciones en archivo (escribe 6 o 7 columnas según haya fileName)
-    private void guardarCancionesEnArchivo() {
-        try (BufferedWriter bw = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(FILE_PATH), StandardCharsets.UTF_8))) {
-
-            for (Cancion c : canciones.values()) {
-                if (c.getFileName() != null && !c.getFileName().isBlank()) {
-                    bw.write(String.format("%s;%s;%s;%s;%d;%.2f;%s",
-                            c.getId(), c.getTitulo(), c.getArtista(),
-                            c.getGenero(), c.getAnio(), c.getDuracion(), c.getFileName()));
-                } else {
-                    bw.write(String.format("%s;%s;%s;%s;%d;%.2f",
-                            c.getId(), c.getTitulo(), c.getArtista(),
-                            c.getGenero(), c.getAnio(), c.getDuracion()));
-                }
-                bw.newLine();
-            }
+    // ⏳ Se completa cuando todos los cambios anteriores ya están en disco
+    public CompletableFuture<Void> sincronizarPersistencia() {
+        return store.sincronizar();
+    }
 
-        } catch (IOException e) {
-            System.err.println("❌ Error al guardar canciones: " + e.getMessage());
-        }
+    // 📊 Contadores del motor de persistencia
+    public Map<String, Long> estadisticasPersistencia() {
+        return store.estadisticas();
+    }
+
+    // 📊 Tareas de búsqueda encoladas / activas, cancelaciones y latencias
+    public Map<String, Long> estadisticasBusqueda() {
+        return ejecutorBusquedas.estadisticas();
     }
 
     // 🔍 Búsqueda simple (por título y género)
     public List<Cancion> buscarPorFiltro(String titulo, String genero) {
         List<Cancion> resultado = new ArrayList<>();
+        String tituloBuscado = titulo == null ? null : titulo.toLowerCase();
+        // El género se resuelve una vez a los códigos que lo contienen; por canción se compara un entero
+        BitSet generos = genero == null ? null : DiccionarioCatalogo.GENEROS.codigosQueContienen(genero);
 
         for (Cancion c : canciones.values()) {
-            boolean coincideTitulo = (titulo == null || c.getTitulo().toLowerCase().contains(titulo.toLowerCase()));
-            boolean coincideGenero = (genero == null || c.getGenero().toLowerCase().contains(genero.toLowerCase()));
+            boolean coincideTitulo = (tituloBuscado == null || c.getTitulo().toLowerCase().contains(tituloBuscado));
+            boolean coincideGenero = (generos == null || tieneCodigo(generos, c.codigoGenero()));
 
             if (coincideTitulo && coincideGenero) {
                 resultado.add(c);
@@ -122,65 +126,68 @@ public class CancionRepository {
         return resultado;
     }
 
-    // ⚡ Búsqueda avanzada concurrente (RF-004 + RF-030)
+    /*
+     * ⚡ Búsqueda avanzada concurrente (RF-004 + RF-030): cada filtro es un mapa de bits de
+     * posiciones sacado del índice invertido, calculado en el ejecutor compartido; AND los
+     * interseca (del más pequeño al más grande) y OR los une. En AND, el primer filtro
+     * vacío decide la consulta y cancela los demás. Solo se materializan las canciones del
+     * resultado.
+     */
     public List<Cancion> buscarAvanzadaConcurrente(String titulo,
                                                    String artista,
                                                    String genero,
                                                    Integer anioFrom,
                                                    Integer anioTo,
                                                    String op) {
-        ExecutorService executor = Executors.newFixedThreadPool(4);
-        List<Future<List<Cancion>>> tareas = new ArrayList<>();
+        List<Callable<MapaDeBits>> tareas = new ArrayList<>();
 
         if (titulo != null && !titulo.isBlank()) {
-            tareas.add(executor.submit(() -> canciones.values().stream()
-                    .filter(c -> c.getTitulo().toLowerCase().contains(titulo.toLowerCase()))
-                    .collect(Collectors.toList())));
+            tareas.add(() -> indice.conTitulo(titulo));
         }
 
         if (artista != null && !artista.isBlank()) {
-            tareas.add(executor.submit(() -> canciones.values().stream()
-                    .filter(c -> c.getArtista().toLowerCase().contains(artista.toLowerCase()))
-                    .collect(Collectors.toList())));
+            tareas.add(() -> indice.conArtista(artista));
         }
 
         if (genero != null && !genero.isBlank()) {
-            tareas.add(executor.submit(() -> canciones.values().stream()
-                    .filter(c -> c.getGenero().toLowerCase().contains(genero.toLowerCase()))
-                    .collect(Collectors.toList())));
+            tareas.add(() -> indice.conGenero(genero));
         }
 
         if (anioFrom != null || anioTo != null) {
-            tareas.add(executor.submit(() -> canciones.values().stream()
-                    .filter(c -> (anioFrom == null || c.getAnio() >= anioFrom) &&
-                            (anioTo == null || c.getAnio() <= anioTo))
-                    .collect(Collectors.toList())));
+            tareas.add(() -> indice.entreAnios(anioFrom, anioTo));
         }
 
-        List<List<Cancion>> resultados = new ArrayList<>();
-        for (Future<List<Cancion>> tarea : tareas) {
-            try {
-                resultados.add(tarea.get());
-            } catch (Exception e) {
-                System.err.println("⚠️ Error en hilo de búsqueda: " + e.getMessage());
-            }
-        }
-        executor.shutdown();
+        if (tareas.isEmpty()) return new ArrayList<>();
+
+        // Antes de calcular los mapas: las posiciones reutilizadas después no son de esta consulta
+        long epoca = indice.epoca();
+        boolean and = "AND".equalsIgnoreCase(op);
+        List<MapaDeBits> resultados = ejecutorBusquedas.ejecutar(tareas,
+                and ? MapaDeBits::estaVacio : mapa -> false);
 
         if (resultados.isEmpty()) return new ArrayList<>();
 
-        Set<Cancion> combinado = new HashSet<>(resultados.get(0));
-        if ("AND".equalsIgnoreCase(op)) {
-            for (List<Cancion> lista : resultados.subList(1, resultados.size())) {
-                combinado.retainAll(lista);
+        MapaDeBits combinado;
+        if (and) {
+            // Empezar por el más selectivo: cada intersección cuesta a lo sumo lo que el menor
+            resultados.sort(Comparator.comparingInt(MapaDeBits::cardinalidad));
+            combinado = resultados.get(0);
+            for (MapaDeBits mapa : resultados.subList(1, resultados.size())) {
+                if (combinado.estaVacio()) break;
+                combinado = combinado.interseccion(mapa);
             }
         } else { // OR por defecto
-            for (List<Cancion> lista : resultados.subList(1, resultados.size())) {
-                combinado.addAll(lista);
+            combinado = resultados.get(0);
+            for (MapaDeBits mapa : resultados.subList(1, resultados.size())) {
+                combinado.agregarTodos(mapa);
             }
         }
 
-        return new ArrayList<>(combinado);
+        return indice.canciones(combinado, epoca);
+    }
+
+    private static boolean tieneCodigo(BitSet codigos, int codigo) {
+        return codigo >= 0 && codigos.get(codigo);
     }
 
     // ✅ Auxiliar para IDs auto-incrementales numéricos
@@ -195,4 +202,10 @@ public class CancionRepository {
                 .orElse(0);
         return String.valueOf(maxId + 1);
     }
+
+    // 🛑 Al apagar: libera el ejecutor de búsquedas si lo creó este repositorio
+    @PreDestroy
+    public void cerrar() {
+        if (ejecutorPropio) ejecutorBusquedas.cerrar();
+    }
 }
@@ -0,0 +1,15 @@
+package co.edu.uniquindio.application.repository;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resultado de un cambio del repositorio junto con el futuro de su persistencia: el cambio ya
+ * se ve en memoria, y quien necesite durabilidad espera {@code persistida}. Si no hubo nada
+ * que escribir (p. ej. el id no existía), el futuro ya está completo.
+ */
+public record Escritura<T>(T valor, CompletableFuture<Void> persistida) {
+
+    public static <T> Escritura<T> sinCambios(T valor) {
+        return new Escritura<>(valor, CompletableFuture.completedFuture(null));
+    }
+}
@@ -1,34 +1,38 @@
 package co.edu.uniquindio.application.repository;
 
 import co.edu.uniquindio.application.model.Cancion;
-import co.edu.uniquindio.application.model.Rol;
 import co.edu.uniquindio.application.model.Usuario;
+import co.edu.uniquindio.application.repository.store.UserStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
- * Repositorio con persistencia en archivo usuarios.txt y manejo de favoritos.
- * Formato de línea:
- * username;password;nombre;id1,id2,id3
+ * Repositorio de usuarios y favoritos: mantiene los usuarios en memoria y delega la
+ * persistencia en el {@link UserStore} configurado (texto con group commit, kv o memoria).
  */
 @Repository
 public class UsuarioRepository {
 
     private final Map<String, Usuario> usuarios = new ConcurrentHashMap<>();
-    private static final String FILE_PATH = "src/main/resources/data/usuarios.txt";
 
     private final CancionRepository cancionRepository;
 
+    private final UserStore store;
+
+    // ⭐ Popularidad: cuántos usuarios tienen cada canción (id) en favoritos
+    private final Map<String, Integer> favoritosPorCancion = new ConcurrentHashMap<>();
+
     @Autowired
-    public UsuarioRepository(CancionRepository cancionRepository) {
+    public UsuarioRepository(CancionRepository cancionRepository, UserStore store) {
         this.cancionRepository = cancionRepository;
-        cargarUsuariosDesdeArchivo();
+        this.store = store;
+        // los favoritos se resuelven contra el catálogo ya cargado
+        store.cargar(cancionRepository::buscarPorId, u -> usuarios.put(u.getUsername(), u));
+        usuarios.values().forEach(u -> contarFavoritos(u, 1));
     }
 
     // 📌 Buscar usuario por username
@@ -36,10 +40,14 @@ public class UsuarioRepository {
         return usuarios.get(username);
     }
 
-    // 📌 Registrar o actualizar usuario
-    public void guardarUsuario(Usuario usuario) {
-        usuarios.put(usuario.getUsername(), usuario);
-        guardarUsuariosEnArchivo();
+    // 📌 Registrar o actualizar usuario; el futuro indica cuándo quedó persistido
+    public CompletableFuture<Void> guardarUsuario(Usuario usuario) {
+        Usuario anterior = usuarios.put(usuario.getUsername(), usuario);
+        if (anterior != usuario) {
+            if (anterior != null) contarFavoritos(anterior, -1);
+            contarFavoritos(usuario, 1);
+        }
+        return store.guardar(usuario);
     }
 
     // 📋 Listar todos los usuarios
@@ -52,54 +60,54 @@ public class UsuarioRepository {
         return usuarios.containsKey(username);
     }
 
-    // 🗑️ Eliminar usuario (ya existente)
-    public Usuario eliminarUsuario(String username) {
+    // 🗑️ Eliminar usuario (ya existente); el valor es el eliminado, o null si no existía
+    public Escritura<Usuario> eliminarUsuario(String username) {
         Usuario eliminado = usuarios.remove(username);
         if (eliminado != null) {
-            guardarUsuariosEnArchivo();
+            contarFavoritos(eliminado, -1);
+            return new Escritura<>(eliminado, store.eliminar(username));
         }
-        return eliminado;
+        return Escritura.sinCambios(null);
     }
 
     // 🆕 🗑️ Helper: eliminar si existe (boolean)
-    public boolean eliminarUsuarioSiExiste(String username) {
-        return eliminarUsuario(username) != null;
+    public Escritura<Boolean> eliminarUsuarioSiExiste(String username) {
+        Escritura<Usuario> escritura = eliminarUsuario(username);
+        return new Escritura<>(escritura.valor() != null, escritura.persistida());
     }
 
-    // 🆕 🗑️ Helper: eliminar en lote. Retorna cuántos eliminó realmente.
-    public int eliminarUsuarios(Collection<String> usernames) {
-        if (usernames == null || usernames.isEmpty()) return 0;
-        int count = 0;
+    // 🆕 🗑️ Helper: eliminar en lote. El valor es cuántos eliminó realmente; el futuro cubre todas las bajas
+    public Escritura<Integer> eliminarUsuarios(Collection<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) return Escritura.sinCambios(0);
+        List<CompletableFuture<Void>> persistidas = new ArrayList<>();
         for (String u : usernames) {
-            if (usuarios.remove(u) != null) {
-                count++;
+            Usuario eliminado = usuarios.remove(u);
+            if (eliminado != null) {
+                contarFavoritos(eliminado, -1);
+                persistidas.add(store.eliminar(u));
             }
         }
-        if (count > 0) {
-            guardarUsuariosEnArchivo();
-        }
-        return count;
+        return new Escritura<>(persistidas.size(),
+                CompletableFuture.allOf(persistidas.toArray(new CompletableFuture[0])));
     }
 
-    // 🎵 FAVORITOS
-    public boolean agregarFavorito(String username, Cancion cancion) {
+    // 🎵 FAVORITOS (false si no hubo cambio; el futuro indica cuándo quedó persistido)
+    public Escritura<Boolean> agregarFavorito(String username, Cancion cancion) {
         Usuario usuario = usuarios.get(username);
-        if (usuario != null && cancion != null) {
-            boolean agregado = usuario.agregarFavorito(cancion);
-            guardarUsuariosEnArchivo();
-            return agregado;
+        if (usuario != null && cancion != null && usuario.agregarFavorito(cancion)) {
+            contar(cancion.getId(), 1);
+            return new Escritura<>(true, store.guardar(usuario));
         }
-        return false;
+        return Escritura.sinCambios(false);
     }
 
-    public boolean eliminarFavorito(String username, String idCancion) {
+    public Escritura<Boolean> eliminarFavorito(String username, String idCancion) {
         Usuario usuario = usuarios.get(username);
-        if (usuario != null) {
-            boolean eliminado = usuario.eliminarFavorito(idCancion);
-            guardarUsuariosEnArchivo();
-            return eliminado;
+        if (usuario != null && usuario.eliminarFavorito(idCancion)) {
+            contar(idCancion, -1);
+            return new Escritura<>(true, store.guardar(usuario));
         }
-        return false;
+        return Escritura.sinCambios(false);
     }
 
     public Collection<Cancion> listarFavoritos(String username) {
@@ -107,108 +115,31 @@ public class UsuarioRepository {
         return usuario != null ? usuario.getListaFavoritos() : List.of();
     }
 
-    /**
-     * 🔹 Cargar usuarios desde usuarios.txt
-     */
-    // dentro de UsuarioRepository (asegúrate de tener un campo:
-    // private final CancionRepository cancionRepository; y que esté inyectado)
-
-    private void cargarUsuariosDesdeArchivo() {
-        File archivo = new File(FILE_PATH);
-        if (!archivo.exists()) return;
-
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
-
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                if (linea.isBlank()) continue;
-                String[] partes = linea.split(";");
-                // formato esperado (retrocompatible):
-                // 1) username;password;nombre
-                // 2) username;password;nombre;ROL
-                // 3) username;password;nombre;ROL;id1,id2,...
-                // 4) username;password;nombre;id1,id2,...   (legacy donde no hay rol)
-                if (partes.length >= 3) {
-                    String username = partes[0].trim();
-                    String password = partes[1].trim();
-                    String nombre = partes[2].trim();
-
-                    // valor por defecto
-                    String rolStr = "USER";
-                    String favoritosPart = null;
-
-                    if (partes.length == 4) {
-                        // si el cuarto campo coincide con ADMIN/USER lo tomamos como rol,
-                        // si no, lo interpretamos como lista de favoritos (legacy)
-                        String cuarto = partes[3].trim();
-                        if ("ADMIN".equalsIgnoreCase(cuarto) || "USER".equalsIgnoreCase(cuarto)) {
-                            rolStr = cuarto.toUpperCase();
-                        } else {
-                            favoritosPart = cuarto;
-                        }
-                    } else if (partes.length >= 5) {
-                        rolStr = partes[3].trim().toUpperCase();
-                        favoritosPart = partes[4].trim();
-                    }
-
-                    // Crear usuario considerando el constructor que acepta rol
-                    Usuario usuario = new Usuario(username, password, nombre, Rol.valueOf(rolStr));
-
-                    // cargar favoritos si vienen
-                    if (favoritosPart != null && !favoritosPart.isBlank()) {
-                        String[] ids = favoritosPart.split(",");
-                        for (String id : ids) {
-                            String idTrim = id.trim();
-                            if (idTrim.isEmpty()) continue;
-                            Cancion c = cancionRepository.buscarPorId(idTrim);
-                            if (c != null) {
-                                usuario.agregarFavorito(c); // usa tu método existente
-                            } else {
-                                // opcional: registrar aviso si id no existe
-                                // System.err.println("⚠️ Canción con id " + idTrim + " no encontrada al cargar favoritos de " + username);
-                            }
-                        }
-                    }
-
-                    usuarios.put(username, usuario);
-                }
-            }
+    // ⭐ Cantidad de usuarios con la canción en favoritos
+    public int popularidad(String idCancion) {
+        return favoritosPorCancion.getOrDefault(idCancion, 0);
+    }
 
-        } catch (IOException e) {
-            System.err.println("❌ Error al cargar usuarios: " + e.getMessage());
-        } catch (IllegalArgumentException iae) {
-            System.err.println("❌ Error al interpretar rol de usuario: " + iae.getMessage());
+    private void contarFavoritos(Usuario usuario, int delta) {
+        // copia bajo el monitor del usuario para no competir con agregar/eliminar favoritos
+        List<Cancion> favoritos;
+        synchronized (usuario) {
+            favoritos = List.copyOf(usuario.getListaFavoritos());
         }
+        for (Cancion c : favoritos) contar(c.getId(), delta);
     }
 
-    private void guardarUsuariosEnArchivo() {
-        try (BufferedWriter bw = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(FILE_PATH), StandardCharsets.UTF_8))) {
-
-            for (Usuario u : usuarios.values()) {
-                // formar la lista de ids de favoritos
-                String favIds = "";
-                if (u.getListaFavoritos() != null && !u.getListaFavoritos().isEmpty()) {
-                    favIds = u.getListaFavoritos().stream()
-                            .map(Cancion::getId)
-                            .collect(Collectors.joining(","));
-                }
-
-                // escribimos: username;password;nombre;ROL;id1,id2,...
-                // si no hay favoritos escribimos campo vacío al final
-                bw.write(String.format("%s;%s;%s;%s;%s",
-                        u.getUsername(),
-                        u.getPassword(),
-                        u.getNombre(),
-                        (u.getRol() != null ? u.getRol().name() : "USER"),
-                        favIds));
-                bw.newLine();
-            }
+    private void contar(String idCancion, int delta) {
+        favoritosPorCancion.merge(idCancion, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
 
-        } catch (IOException e) {
-            System.err.println("❌ Error al guardar usuarios: " + e.getMessage());
-        }
+    // ⏳ Se completa cuando todos los cambios anteriores ya están en disco
+    public CompletableFuture<Void> sincronizarPersistencia() {
+        return store.sincronizar();
     }
 
+    // 📊 Contadores del motor de persistencia
+    public Map<String, Long> estadisticasPersistencia() {
+        return store.estadisticas();
+    }
 }
@@ -0,0 +1,14 @@
+package co.edu.uniquindio.application.repository.indice;
+
+import java.io.Serial;
+
+/** La búsqueda no terminó dentro de su plazo (ver {@link EjecutorBusquedas}); se responde 503. */
+public class BusquedaExpiradaException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public BusquedaExpiradaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,154 @@
+package co.edu.uniquindio.application.repository.indice;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Ejecutor compartido de las búsquedas del catálogo: uno por aplicación en vez de un pool
+ * nuevo por petición. El modo se elige con {@code syncup.busqueda.ejecutor}:
+ * <ul>
+ *   <li>{@code virtual}: un hilo virtual por tarea (por defecto); crear uno cuesta lo que un objeto</li>
+ *   <li>{@code forkjoin}: ForkJoinPool acotado a {@code syncup.busqueda.paralelismo} hilos (0 = núcleos)</li>
+ * </ul>
+ *
+ * Cada consulta tiene un plazo ({@code syncup.busqueda.timeout-ms}); al vencerse, o cuando un
+ * resultado ya decide la consulta (p. ej. un filtro AND vacío), se cancelan las tareas
+ * hermanas que sigan pendientes.
+ */
+@Component
+public class EjecutorBusquedas {
+
+    private final ExecutorService ejecutor;
+    private final long timeoutNanos;
+
+    // 📊 Tareas esperando hilo / corriendo, y contadores acumulados
+    private final AtomicLong encoladas = new AtomicLong();
+    private final AtomicLong activas = new AtomicLong();
+    private final AtomicLong consultas = new AtomicLong();
+    private final AtomicLong tareas = new AtomicLong();
+    private final AtomicLong canceladas = new AtomicLong();
+    private final AtomicLong cortesAnticipados = new AtomicLong();
+    private final AtomicLong expiradas = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private final AtomicLong consultaNanosTotal = new AtomicLong();
+    private final AtomicLong consultaNanosMax = new AtomicLong();
+
+    public EjecutorBusquedas(@Value("${syncup.busqueda.ejecutor:virtual}") String modo,
+                             @Value("${syncup.busqueda.paralelismo:0}") int paralelismo,
+                             @Value("${syncup.busqueda.timeout-ms:2000}") long timeoutMs) {
+        this.ejecutor = switch (modo.trim().toLowerCase()) {
+            case "virtual" -> Executors.newVirtualThreadPerTaskExecutor();
+            case "forkjoin" -> new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+            default -> throw new IllegalArgumentException("Ejecutor de búsqueda desconocido: " + modo);
+        };
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, timeoutMs));
+    }
+
+    /**
+     * Ejecuta las tareas en paralelo y devuelve sus resultados en orden de llegada. Si uno
+     * cumple {@code decide}, se cancelan las demás y se devuelve solo ese. Una tarea que
+     * falla se registra y se omite; si el plazo vence se cancela todo y se lanza
+     * {@link BusquedaExpiradaException}.
+     */
+    public <T> List<T> ejecutar(List<Callable<T>> pendientes, Predicate<T> decide) {
+        long inicio = System.nanoTime();
+        consultas.incrementAndGet();
+        CompletionService<T> completadas = new ExecutorCompletionService<>(ejecutor);
+        Map<Future<T>, AtomicBoolean> enviadas = new LinkedHashMap<>();
+        try {
+            for (Callable<T> tarea : pendientes) {
+                AtomicBoolean empezo = new AtomicBoolean();
+                encoladas.incrementAndGet();
+                tareas.incrementAndGet();
+                enviadas.put(completadas.submit(() -> correr(tarea, empezo)), empezo);
+            }
+
+            List<T> resultados = new ArrayList<>(pendientes.size());
+            long limite = inicio + timeoutNanos;
+            for (int recibidas = 0; recibidas < enviadas.size(); recibidas++) {
+                Future<T> lista = completadas.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (lista == null) {
+                    expiradas.incrementAndGet();
+                    throw new BusquedaExpiradaException("⏱️ La búsqueda superó "
+                            + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+                }
+                try {
+                    T resultado = lista.get();
+                    if (decide.test(resultado)) {
+                        if (recibidas + 1 < enviadas.size()) cortesAnticipados.incrementAndGet();
+                        resultados.clear();
+                        resultados.add(resultado);
+                        return resultados;
+                    }
+                    resultados.add(resultado);
+                } catch (ExecutionException e) {
+                    errores.incrementAndGet();
+                    System.err.println("⚠️ Error en hilo de búsqueda: " + e.getCause());
+                }
+            }
+            return resultados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusquedaExpiradaException("⏱️ Búsqueda interrumpida");
+        } finally {
+            // Lo que siga pendiente ya no se necesita (no hace nada sobre las terminadas)
+            enviadas.forEach(this::cancelar);
+            registrarDuracion(System.nanoTime() - inicio);
+        }
+    }
+
+    private <T> T correr(Callable<T> tarea, AtomicBoolean empezo) throws Exception {
+        // Cancelada antes de empezar: cancelar() ya la sacó de las encoladas
+        if (!empezo.compareAndSet(false, true)) throw new CancellationException();
+        encoladas.decrementAndGet();
+        activas.incrementAndGet();
+        try {
+            return tarea.call();
+        } finally {
+            activas.decrementAndGet();
+        }
+    }
+
+    private void cancelar(Future<?> futuro, AtomicBoolean empezo) {
+        if (futuro.isDone()) return;
+        // Interrumpe la que ya corre (el índice revisa la interrupción en sus recorridos)
+        futuro.cancel(true);
+        canceladas.incrementAndGet();
+        if (empezo.compareAndSet(false, true)) encoladas.decrementAndGet();
+    }
+
+    private void registrarDuracion(long nanos) {
+        consultaNanosTotal.addAndGet(nanos);
+        consultaNanosMax.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** Tareas encoladas y activas ahora, contadores acumulados y latencia por consulta (µs). */
+    public Map<String, Long> estadisticas() {
+        long n = consultas.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("encoladas", encoladas.get());
+        stats.put("activas", activas.get());
+        stats.put("consultas", n);
+        stats.put("tareas", tareas.get());
+        stats.put("canceladas", canceladas.get());
+        stats.put("cortesAnticipados", cortesAnticipados.get());
+        stats.put("expiradas", expiradas.get());
+        stats.put("errores", errores.get());
+        stats.put("consultaPromedioUs", n == 0 ? 0 : consultaNanosTotal.get() / n / 1000);
+        stats.put("consultaMaxUs", consultaNanosMax.get() / 1000);
+        return stats;
+    }
+
+    // 🛑 Al apagar: las búsquedas en curso se interrumpen
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,306 @@
+package co.edu.uniquindio.application.repository.indice;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.DiccionarioCatalogo;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido del catálogo para la búsqueda avanzada. Cada canción ocupa una posición
+ * entera fija y cada filtro se responde con un {@link MapaDeBits} de posiciones, que luego
+ * se combinan con intersección (AND) o unión (OR):
+ *  - título: una lista de posiciones por palabra normalizada del título;
+ *  - artista y género: una lista por código de {@link DiccionarioCatalogo} (el valor ya
+ *    normalizado), que conserva la búsqueda por subcadena del valor completo;
+ *  - año: los años distintos en un arreglo ordenado, cada uno con el mapa de sus canciones;
+ *    un rango son dos búsquedas binarias y la unión del tramo entre ellas.
+ *
+ * Una consulta recorre el vocabulario (palabras o valores distintos), no las canciones.
+ * El recorrido del vocabulario se abandona si el hilo se interrumpe (búsqueda cancelada o
+ * vencida, ver {@link EjecutorBusquedas}): ese resultado ya no lo lee nadie.
+ * Las posiciones que dejan las canciones eliminadas se reutilizan (pila de libres), así que
+ * los arreglos y los mapas no crecen con las altas y bajas. Cada reutilización sube la
+ * {@link #epoca()} y queda anotada en su posición: una consulta toma la época al empezar y
+ * {@link #canciones(MapaDeBits, long)} omite las posiciones reutilizadas después, de modo que
+ * un mapa calculado antes de la eliminación nunca devuelve a otra canción.
+ */
+public class IndiceCanciones {
+
+    // Indexado de una posición: lo que hay que quitar aunque la canción cambie en el lugar
+    private record Indexada(Cancion cancion, int[] palabras, int artista, int genero, int anio) {}
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> posicionPorId = new HashMap<>();
+    private Indexada[] indexadas = new Indexada[64];
+    private int siguiente;
+    private final ArrayDeque<Integer> libres = new ArrayDeque<>();
+    private final MapaDeBits ocupadas = new MapaDeBits();
+
+    // ♻️ Reutilizaciones hechas hasta ahora y, por posición, la época en que se reutilizó por última vez
+    private long epoca;
+    private long[] reutilizadaEn = new long[64];
+
+    // Palabra de título → código; el vocabulario solo crece (como DiccionarioCatalogo)
+    private final Map<String, Integer> codigoPalabra = new HashMap<>();
+    private final List<String> vocabulario = new ArrayList<>();
+    private final List<MapaDeBits> porPalabra = new ArrayList<>();
+
+    // Código de artista / género → posiciones
+    private final List<MapaDeBits> porArtista = new ArrayList<>();
+    private final List<MapaDeBits> porGenero = new ArrayList<>();
+
+    // 📅 Años distintos en orden (solo los que tienen canciones) y, en paralelo, sus posiciones
+    private int[] anios = new int[0];
+    private MapaDeBits[] porAnio = new MapaDeBits[0];
+
+    // ✅ Indexa la canción; si su id ya estaba, la reemplaza en la misma posición
+    public void agregar(Cancion cancion) {
+        candado.writeLock().lock();
+        try {
+            Integer existente = posicionPorId.get(cancion.getId());
+            int posicion;
+            if (existente != null) {
+                posicion = existente;
+                desindexar(posicion);
+            } else {
+                posicion = reservarPosicion();
+                posicionPorId.put(cancion.getId(), posicion);
+            }
+            indexar(posicion, cancion);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // ❌ Quita la canción del índice
+    public void quitar(String id) {
+        candado.writeLock().lock();
+        try {
+            Integer posicion = posicionPorId.remove(id);
+            if (posicion != null) {
+                desindexar(posicion);
+                libres.push(posicion);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Una libre si la hay (anotando la época nueva); si no, la siguiente sin usar
+    private int reservarPosicion() {
+        if (!libres.isEmpty()) {
+            int posicion = libres.pop();
+            reutilizadaEn[posicion] = ++epoca;
+            return posicion;
+        }
+        if (siguiente == indexadas.length) {
+            indexadas = Arrays.copyOf(indexadas, siguiente * 2);
+            reutilizadaEn = Arrays.copyOf(reutilizadaEn, siguiente * 2);
+        }
+        return siguiente++;
+    }
+
+    /** Época actual: se toma antes de calcular los mapas de una consulta y se pasa a {@link #canciones}. */
+    public long epoca() {
+        candado.readLock().lock();
+        try {
+            return epoca;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // 📊 Posiciones asignadas alguna vez (ocupadas o libres): acotado por el máximo de canciones vivas
+    public int posicionesAsignadas() {
+        candado.readLock().lock();
+        try {
+            return siguiente;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void indexar(int posicion, Cancion cancion) {
+        int[] palabras = cancion.getTitulo() == null ? new int[0]
+                : new LinkedHashSet<>(DiccionarioCatalogo.palabras(cancion.getTitulo())).stream()
+                .mapToInt(this::codigoDePalabra)
+                .toArray();
+        for (int p : palabras) porPalabra.get(p).agregar(posicion);
+        agregarEn(porArtista, cancion.codigoArtista(), posicion);
+        agregarEn(porGenero, cancion.codigoGenero(), posicion);
+
+        agregarEnAnio(cancion.getAnio(), posicion);
+
+        indexadas[posicion] = new Indexada(cancion, palabras, cancion.codigoArtista(), cancion.codigoGenero(),
+                cancion.getAnio());
+        ocupadas.agregar(posicion);
+    }
+
+    private void desindexar(int posicion) {
+        Indexada anterior = indexadas[posicion];
+        for (int p : anterior.palabras()) porPalabra.get(p).quitar(posicion);
+        if (anterior.artista() >= 0) porArtista.get(anterior.artista()).quitar(posicion);
+        if (anterior.genero() >= 0) porGenero.get(anterior.genero()).quitar(posicion);
+        quitarDeAnio(anterior.anio(), posicion);
+        indexadas[posicion] = null;
+        ocupadas.quitar(posicion);
+    }
+
+    private int codigoDePalabra(String palabra) {
+        return codigoPalabra.computeIfAbsent(palabra, p -> {
+            vocabulario.add(p);
+            porPalabra.add(new MapaDeBits());
+            return vocabulario.size() - 1;
+        });
+    }
+
+    private static void agregarEn(List<MapaDeBits> listas, int codigo, int posicion) {
+        if (codigo < 0) return;
+        while (listas.size() <= codigo) listas.add(new MapaDeBits());
+        listas.get(codigo).agregar(posicion);
+    }
+
+    // Un año nuevo se inserta en su lugar: hay pocos años distintos, el corrimiento es mínimo
+    private void agregarEnAnio(int anio, int posicion) {
+        int i = Arrays.binarySearch(anios, anio);
+        if (i < 0) {
+            i = -i - 1;
+            int n = anios.length;
+            int[] nuevosAnios = new int[n + 1];
+            MapaDeBits[] nuevosMapas = new MapaDeBits[n + 1];
+            System.arraycopy(anios, 0, nuevosAnios, 0, i);
+            System.arraycopy(porAnio, 0, nuevosMapas, 0, i);
+            System.arraycopy(anios, i, nuevosAnios, i + 1, n - i);
+            System.arraycopy(porAnio, i, nuevosMapas, i + 1, n - i);
+            nuevosAnios[i] = anio;
+            nuevosMapas[i] = new MapaDeBits();
+            anios = nuevosAnios;
+            porAnio = nuevosMapas;
+        }
+        porAnio[i].agregar(posicion);
+    }
+
+    // El año que se queda sin canciones sale del arreglo: los rangos no recorren años vacíos
+    private void quitarDeAnio(int anio, int posicion) {
+        int i = Arrays.binarySearch(anios, anio);
+        if (i < 0) return;
+        porAnio[i].quitar(posicion);
+        if (!porAnio[i].estaVacio()) return;
+        int n = anios.length;
+        int[] nuevosAnios = new int[n - 1];
+        MapaDeBits[] nuevosMapas = new MapaDeBits[n - 1];
+        System.arraycopy(anios, 0, nuevosAnios, 0, i);
+        System.arraycopy(porAnio, 0, nuevosMapas, 0, i);
+        System.arraycopy(anios, i + 1, nuevosAnios, i, n - i - 1);
+        System.arraycopy(porAnio, i + 1, nuevosMapas, i, n - i - 1);
+        anios = nuevosAnios;
+        porAnio = nuevosMapas;
+    }
+
+    /**
+     * 🎵 Canciones cuyo título normalizado contiene la consulta normalizada. Cada palabra de
+     * la consulta está dentro de una palabra del título: se unen las listas de las palabras
+     * del vocabulario que la contienen y se intersecan entre palabras. Con varias palabras
+     * (o signos) se confirma la subcadena completa solo sobre esos candidatos.
+     */
+    public MapaDeBits conTitulo(String consulta) {
+        String buscada = DiccionarioCatalogo.normalizar(consulta);
+        List<String> palabras = DiccionarioCatalogo.palabras(consulta);
+        candado.readLock().lock();
+        try {
+            // Solo signos o espacios: no hay palabra que buscar en el índice
+            MapaDeBits candidatas = palabras.isEmpty() ? copia(ocupadas) : null;
+            for (String palabra : palabras) {
+                MapaDeBits conPalabra = new MapaDeBits();
+                for (int i = 0; i < vocabulario.size(); i++) {
+                    if (vocabulario.get(i).contains(palabra)) conPalabra.agregarTodos(porPalabra.get(i));
+                    if ((i & 1023) == 0 && Thread.currentThread().isInterrupted()) return new MapaDeBits();
+                }
+                candidatas = candidatas == null ? conPalabra : candidatas.interseccion(conPalabra);
+                if (candidatas.estaVacio()) return candidatas;
+            }
+            if (palabras.size() == 1 && palabras.get(0).equals(buscada)) return candidatas;
+
+            MapaDeBits confirmadas = new MapaDeBits();
+            candidatas.recorrer(posicion -> {
+                String titulo = indexadas[posicion].cancion().getTitulo();
+                if (titulo != null && DiccionarioCatalogo.normalizar(titulo).contains(buscada)) {
+                    confirmadas.agregar(posicion);
+                }
+            });
+            return confirmadas;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // 🎤 Canciones cuyo artista normalizado contiene la consulta
+    public MapaDeBits conArtista(String consulta) {
+        return unirCodigos(porArtista, DiccionarioCatalogo.ARTISTAS.codigosQueContienen(consulta));
+    }
+
+    // 🎸 Canciones cuyo género normalizado contiene la consulta
+    public MapaDeBits conGenero(String consulta) {
+        return unirCodigos(porGenero, DiccionarioCatalogo.GENEROS.codigosQueContienen(consulta));
+    }
+
+    private MapaDeBits unirCodigos(List<MapaDeBits> listas, BitSet codigos) {
+        candado.readLock().lock();
+        try {
+            MapaDeBits resultado = new MapaDeBits();
+            for (int c = codigos.nextSetBit(0); c >= 0 && c < listas.size(); c = codigos.nextSetBit(c + 1)) {
+                resultado.agregarTodos(listas.get(c));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // 📅 Canciones con año en [desde, hasta] (un extremo nulo no limita): el tramo [primero, ultimo)
+    public MapaDeBits entreAnios(Integer desde, Integer hasta) {
+        candado.readLock().lock();
+        try {
+            int primero = desde == null ? 0 : primerAnioDesde(desde);
+            int ultimo = hasta == null || hasta == Integer.MAX_VALUE ? anios.length : primerAnioDesde(hasta + 1);
+            MapaDeBits resultado = new MapaDeBits();
+            for (int i = primero; i < ultimo; i++) resultado.agregarTodos(porAnio[i]);
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Índice del primer año >= anio (los años son distintos: el encontrado o el punto de inserción)
+    private int primerAnioDesde(int anio) {
+        int i = Arrays.binarySearch(anios, anio);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /*
+     * 📋 Canciones de las posiciones, en orden de posición. Se omiten las ya eliminadas y las
+     * reutilizadas después de {@code epocaConsulta}: su canción no es la que vieron los mapas.
+     */
+    public List<Cancion> canciones(MapaDeBits posiciones, long epocaConsulta) {
+        candado.readLock().lock();
+        try {
+            List<Cancion> resultado = new ArrayList<>(posiciones.cardinalidad());
+            posiciones.recorrer(posicion -> {
+                Indexada indexada = indexadas[posicion];
+                if (indexada != null && reutilizadaEn[posicion] <= epocaConsulta) resultado.add(indexada.cancion());
+            });
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private static MapaDeBits copia(MapaDeBits original) {
+        MapaDeBits copia = new MapaDeBits();
+        copia.agregarTodos(original);
+        return copia;
+    }
+}
@@ -0,0 +1,343 @@
+package co.edu.uniquindio.application.repository.indice;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto de enteros no negativos comprimido al estilo "roaring": los valores se agrupan
+ * por sus 16 bits altos y cada grupo guarda los 16 bits bajos en el contenedor que ocupe
+ * menos memoria:
+ *  - hasta 4096 valores, un arreglo ordenado de char (2 bytes por valor);
+ *  - con más, un mapa de bits fijo de 65536 bits (8 KB).
+ *
+ * Intersección y unión recorren los grupos en orden y combinan contenedor con contenedor
+ * (fusión de arreglos, prueba de bits o AND/OR de palabras de 64 bits), así que cuestan
+ * según el tamaño de los conjuntos y no según el rango de valores.
+ *
+ * No es seguro para hilos: quien lo comparte lo protege (ver {@link IndiceCanciones}).
+ */
+public final class MapaDeBits {
+
+    private static final int MAX_ARREGLO = 4096;
+
+    private char[] claves = new char[0];
+    private Contenedor[] contenedores = new Contenedor[0];
+    private int grupos;
+
+    // ✅ Agrega x (no negativo)
+    public void agregar(int x) {
+        char alto = (char) (x >>> 16);
+        int i = buscarGrupo(alto);
+        if (i < 0) {
+            i = -i - 1;
+            insertarGrupo(i, alto, new Arreglo());
+        }
+        contenedores[i] = contenedores[i].agregar((char) x);
+    }
+
+    // ❌ Quita x; el grupo vacío desaparece
+    public void quitar(int x) {
+        int i = buscarGrupo((char) (x >>> 16));
+        if (i < 0) return;
+        Contenedor c = contenedores[i].quitar((char) x);
+        if (c.cardinalidad() == 0) quitarGrupo(i);
+        else contenedores[i] = c;
+    }
+
+    public boolean contiene(int x) {
+        int i = buscarGrupo((char) (x >>> 16));
+        return i >= 0 && contenedores[i].contiene((char) x);
+    }
+
+    public int cardinalidad() {
+        int total = 0;
+        for (int i = 0; i < grupos; i++) total += contenedores[i].cardinalidad();
+        return total;
+    }
+
+    public boolean estaVacio() {
+        return grupos == 0;
+    }
+
+    // ∩ Conjunto nuevo con los valores que están en ambos
+    public MapaDeBits interseccion(MapaDeBits otro) {
+        MapaDeBits resultado = new MapaDeBits();
+        int i = 0, j = 0;
+        while (i < grupos && j < otro.grupos) {
+            if (claves[i] < otro.claves[j]) i++;
+            else if (claves[i] > otro.claves[j]) j++;
+            else {
+                Contenedor c = contenedores[i].interseccion(otro.contenedores[j]);
+                if (c.cardinalidad() > 0) resultado.insertarGrupo(resultado.grupos, claves[i], c);
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    // ∪ Agrega a este conjunto todos los valores de otro (sin compartir contenedores con él)
+    public void agregarTodos(MapaDeBits otro) {
+        if (otro.grupos == 0) return;
+        char[] nuevasClaves = new char[grupos + otro.grupos];
+        Contenedor[] nuevos = new Contenedor[grupos + otro.grupos];
+        int i = 0, j = 0, n = 0;
+        while (i < grupos || j < otro.grupos) {
+            if (j == otro.grupos || (i < grupos && claves[i] < otro.claves[j])) {
+                nuevasClaves[n] = claves[i];
+                nuevos[n++] = contenedores[i++];
+            } else if (i == grupos || claves[i] > otro.claves[j]) {
+                nuevasClaves[n] = otro.claves[j];
+                nuevos[n++] = otro.contenedores[j++].copiar();
+            } else {
+                nuevasClaves[n] = claves[i];
+                nuevos[n++] = contenedores[i++].unir(otro.contenedores[j++]);
+            }
+        }
+        claves = nuevasClaves;
+        contenedores = nuevos;
+        grupos = n;
+    }
+
+    // 🔁 Valores en orden ascendente
+    public void recorrer(IntConsumer accion) {
+        for (int i = 0; i < grupos; i++) contenedores[i].recorrer(claves[i] << 16, accion);
+    }
+
+    public int[] aArreglo() {
+        int[] valores = new int[cardinalidad()];
+        int[] n = {0};
+        recorrer(v -> valores[n[0]++] = v);
+        return valores;
+    }
+
+    private int buscarGrupo(char alto) {
+        return Arrays.binarySearch(claves, 0, grupos, alto);
+    }
+
+    private void insertarGrupo(int i, char alto, Contenedor c) {
+        if (grupos == claves.length) {
+            int capacidad = Math.max(4, grupos * 2);
+            claves = Arrays.copyOf(claves, capacidad);
+            contenedores = Arrays.copyOf(contenedores, capacidad);
+        }
+        System.arraycopy(claves, i, claves, i + 1, grupos - i);
+        System.arraycopy(contenedores, i, contenedores, i + 1, grupos - i);
+        claves[i] = alto;
+        contenedores[i] = c;
+        grupos++;
+    }
+
+    private void quitarGrupo(int i) {
+        System.arraycopy(claves, i + 1, claves, i, grupos - i - 1);
+        System.arraycopy(contenedores, i + 1, contenedores, i, grupos - i - 1);
+        contenedores[--grupos] = null;
+    }
+
+    /**
+     * Los 16 bits bajos de un grupo; agregar, quitar y unir devuelven el contenedor que debe
+     * quedar. Cada contenedor tiene un solo dueño, así que pueden modificarlo en el lugar.
+     */
+    private abstract static class Contenedor {
+        abstract int cardinalidad();
+        abstract boolean contiene(char v);
+        abstract Contenedor agregar(char v);
+        abstract Contenedor quitar(char v);
+        abstract Contenedor interseccion(Contenedor otro);
+        abstract Contenedor unir(Contenedor otro);
+        abstract void recorrer(int alto, IntConsumer accion);
+        abstract Contenedor copiar();
+    }
+
+    // 📋 Grupo disperso: valores ordenados
+    private static final class Arreglo extends Contenedor {
+        char[] valores;
+        int n;
+
+        Arreglo() {
+            this(new char[4], 0);
+        }
+
+        Arreglo(char[] valores, int n) {
+            this.valores = valores;
+            this.n = n;
+        }
+
+        @Override
+        int cardinalidad() {
+            return n;
+        }
+
+        @Override
+        boolean contiene(char v) {
+            return Arrays.binarySearch(valores, 0, n, v) >= 0;
+        }
+
+        @Override
+        Contenedor agregar(char v) {
+            int i = Arrays.binarySearch(valores, 0, n, v);
+            if (i >= 0) return this;
+            if (n == MAX_ARREGLO) return aBits().agregar(v);
+            i = -i - 1;
+            if (n == valores.length) valores = Arrays.copyOf(valores, Math.min(MAX_ARREGLO, Math.max(4, n * 2)));
+            System.arraycopy(valores, i, valores, i + 1, n - i);
+            valores[i] = v;
+            n++;
+            return this;
+        }
+
+        @Override
+        Contenedor quitar(char v) {
+            int i = Arrays.binarySearch(valores, 0, n, v);
+            if (i < 0) return this;
+            System.arraycopy(valores, i + 1, valores, i, n - i - 1);
+            n--;
+            return this;
+        }
+
+        @Override
+        Contenedor interseccion(Contenedor otro) {
+            char[] comunes = new char[Math.min(n, otro.cardinalidad())];
+            int k = 0;
+            if (otro instanceof Arreglo a) {
+                int i = 0, j = 0;
+                while (i < n && j < a.n) {
+                    if (valores[i] < a.valores[j]) i++;
+                    else if (valores[i] > a.valores[j]) j++;
+                    else {
+                        comunes[k++] = valores[i++];
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    if (otro.contiene(valores[i])) comunes[k++] = valores[i];
+                }
+            }
+            return new Arreglo(comunes, k);
+        }
+
+        @Override
+        Contenedor unir(Contenedor otro) {
+            if (otro instanceof Bits b) return ((Bits) b.copiar()).unir(this);
+            Arreglo a = (Arreglo) otro;
+            char[] todos = new char[n + a.n];
+            int i = 0, j = 0, k = 0;
+            while (i < n || j < a.n) {
+                if (j == a.n || (i < n && valores[i] < a.valores[j])) todos[k++] = valores[i++];
+                else if (i == n || valores[i] > a.valores[j]) todos[k++] = a.valores[j++];
+                else {
+                    todos[k++] = valores[i++];
+                    j++;
+                }
+            }
+            Arreglo unidos = new Arreglo(todos, k);
+            return k > MAX_ARREGLO ? unidos.aBits() : unidos;
+        }
+
+        @Override
+        void recorrer(int alto, IntConsumer accion) {
+            for (int i = 0; i < n; i++) accion.accept(alto | valores[i]);
+        }
+
+        @Override
+        Contenedor copiar() {
+            return new Arreglo(Arrays.copyOf(valores, Math.max(n, 1)), n);
+        }
+
+        Bits aBits() {
+            Bits b = new Bits();
+            for (int i = 0; i < n; i++) b.palabras[valores[i] >>> 6] |= 1L << valores[i];
+            b.n = n;
+            return b;
+        }
+    }
+
+    // 🧱 Grupo denso: un bit por valor posible
+    private static final class Bits extends Contenedor {
+        final long[] palabras = new long[1 << 10];
+        int n;
+
+        @Override
+        int cardinalidad() {
+            return n;
+        }
+
+        @Override
+        boolean contiene(char v) {
+            return (palabras[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        Contenedor agregar(char v) {
+            if (!contiene(v)) {
+                palabras[v >>> 6] |= 1L << v;
+                n++;
+            }
+            return this;
+        }
+
+        @Override
+        Contenedor quitar(char v) {
+            if (!contiene(v)) return this;
+            palabras[v >>> 6] &= ~(1L << v);
+            n--;
+            // Con margen bajo el umbral: agregar y quitar alrededor de 4096 no convierte cada vez
+            return n < MAX_ARREGLO / 2 ? aArreglo() : this;
+        }
+
+        @Override
+        Contenedor interseccion(Contenedor otro) {
+            if (otro instanceof Arreglo a) return a.interseccion(this);
+            Bits b = (Bits) otro;
+            Bits comunes = new Bits();
+            for (int i = 0; i < palabras.length; i++) {
+                comunes.palabras[i] = palabras[i] & b.palabras[i];
+                comunes.n += Long.bitCount(comunes.palabras[i]);
+            }
+            return comunes.n <= MAX_ARREGLO ? comunes.aArreglo() : comunes;
+        }
+
+        // OR en el lugar: acumular muchas uniones no copia los 8 KB en cada paso
+        @Override
+        Contenedor unir(Contenedor otro) {
+            if (otro instanceof Arreglo a) {
+                for (int i = 0; i < a.n; i++) agregar(a.valores[i]);
+                return this;
+            }
+            Bits b = (Bits) otro;
+            n = 0;
+            for (int i = 0; i < palabras.length; i++) {
+                palabras[i] |= b.palabras[i];
+                n += Long.bitCount(palabras[i]);
+            }
+            return this;
+        }
+
+        @Override
+        void recorrer(int alto, IntConsumer accion) {
+            for (int i = 0; i < palabras.length; i++) {
+                long palabra = palabras[i];
+                while (palabra != 0) {
+                    accion.accept(alto | (i << 6) | Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+        }
+
+        @Override
+        Contenedor copiar() {
+            Bits copia = new Bits();
+            System.arraycopy(palabras, 0, copia.palabras, 0, palabras.length);
+            copia.n = n;
+            return copia;
+        }
+
+        Arreglo aArreglo() {
+            char[] valores = new char[n];
+            int[] k = {0};
+            recorrer(0, v -> valores[k[0]++] = (char) v);
+            return new Arreglo(valores, n);
+        }
+    }
+}
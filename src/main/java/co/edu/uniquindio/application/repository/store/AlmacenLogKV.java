@@ -0,0 +1,248 @@
+package co.edu.uniquindio.application.repository.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Almacén clave-valor embebido y estructurado como log (estilo Bitcask).
+ *
+ * Todas las escrituras se anexan al final de un único archivo de datos:
+ * <pre>
+ *   byte tipo (1 = put, 2 = delete) | int lenClave | int lenValor | clave | valor | int crc32
+ * </pre>
+ * En memoria solo se guarda el directorio clave → (offset, tamaño) del último registro vivo.
+ * Cuando los bytes muertos (versiones sobrescritas y borrados) superan a los vivos, el log se
+ * compacta copiando solo los registros vivos, en su orden en el log, a un archivo nuevo que
+ * reemplaza al anterior.
+ * Al abrir, un registro final truncado o con CRC inválido (escritura interrumpida) se descarta.
+ */
+public class AlmacenLogKV {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int CABECERA = 1 + 4 + 4;
+    private static final int COLA = 4;
+    private static final long MINIMO_PARA_COMPACTAR = 1 << 20;
+
+    private final Path ruta;
+    private FileChannel canal;
+    private long fin;
+
+    // 📇 Directorio en memoria: clave → offset del registro vivo y su tamaño total
+    private final Map<String, long[]> directorio = new HashMap<>();
+    private long bytesVivos;
+    private long bytesMuertos;
+    private long compactaciones;
+
+    public AlmacenLogKV(Path ruta) throws IOException {
+        this.ruta = ruta;
+        Path dir = ruta.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexar();
+    }
+
+    public synchronized void put(String clave, String valor) {
+        byte[] k = clave.getBytes(StandardCharsets.UTF_8);
+        byte[] v = valor.getBytes(StandardCharsets.UTF_8);
+        long offset = anexar(PUT, k, v);
+        long tam = CABECERA + k.length + v.length + COLA;
+        long[] previo = directorio.put(clave, new long[]{offset, tam});
+        if (previo != null) {
+            bytesVivos -= previo[1];
+            bytesMuertos += previo[1];
+        }
+        bytesVivos += tam;
+        compactarSiConviene();
+    }
+
+    public synchronized void delete(String clave) {
+        long[] previo = directorio.remove(clave);
+        if (previo == null) return;
+        byte[] k = clave.getBytes(StandardCharsets.UTF_8);
+        anexar(DELETE, k, new byte[0]);
+        bytesVivos -= previo[1];
+        bytesMuertos += previo[1] + CABECERA + k.length + COLA;
+        compactarSiConviene();
+    }
+
+    /** Recorre todos los pares vivos en el orden de su última escritura. */
+    public synchronized void recorrer(BiConsumer<String, String> visitante) {
+        Map<Long, String> porOffset = new TreeMap<>();
+        directorio.forEach((clave, pos) -> porOffset.put(pos[0], clave));
+        for (Map.Entry<Long, String> e : porOffset.entrySet()) {
+            String valor = leerValor(e.getKey());
+            if (valor != null) visitante.accept(e.getValue(), valor);
+        }
+    }
+
+    public synchronized Map<String, Long> estadisticas() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("claves", (long) directorio.size());
+        stats.put("bytesVivos", bytesVivos);
+        stats.put("bytesMuertos", bytesMuertos);
+        stats.put("compactaciones", compactaciones);
+        return stats;
+    }
+
+    public synchronized void cerrar() {
+        try {
+            canal.force(true);
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("❌ Error al cerrar almacén " + ruta + ": " + e.getMessage());
+        }
+    }
+
+    // ===================== internos =====================
+
+    private long anexar(byte tipo, byte[] k, byte[] v) {
+        ByteBuffer buf = ByteBuffer.allocate(CABECERA + k.length + v.length + COLA);
+        buf.put(tipo).putInt(k.length).putInt(v.length).put(k).put(v);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+
+        long offset = fin;
+        try {
+            long pos = offset;
+            while (buf.hasRemaining()) pos += canal.write(buf, pos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error escribiendo en " + ruta, e);
+        }
+        fin += buf.limit();
+        return offset;
+    }
+
+    // 🔎 Reconstruye el directorio leyendo el log de principio a fin
+    private void indexar() throws IOException {
+        long tamanio = canal.size();
+        long pos = 0;
+        ByteBuffer cab = ByteBuffer.allocate(CABECERA);
+        while (pos + CABECERA + COLA <= tamanio) {
+            cab.clear();
+            if (canal.read(cab, pos) < CABECERA) break;
+            cab.flip();
+            byte tipo = cab.get();
+            int lenK = cab.getInt();
+            int lenV = cab.getInt();
+            if ((tipo != PUT && tipo != DELETE) || lenK < 0 || lenV < 0) break;
+            long tam = (long) CABECERA + lenK + lenV + COLA;
+            if (pos + tam > tamanio) break;
+
+            ByteBuffer registro = ByteBuffer.allocate((int) tam);
+            canal.read(registro, pos);
+            CRC32 crc = new CRC32();
+            crc.update(registro.array(), 0, (int) tam - COLA);
+            if ((int) crc.getValue() != registro.getInt((int) tam - COLA)) break;
+
+            String clave = new String(registro.array(), CABECERA, lenK, StandardCharsets.UTF_8);
+            long[] previo = directorio.remove(clave);
+            if (previo != null) {
+                bytesVivos -= previo[1];
+                bytesMuertos += previo[1];
+            }
+            if (tipo == PUT) {
+                directorio.put(clave, new long[]{pos, tam});
+                bytesVivos += tam;
+            } else {
+                bytesMuertos += tam;
+            }
+            pos += tam;
+        }
+        if (pos < tamanio) {
+            System.err.println("⚠️ Registro incompleto al final de " + ruta + ": se descartan " + (tamanio - pos) + " bytes");
+            canal.truncate(pos);
+        }
+        fin = pos;
+    }
+
+    private String leerValor(long offset) {
+        try {
+            ByteBuffer cab = ByteBuffer.allocate(CABECERA);
+            canal.read(cab, offset);
+            cab.flip();
+            cab.get();
+            int lenK = cab.getInt();
+            int lenV = cab.getInt();
+            ByteBuffer valor = ByteBuffer.allocate(lenV);
+            canal.read(valor, offset + CABECERA + lenK);
+            return new String(valor.array(), 0, lenV, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("❌ Error leyendo " + ruta + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void compactarSiConviene() {
+        if (bytesMuertos < MINIMO_PARA_COMPACTAR || bytesMuertos < bytesVivos) return;
+        try {
+            compactar();
+        } catch (IOException e) {
+            System.err.println("❌ Error compactando " + ruta + ": " + e.getMessage());
+        }
+    }
+
+    /*
+     * 🧹 Copia solo los registros vivos a un archivo nuevo y lo publica con un renombrado.
+     * Se copian en orden de offset: el log nuevo conserva el orden de última escritura que
+     * promete recorrer() y se lee el original de principio a fin.
+     */
+    private void compactar() throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".compactando");
+        List<Map.Entry<String, long[]>> vivos = new ArrayList<>(directorio.entrySet());
+        vivos.sort(Comparator.comparingLong(e -> e.getValue()[0]));
+        Map<String, long[]> nuevoDirectorio = new HashMap<>();
+        long pos = 0;
+        try (FileChannel destino = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, long[]> e : vivos) {
+                long offset = e.getValue()[0];
+                long tam = e.getValue()[1];
+                long copiados = 0;
+                while (copiados < tam) {
+                    long n = canal.transferTo(offset + copiados, tam - copiados, destino);
+                    // 0 bytes: el log terminó antes que el registro (no avanzaría nunca)
+                    if (n <= 0) {
+                        throw new IOException("Registro de " + tam + " bytes en " + offset
+                                + " incompleto al compactar (copiados " + copiados + ")");
+                    }
+                    copiados += n;
+                }
+                nuevoDirectorio.put(e.getKey(), new long[]{pos, tam});
+                pos += tam;
+            }
+            destino.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+
+        canal.close();
+        try {
+            try {
+                Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            // si el renombrado falló, se reabre el log original y el directorio sigue válido
+            canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        directorio.clear();
+        directorio.putAll(nuevoDirectorio);
+        fin = pos;
+        bytesVivos = pos;
+        bytesMuertos = 0;
+        compactaciones++;
+    }
+}
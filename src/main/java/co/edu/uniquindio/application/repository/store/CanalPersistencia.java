@@ -0,0 +1,297 @@
+package co.edu.uniquindio.application.repository.store;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Canal de escritura de un archivo: cola acotada + un único hilo escritor.
+ *
+ * Los hilos de petición solo encolan la escritura y reciben un {@link CompletableFuture}
+ * que se completa cuando la escritura quedó aplicada, así que pueden esperar la
+ * durabilidad o seguir de largo. El escritor toma las tareas por lotes:
+ * <ul>
+ *   <li>con {@code ventanaMs > 0} espera ese tiempo tras la primera tarea para agrupar más
+ *       ("group commit"), hasta {@code maxLote} tareas;</li>
+ *   <li>varias tareas consecutivas con la misma instancia de escritura (p. ej. "reescribir usuarios.txt")
+ *       se ejecutan una sola vez;</li>
+ *   <li>al terminar cada lote se ejecuta {@code alTerminarLote} (típicamente un flush).</li>
+ * </ul>
+ * Con la cola llena, {@link PoliticaSaturacion#BLOQUEAR} frena al productor y
+ * {@link PoliticaSaturacion#DESCARTAR} rechaza la escritura (el futuro falla).
+ */
+public class CanalPersistencia {
+
+    public enum PoliticaSaturacion {
+        BLOQUEAR, DESCARTAR;
+
+        public static PoliticaSaturacion desde(String valor) {
+            return "descartar".equalsIgnoreCase(valor == null ? "" : valor.trim()) ? DESCARTAR : BLOQUEAR;
+        }
+    }
+
+    private record Tarea(Runnable escritura, CompletableFuture<Void> futuro, long encoladaEn) {}
+
+    private static final Tarea FIN = new Tarea(() -> {}, null, 0L);
+
+    private final String nombre;
+    private final int capacidad;
+    private final PoliticaSaturacion politica;
+    private final long ventanaNanos;
+    private final int maxLote;
+    private final Runnable alTerminarLote;
+
+    private final BlockingQueue<Tarea> cola;
+    private final Thread escritor;
+    // Las escrituras del hilo escritor y las posteriores al cierre nunca se solapan
+    private final Object ejecucion = new Object();
+    // Encolar (lectura) y cerrar (escritura) se excluyen: nada entra a la cola después del cierre
+    private final ReadWriteLock candadoCierre = new ReentrantReadWriteLock();
+    private volatile boolean cerrado;
+    // Se libera cuando cerrar() terminó de vaciar la cola: recién ahí se escribe en línea
+    private final CountDownLatch drenado = new CountDownLatch(1);
+
+    // 📊 Contadores
+    private final AtomicLong encoladas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong ejecutadas = new AtomicLong();
+    private final AtomicLong agrupadas = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private final AtomicLong encoladoNanosTotal = new AtomicLong();
+    private final AtomicLong encoladoNanosMax = new AtomicLong();
+    private final AtomicLong esperaNanosTotal = new AtomicLong();
+    private final AtomicLong volcadoNanosTotal = new AtomicLong();
+    private final AtomicLong volcadoNanosMax = new AtomicLong();
+
+    public CanalPersistencia(String nombre, int capacidad, PoliticaSaturacion politica,
+                             long ventanaMs, int maxLote, Runnable alTerminarLote) {
+        this.nombre = nombre;
+        this.capacidad = Math.max(1, capacidad);
+        this.politica = politica;
+        this.ventanaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ventanaMs));
+        this.maxLote = Math.max(1, maxLote);
+        this.alTerminarLote = alTerminarLote;
+        this.cola = new ArrayBlockingQueue<>(this.capacidad);
+        this.escritor = new Thread(this::bucleEscritor, "persistencia-" + nombre);
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /** Encola una escritura; el futuro se completa cuando quedó aplicada (y el lote vaciado). */
+    public CompletableFuture<Void> enviar(Runnable escritura) {
+        CompletableFuture<Void> futuro = new CompletableFuture<>();
+        long inicio = System.nanoTime();
+        Tarea tarea = new Tarea(escritura, futuro, inicio);
+        boolean aceptada;
+        candadoCierre.readLock().lock();
+        try {
+            if (cerrado) {
+                aceptada = false;
+            } else if (politica == PoliticaSaturacion.BLOQUEAR) {
+                // Mientras este hilo espera, cerrar() no puede empezar: el escritor sigue vaciando la cola
+                cola.put(tarea);
+                aceptada = true;
+            } else {
+                aceptada = cola.offer(tarea);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aceptada = false;
+        } finally {
+            candadoCierre.readLock().unlock();
+        }
+        if (cerrado && !aceptada) {
+            // Apagado en curso: se escribe en el hilo que llama para no perder el cambio, pero
+            // después de lo que cerrar() está vaciando, para no adelantarse a escrituras anteriores
+            if (!esperarDrenado()) {
+                futuro.completeExceptionally(new RejectedExecutionException(
+                        "Cierre de la persistencia '" + nombre + "' interrumpido"));
+                return futuro;
+            }
+            ejecutarLote(List.of(tarea));
+            return futuro;
+        }
+        registrarDuracion(System.nanoTime() - inicio, encoladoNanosTotal, encoladoNanosMax);
+
+        if (!aceptada) {
+            descartadas.incrementAndGet();
+            futuro.completeExceptionally(new RejectedExecutionException("Cola de persistencia '" + nombre + "' llena"));
+        } else {
+            encoladas.incrementAndGet();
+        }
+        return futuro;
+    }
+
+    // El propio escritor no espera: lo que envía mientras se vacía la cola ya va en orden
+    private boolean esperarDrenado() {
+        if (Thread.currentThread() == escritor) return true;
+        try {
+            drenado.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Barrera: se completa cuando todo lo encolado antes de esta llamada ya se escribió. */
+    public CompletableFuture<Void> sincronizar() {
+        return enviar(() -> {});
+    }
+
+    private void bucleEscritor() {
+        List<Tarea> lote = new ArrayList<>(maxLote);
+        try {
+            while (true) {
+                Tarea primera = cola.take();
+                if (primera == FIN) return;
+                lote.add(primera);
+
+                boolean fin = recolectar(lote);
+                ejecutarLote(lote);
+                lote.clear();
+                if (fin) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Junta más tareas en el lote; devuelve true si encontró la marca de cierre
+    private boolean recolectar(List<Tarea> lote) throws InterruptedException {
+        long limite = System.nanoTime() + ventanaNanos;
+        while (lote.size() < maxLote) {
+            long restante = limite - System.nanoTime();
+            Tarea siguiente = restante > 0 ? cola.poll(restante, TimeUnit.NANOSECONDS) : cola.poll();
+            if (siguiente == null) return false;
+            if (siguiente == FIN) return true;
+            lote.add(siguiente);
+        }
+        return false;
+    }
+
+    private void ejecutarLote(List<Tarea> lote) {
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> resueltos = new ArrayList<>();
+        List<CompletableFuture<Void>> fallidos = new ArrayList<>();
+        // futuros de tareas repetidas que dependen de la próxima ejecución de su escritura
+        List<CompletableFuture<Void>> cubiertos = new ArrayList<>();
+        RuntimeException ultimoError = null;
+
+        synchronized (ejecucion) {
+            for (int i = 0; i < lote.size(); i++) {
+                Tarea t = lote.get(i);
+                esperaNanosTotal.addAndGet(inicio - t.encoladaEn());
+                cubiertos.add(t.futuro());
+                boolean repetida = i + 1 < lote.size() && lote.get(i + 1).escritura() == t.escritura();
+                if (repetida) {
+                    // La siguiente ejecución de la misma escritura también cubre esta
+                    agrupadas.incrementAndGet();
+                    continue;
+                }
+                try {
+                    t.escritura().run();
+                    ejecutadas.incrementAndGet();
+                    resueltos.addAll(cubiertos);
+                } catch (RuntimeException e) {
+                    errores.incrementAndGet();
+                    ultimoError = e;
+                    System.err.println("❌ Error en la persistencia de " + nombre + ": " + e.getMessage());
+                    fallidos.addAll(cubiertos);
+                }
+                cubiertos.clear();
+            }
+            if (alTerminarLote != null) {
+                try {
+                    alTerminarLote.run();
+                } catch (RuntimeException e) {
+                    errores.incrementAndGet();
+                    ultimoError = e;
+                    System.err.println("❌ Error al vaciar la persistencia de " + nombre + ": " + e.getMessage());
+                    fallidos.addAll(resueltos);
+                    resueltos.clear();
+                }
+            }
+        }
+        lotes.incrementAndGet();
+        registrarDuracion(System.nanoTime() - inicio, volcadoNanosTotal, volcadoNanosMax);
+
+        for (CompletableFuture<Void> f : resueltos) f.complete(null);
+        for (CompletableFuture<Void> f : fallidos) f.completeExceptionally(ultimoError);
+    }
+
+    private static void registrarDuracion(long nanos, AtomicLong total, AtomicLong max) {
+        total.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    public int getProfundidad() {
+        return cola.size();
+    }
+
+    /** Profundidad de la cola, latencias de encolado/espera/volcado (µs) y contadores. */
+    public Map<String, Long> estadisticas() {
+        long enc = encoladas.get() + descartadas.get();
+        long tareas = ejecutadas.get() + agrupadas.get() + errores.get();
+        long nLotes = lotes.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("profundidad", (long) cola.size());
+        stats.put("capacidad", (long) capacidad);
+        stats.put("encoladas", encoladas.get());
+        stats.put("descartadas", descartadas.get());
+        stats.put("ejecutadas", ejecutadas.get());
+        stats.put("agrupadas", agrupadas.get());
+        stats.put("lotes", nLotes);
+        stats.put("errores", errores.get());
+        stats.put("encoladoPromedioUs", enc == 0 ? 0 : encoladoNanosTotal.get() / enc / 1000);
+        stats.put("encoladoMaxUs", encoladoNanosMax.get() / 1000);
+        stats.put("esperaPromedioUs", tareas == 0 ? 0 : esperaNanosTotal.get() / tareas / 1000);
+        stats.put("volcadoPromedioUs", nLotes == 0 ? 0 : volcadoNanosTotal.get() / nLotes / 1000);
+        stats.put("volcadoMaxUs", volcadoNanosMax.get() / 1000);
+        return stats;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Drena la cola y detiene el escritor; las escrituras posteriores se hacen en línea, una
+     * vez que terminó el vaciado.
+     */
+    public void cerrar() {
+        candadoCierre.writeLock().lock();
+        try {
+            if (cerrado) return;
+            cerrado = true;
+        } finally {
+            candadoCierre.writeLock().unlock();
+        }
+        try {
+            try {
+                cola.put(FIN);
+                escritor.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Lo que el escritor no alcanzó a tomar antes de la marca (o si se venció la espera)
+            List<Tarea> restantes = new ArrayList<>();
+            cola.drainTo(restantes);
+            restantes.remove(FIN);
+            if (!restantes.isEmpty()) ejecutarLote(restantes);
+        } finally {
+            drenado.countDown();
+        }
+    }
+}
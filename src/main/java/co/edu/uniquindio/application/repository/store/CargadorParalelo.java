@@ -0,0 +1,191 @@
+package co.edu.uniquindio.application.repository.store;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carga paralela de archivos de texto línea a línea (canciones.txt, usuarios.txt).
+ * El archivo se parte en rangos de bytes alineados a fin de línea, cada rango se
+ * decodifica y parsea en el ForkJoinPool común, y los resultados se entregan al
+ * destino en el orden original del archivo (si un id se repite, gana la última línea).
+ */
+public final class CargadorParalelo {
+
+    /** Por debajo de este tamaño no compensa partir el archivo. */
+    private static final long TAM_MINIMO_TROZO = 1 << 20;
+
+    private CargadorParalelo() {}
+
+    /** Conteo de una carga: líneas aceptadas y líneas mal formadas descartadas. */
+    public record Resultado(long cargadas, long descartadas) {}
+
+    /** Convierte {@code texto[desde, hasta)} (una línea no vacía); devuelve {@code null} si está mal formada. */
+    @FunctionalInterface
+    public interface ParserLinea<T> {
+        T parsear(CharSequence texto, int desde, int hasta);
+    }
+
+    /**
+     * @param fabrica crea un parser por trozo (los parsers pueden tener estado; no se comparten entre hilos)
+     * @param destino recibe cada elemento válido, en orden de archivo y en el hilo llamador
+     */
+    public static <T> Resultado cargar(Path archivo, Supplier<? extends ParserLinea<T>> fabrica, Consumer<T> destino)
+            throws IOException {
+        if (!Files.exists(archivo)) return new Resultado(0, 0);
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio == 0) return new Resultado(0, 0);
+
+            List<Trozo<T>> trozos = partir(canal, tamanio, fabrica);
+            ForkJoinPool.commonPool().invoke(new TareaTrozos<>(trozos, 0, trozos.size()));
+
+            long cargadas = 0;
+            long descartadas = 0;
+            for (Trozo<T> t : trozos) {
+                if (t.error != null) throw t.error;
+                for (T elemento : t.elementos) destino.accept(elemento);
+                cargadas += t.elementos.size();
+                descartadas += t.descartadas;
+            }
+            return new Resultado(cargadas, descartadas);
+        }
+    }
+
+    // ✂️ Divide [0, tamanio) en rangos que terminan justo después de un '\n'
+    private static <T> List<Trozo<T>> partir(FileChannel canal, long tamanio,
+                                             Supplier<? extends ParserLinea<T>> fabrica)
+            throws IOException {
+        int paralelismo = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        long objetivo = Math.max(TAM_MINIMO_TROZO, tamanio / (paralelismo * 4L));
+
+        List<Trozo<T>> trozos = new ArrayList<>();
+        long inicio = 0;
+        while (inicio < tamanio) {
+            long fin = Math.min(tamanio, inicio + objetivo);
+            fin = siguienteFinDeLinea(canal, fin, tamanio);
+            trozos.add(new Trozo<>(canal, inicio, fin, fabrica));
+            inicio = fin;
+        }
+        return trozos;
+    }
+
+    private static long siguienteFinDeLinea(FileChannel canal, long desde, long tamanio) throws IOException {
+        if (desde >= tamanio) return tamanio;
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        long pos = desde;
+        while (pos < tamanio) {
+            buf.clear();
+            int leidos = canal.read(buf, pos);
+            if (leidos <= 0) break;
+            for (int i = 0; i < leidos; i++) {
+                if (buf.get(i) == '\n') return pos + i + 1;
+            }
+            pos += leidos;
+        }
+        return tamanio;
+    }
+
+    /** Un rango del archivo y lo que produjo su parseo. */
+    private static final class Trozo<T> {
+        private final FileChannel canal;
+        private final long inicio;
+        private final long fin;
+        private final Supplier<? extends ParserLinea<T>> fabrica;
+
+        private final List<T> elementos = new ArrayList<>();
+        private long descartadas;
+        private IOException error;
+
+        Trozo(FileChannel canal, long inicio, long fin, Supplier<? extends ParserLinea<T>> fabrica) {
+            this.canal = canal;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.fabrica = fabrica;
+        }
+
+        void procesar() {
+            try {
+                MappedByteBuffer bytes = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+                CharBuffer texto = StandardCharsets.UTF_8.decode(bytes);
+                ParserLinea<T> parser = fabrica.get();
+                int largo = texto.length();
+                int desde = 0;
+                while (desde < largo) {
+                    int hasta = desde;
+                    while (hasta < largo && texto.charAt(hasta) != '\n') hasta++;
+                    int finLinea = hasta;
+                    if (finLinea > desde && texto.charAt(finLinea - 1) == '\r') finLinea--;
+                    procesarLinea(parser, texto, desde, finLinea);
+                    desde = hasta + 1;
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        // Sin crear un String por línea: el parser trabaja sobre índices del trozo decodificado
+        private void procesarLinea(ParserLinea<T> parser, CharBuffer texto, int desde, int hasta) {
+            if (esBlanca(texto, desde, hasta)) return;
+            T elemento;
+            try {
+                elemento = parser.parsear(texto, desde, hasta);
+            } catch (RuntimeException e) {
+                elemento = null;
+            }
+            if (elemento != null) {
+                elementos.add(elemento);
+            } else {
+                descartadas++;
+            }
+        }
+    }
+
+    private static boolean esBlanca(CharSequence texto, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (!Character.isWhitespace(texto.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /** Reparte los trozos por bisección en el ForkJoinPool. */
+    private static final class TareaTrozos<T> extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // La tarea nunca se serializa: solo vive dentro del pool de la carga
+        private final transient List<Trozo<T>> trozos;
+        private final int desde;
+        private final int hasta;
+
+        TareaTrozos(List<Trozo<T>> trozos, int desde, int hasta) {
+            this.trozos = trozos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= 1) {
+                if (hasta > desde) trozos.get(desde).procesar();
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaTrozos<>(trozos, desde, medio), new TareaTrozos<>(trozos, medio, hasta));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * SPI de persistencia del catálogo. {@code CancionRepository} mantiene el catálogo en
+ * memoria y delega aquí la durabilidad; el motor se elige con {@code syncup.storage.motor}
+ * (ver {@link StorageConfig}).
+ *
+ * Las escrituras son asíncronas: devuelven un futuro que se completa cuando el cambio
+ * quedó escrito, para quien necesite esperar la durabilidad.
+ */
+public interface CatalogStore {
+
+    /** Entrega al destino cada canción persistida (se llama una vez, al arrancar). */
+    void cargar(Consumer<Cancion> destino);
+
+    /** Persiste un alta o una actualización. */
+    CompletableFuture<Void> guardar(Cancion cancion);
+
+    /** Persiste una eliminación. */
+    CompletableFuture<Void> eliminar(String id);
+
+    /** Se completa cuando todas las escrituras solicitadas hasta ahora quedaron aplicadas. */
+    default CompletableFuture<Void> sincronizar() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /** Contadores propios del motor (para /api/metricas/persistencia). */
+    default Map<String, Long> estadisticas() {
+        return Map.of();
+    }
+
+    /** Libera archivos e hilos; se invoca al apagar la aplicación. */
+    default void cerrar() {}
+}
@@ -0,0 +1,105 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.Rol;
+import co.edu.uniquindio.application.model.Usuario;
+import co.edu.uniquindio.application.utils.ParserCancion;
+
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Formato de línea compartido por los motores que guardan texto
+ * (canciones.txt, usuarios.txt y los valores del almacén clave-valor).
+ */
+public final class FormatoRegistros {
+
+    private FormatoRegistros() {}
+
+    // 🧾 Canción: 6 o 7 columnas según haya fileName; ';' y '\\' de los textos van escapados
+    public static String formatearCancion(Cancion c) {
+        if (c.getFileName() != null && !c.getFileName().isBlank()) {
+            return String.format("%s;%s;%s;%s;%d;%.2f;%s",
+                    ParserCancion.escapar(c.getId()), ParserCancion.escapar(c.getTitulo()),
+                    ParserCancion.escapar(c.getArtista()), ParserCancion.escapar(c.getGenero()),
+                    c.getAnio(), c.getDuracion(), ParserCancion.escapar(c.getFileName()));
+        }
+        return String.format("%s;%s;%s;%s;%d;%.2f",
+                ParserCancion.escapar(c.getId()), ParserCancion.escapar(c.getTitulo()),
+                ParserCancion.escapar(c.getArtista()), ParserCancion.escapar(c.getGenero()),
+                c.getAnio(), c.getDuracion());
+    }
+
+    // 🧾 Usuario: username;password;nombre;ROL;id1,id2,...
+    public static String formatearUsuario(Usuario u) {
+        // se lee bajo el monitor del usuario para no competir con agregar/eliminar favoritos
+        String favIds;
+        synchronized (u) {
+            favIds = u.getListaFavoritos().stream()
+                    .map(Cancion::getId)
+                    .collect(Collectors.joining(","));
+        }
+        return String.format("%s;%s;%s;%s;%s",
+                u.getUsername(),
+                u.getPassword(),
+                u.getNombre(),
+                (u.getRol() != null ? u.getRol().name() : "USER"),
+                favIds);
+    }
+
+    /**
+     * Convierte una línea de usuario; devuelve {@code null} si está mal formada.
+     * Formato esperado (retrocompatible):
+     * 1) username;password;nombre
+     * 2) username;password;nombre;ROL
+     * 3) username;password;nombre;ROL;id1,id2,...
+     * 4) username;password;nombre;id1,id2,...   (legacy donde no hay rol)
+     */
+    public static Usuario parsearUsuario(String linea, Function<String, Cancion> resolverCancion) {
+        String[] partes = linea.split(";");
+        if (partes.length < 3) return null;
+
+        String username = partes[0].trim();
+        String password = partes[1].trim();
+        String nombre = partes[2].trim();
+
+        // valor por defecto
+        String rolStr = "USER";
+        String favoritosPart = null;
+
+        if (partes.length == 4) {
+            // si el cuarto campo coincide con ADMIN/USER lo tomamos como rol,
+            // si no, lo interpretamos como lista de favoritos (legacy)
+            String cuarto = partes[3].trim();
+            if ("ADMIN".equalsIgnoreCase(cuarto) || "USER".equalsIgnoreCase(cuarto)) {
+                rolStr = cuarto.toUpperCase();
+            } else {
+                favoritosPart = cuarto;
+            }
+        } else if (partes.length >= 5) {
+            rolStr = partes[3].trim().toUpperCase();
+            favoritosPart = partes[4].trim();
+        }
+
+        Rol rol;
+        try {
+            rol = Rol.valueOf(rolStr);
+        } catch (IllegalArgumentException iae) {
+            return null; // rol desconocido: línea descartada
+        }
+        Usuario usuario = new Usuario(username, password, nombre, rol);
+
+        // cargar favoritos si vienen (ids inexistentes en el catálogo se ignoran)
+        if (favoritosPart != null && !favoritosPart.isBlank()) {
+            for (String id : favoritosPart.split(",")) {
+                String idTrim = id.trim();
+                if (idTrim.isEmpty()) continue;
+                Cancion c = resolverCancion.apply(idTrim);
+                if (c != null) {
+                    usuario.agregarFavorito(c);
+                }
+            }
+        }
+        return usuario;
+    }
+}
@@ -0,0 +1,157 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Instantánea binaria del catálogo (canciones.bin) que se escribe junto a canciones.txt
+ * y se carga con un {@link MappedByteBuffer} al arrancar.
+ *
+ * Formato (big-endian):
+ * <pre>
+ *  Cabecera fija (40 bytes):
+ *    int  magia ("SYNC")      int  version
+ *    long tamanio de canciones.txt    long fecha de modificación de canciones.txt
+ *    int  numCadenas          int  numCanciones
+ *    int  offsetCadenas       int  offsetRegistros
+ *  Tabla de cadenas: por cada una, int longitud + bytes UTF-8 (cada valor distinto una vez)
+ *  Registros (28 bytes c/u): id, titulo, artista, genero (índices en la tabla),
+ *    int anio, float duracion, int fileName (-1 si no tiene)
+ * </pre>
+ * La cabecera guarda el tamaño y la fecha de canciones.txt: si el texto se editó a mano
+ * la instantánea deja de ser válida y se vuelve a cargar desde el texto.
+ */
+public final class InstantaneaBinariaCanciones {
+
+    private static final int MAGIA = 0x53594E43;
+    private static final int VERSION = 1;
+    private static final int TAM_CABECERA = 40;
+    private static final int TAM_REGISTRO = 28;
+
+    private InstantaneaBinariaCanciones() {}
+
+    /**
+     * Escribe la instantánea binaria del catálogo.
+     * @param texto archivo canciones.txt del que es equivalente (para validar al cargar)
+     */
+    public static void escribir(Path destino, Collection<Cancion> canciones, Path texto) throws IOException {
+        Map<String, Integer> indices = new HashMap<>();
+        List<byte[]> cadenas = new ArrayList<>();
+        int[] registros = new int[canciones.size() * 7];
+
+        int r = 0;
+        for (Cancion c : canciones) {
+            registros[r++] = indiceDe(c.getId(), indices, cadenas);
+            registros[r++] = indiceDe(c.getTitulo(), indices, cadenas);
+            registros[r++] = indiceDe(c.getArtista(), indices, cadenas);
+            registros[r++] = indiceDe(c.getGenero(), indices, cadenas);
+            registros[r++] = c.getAnio();
+            registros[r++] = Float.floatToIntBits((float) c.getDuracion());
+            registros[r++] = (c.getFileName() != null && !c.getFileName().isBlank())
+                    ? indiceDe(c.getFileName(), indices, cadenas) : -1;
+        }
+
+        int tamCadenas = 0;
+        for (byte[] b : cadenas) tamCadenas += 4 + b.length;
+
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporal), 1 << 16))) {
+            out.writeInt(MAGIA);
+            out.writeInt(VERSION);
+            out.writeLong(Files.size(texto));
+            out.writeLong(Files.getLastModifiedTime(texto).toMillis());
+            out.writeInt(cadenas.size());
+            out.writeInt(canciones.size());
+            out.writeInt(TAM_CABECERA);
+            out.writeInt(TAM_CABECERA + tamCadenas);
+
+            for (byte[] b : cadenas) {
+                out.writeInt(b.length);
+                out.write(b);
+            }
+            for (int valor : registros) {
+                out.writeInt(valor);
+            }
+        }
+        try {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Carga la instantánea si existe y corresponde al canciones.txt actual.
+     * @return las canciones, o {@code null} si hay que cargar desde el texto
+     */
+    public static List<Cancion> leer(Path origen, Path texto) {
+        if (!Files.exists(origen) || !Files.exists(texto)) return null;
+
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < TAM_CABECERA || tamanio > Integer.MAX_VALUE) return null;
+
+            MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+            if (buf.getInt() != MAGIA || buf.getInt() != VERSION) return null;
+            if (buf.getLong() != Files.size(texto)) return null;
+            if (buf.getLong() != Files.getLastModifiedTime(texto).toMillis()) return null;
+
+            int numCadenas = buf.getInt();
+            int numCanciones = buf.getInt();
+            int offsetCadenas = buf.getInt();
+            int offsetRegistros = buf.getInt();
+            if ((long) offsetRegistros + (long) numCanciones * TAM_REGISTRO != tamanio) return null;
+
+            String[] cadenas = new String[numCadenas];
+            byte[] auxiliar = new byte[256];
+            buf.position(offsetCadenas);
+            for (int i = 0; i < numCadenas; i++) {
+                int len = buf.getInt();
+                if (len > auxiliar.length) auxiliar = new byte[Math.max(len, auxiliar.length * 2)];
+                buf.get(auxiliar, 0, len);
+                cadenas[i] = new String(auxiliar, 0, len, StandardCharsets.UTF_8);
+            }
+
+            List<Cancion> canciones = new ArrayList<>(numCanciones);
+            ByteBuffer registros = buf.position(offsetRegistros).slice();
+            for (int i = 0; i < numCanciones; i++) {
+                Cancion c = new Cancion(
+                        cadenas[registros.getInt()],
+                        cadenas[registros.getInt()],
+                        cadenas[registros.getInt()],
+                        cadenas[registros.getInt()],
+                        registros.getInt(),
+                        // el texto guarda 2 decimales: se redondea para no arrastrar el error del float
+                        Math.round(registros.getFloat() * 100.0) / 100.0);
+                int fileName = registros.getInt();
+                if (fileName >= 0) c.setFileName(cadenas[fileName]);
+                canciones.add(c);
+            }
+            return canciones;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Instantánea binaria de canciones inválida, se usará el texto: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static int indiceDe(String valor, Map<String, Integer> indices, List<byte[]> cadenas) {
+        String v = valor != null ? valor : "";
+        Integer idx = indices.get(v);
+        if (idx == null) {
+            idx = cadenas.size();
+            indices.put(v, idx);
+            cadenas.add(v.getBytes(StandardCharsets.UTF_8));
+        }
+        return idx;
+    }
+}
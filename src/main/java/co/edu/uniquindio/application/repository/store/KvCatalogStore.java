@@ -0,0 +1,66 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Motor clave-valor para el catálogo: cada canción es un registro id → línea de canciones.txt
+ * en un {@link AlmacenLogKV}. Altas, cambios y bajas cuestan una escritura anexada.
+ */
+public class KvCatalogStore implements CatalogStore {
+
+    private final AlmacenLogKV almacen;
+    private final CanalPersistencia canal;
+
+    public KvCatalogStore(Path ruta, PipelinePersistencia pipeline) {
+        try {
+            this.almacen = new AlmacenLogKV(ruta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el almacén de canciones " + ruta, e);
+        }
+        this.canal = pipeline.canal("canciones", null);
+    }
+
+    @Override
+    public void cargar(Consumer<Cancion> destino) {
+        almacen.recorrer((id, linea) -> {
+            Cancion c = Cancion.fromString(linea);
+            if (c != null) destino.accept(c);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> guardar(Cancion cancion) {
+        // la línea se arma en el hilo de la petición: refleja el estado de este cambio
+        String clave = cancion.getId();
+        String linea = FormatoRegistros.formatearCancion(cancion);
+        return canal.enviar(() -> almacen.put(clave, linea));
+    }
+
+    @Override
+    public CompletableFuture<Void> eliminar(String id) {
+        return canal.enviar(() -> almacen.delete(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> sincronizar() {
+        return canal.sincronizar();
+    }
+
+    @Override
+    public Map<String, Long> estadisticas() {
+        return almacen.estadisticas();
+    }
+
+    @Override
+    public void cerrar() {
+        canal.cerrar();
+        almacen.cerrar();
+    }
+}
@@ -0,0 +1,68 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.Usuario;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Motor clave-valor para usuarios: cada usuario es un registro username → línea de usuarios.txt
+ * en un {@link AlmacenLogKV}. Un cambio de favoritos reescribe solo el registro de ese usuario.
+ */
+public class KvUserStore implements UserStore {
+
+    private final AlmacenLogKV almacen;
+    private final CanalPersistencia canal;
+
+    public KvUserStore(Path ruta, PipelinePersistencia pipeline) {
+        try {
+            this.almacen = new AlmacenLogKV(ruta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el almacén de usuarios " + ruta, e);
+        }
+        this.canal = pipeline.canal("usuarios", null);
+    }
+
+    @Override
+    public void cargar(Function<String, Cancion> resolverCancion, Consumer<Usuario> destino) {
+        almacen.recorrer((username, linea) -> {
+            Usuario u = FormatoRegistros.parsearUsuario(linea, resolverCancion);
+            if (u != null) destino.accept(u);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> guardar(Usuario usuario) {
+        // la línea se arma en el hilo de la petición: refleja el estado de este cambio
+        String clave = usuario.getUsername();
+        String linea = FormatoRegistros.formatearUsuario(usuario);
+        return canal.enviar(() -> almacen.put(clave, linea));
+    }
+
+    @Override
+    public CompletableFuture<Void> eliminar(String username) {
+        return canal.enviar(() -> almacen.delete(username));
+    }
+
+    @Override
+    public CompletableFuture<Void> sincronizar() {
+        return canal.sincronizar();
+    }
+
+    @Override
+    public Map<String, Long> estadisticas() {
+        return almacen.estadisticas();
+    }
+
+    @Override
+    public void cerrar() {
+        canal.cerrar();
+        almacen.cerrar();
+    }
+}
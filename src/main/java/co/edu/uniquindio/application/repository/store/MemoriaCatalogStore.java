@@ -0,0 +1,42 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Motor en memoria: no persiste nada. Pensado para pruebas y benchmarks,
+ * opcionalmente con un catálogo inicial.
+ */
+public class MemoriaCatalogStore implements CatalogStore {
+
+    private final Collection<Cancion> iniciales;
+
+    public MemoriaCatalogStore() {
+        this(List.of());
+    }
+
+    public MemoriaCatalogStore(Collection<Cancion> iniciales) {
+        this.iniciales = iniciales;
+    }
+
+    @Override
+    public void cargar(Consumer<Cancion> destino) {
+        iniciales.forEach(destino);
+    }
+
+    @Override
+    public CompletableFuture<Void> guardar(Cancion cancion) {
+        // sin persistencia
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> eliminar(String id) {
+        // sin persistencia
+        return CompletableFuture.completedFuture(null);
+    }
+}
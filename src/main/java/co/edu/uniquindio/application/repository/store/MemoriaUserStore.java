@@ -0,0 +1,31 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.Usuario;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Motor en memoria: no persiste nada. Pensado para pruebas y benchmarks.
+ */
+public class MemoriaUserStore implements UserStore {
+
+    @Override
+    public void cargar(Function<String, Cancion> resolverCancion, Consumer<Usuario> destino) {
+        // sin datos iniciales
+    }
+
+    @Override
+    public CompletableFuture<Void> guardar(Usuario usuario) {
+        // sin persistencia
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> eliminar(String username) {
+        // sin persistencia
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,62 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.repository.store.CanalPersistencia.PoliticaSaturacion;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registro de los canales de persistencia de la aplicación: un {@link CanalPersistencia}
+ * (cola acotada + hilo escritor) por archivo. Centraliza la configuración de la cola y
+ * expone las métricas de todos los canales en un solo lugar.
+ */
+@Component
+public class PipelinePersistencia {
+
+    private final int capacidad;
+    private final PoliticaSaturacion politica;
+
+    private final Map<String, CanalPersistencia> canales = new LinkedHashMap<>();
+
+    public PipelinePersistencia(@Value("${syncup.persistencia.cola.capacidad:1024}") int capacidad,
+                                @Value("${syncup.persistencia.cola.politica:bloquear}") String politica) {
+        this.capacidad = capacidad;
+        this.politica = PoliticaSaturacion.desde(politica);
+    }
+
+    /** Canal sin ventana de agrupación y con la política configurada. */
+    public CanalPersistencia canal(String nombre, Runnable alTerminarLote) {
+        return canal(nombre, politica, 0, capacidad, alTerminarLote);
+    }
+
+    public synchronized CanalPersistencia canal(String nombre, PoliticaSaturacion politica,
+                                                long ventanaMs, int maxLote, Runnable alTerminarLote) {
+        CanalPersistencia existente = canales.get(nombre);
+        if (existente != null) {
+            throw new IllegalStateException("Ya existe un canal de persistencia '" + nombre + "'");
+        }
+        CanalPersistencia canal = new CanalPersistencia(nombre, capacidad, politica, ventanaMs, maxLote, alTerminarLote);
+        canales.put(nombre, canal);
+        return canal;
+    }
+
+    public PoliticaSaturacion getPolitica() {
+        return politica;
+    }
+
+    // 📊 Métricas por canal (profundidad de cola, latencias de encolado y volcado)
+    public synchronized Map<String, Map<String, Long>> estadisticas() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        canales.forEach((nombre, canal) -> stats.put(nombre, canal.estadisticas()));
+        return stats;
+    }
+
+    // 🛑 Drena los canales que sigan abiertos (cerrar un canal dos veces no tiene efecto)
+    @PreDestroy
+    public synchronized void cerrar() {
+        canales.values().forEach(CanalPersistencia::cerrar);
+    }
+}
@@ -0,0 +1,52 @@
+package co.edu.uniquindio.application.repository.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Selección del motor de persistencia por despliegue ({@code application.properties}):
+ * <ul>
+ *   <li>{@code texto}: canciones.txt + bitácora y usuarios.txt (por defecto)</li>
+ *   <li>{@code kv}: almacén clave-valor estructurado como log en disco local</li>
+ *   <li>{@code memoria}: sin persistencia (pruebas y benchmarks)</li>
+ * </ul>
+ */
+@Configuration
+public class StorageConfig {
+
+    @Value("${syncup.storage.motor:texto}")
+    private String motor;
+
+    @Value("${syncup.storage.directorio:src/main/resources/data}")
+    private String directorio;
+
+    @Bean(destroyMethod = "cerrar")
+    public CatalogStore catalogStore(PipelinePersistencia pipeline) {
+        return switch (motor.trim().toLowerCase()) {
+            case "kv" -> new KvCatalogStore(ruta("canciones.kv"), pipeline);
+            case "memoria" -> new MemoriaCatalogStore();
+            case "texto" -> new TextoCatalogStore(ruta("canciones.txt"), pipeline);
+            default -> throw new IllegalArgumentException("Motor de almacenamiento desconocido: " + motor);
+        };
+    }
+
+    @Bean(destroyMethod = "cerrar")
+    public UserStore userStore(PipelinePersistencia pipeline,
+                               @Value("${syncup.usuarios.commit.ventana-ms:50}") long ventanaMs,
+                               @Value("${syncup.usuarios.commit.max-cambios:64}") int maxCambios) {
+        return switch (motor.trim().toLowerCase()) {
+            case "kv" -> new KvUserStore(ruta("usuarios.kv"), pipeline);
+            case "memoria" -> new MemoriaUserStore();
+            case "texto" -> new TextoUserStore(ruta("usuarios.txt"), pipeline, ventanaMs, maxCambios);
+            default -> throw new IllegalArgumentException("Motor de almacenamiento desconocido: " + motor);
+        };
+    }
+
+    private Path ruta(String archivo) {
+        return Paths.get(directorio, archivo);
+    }
+}
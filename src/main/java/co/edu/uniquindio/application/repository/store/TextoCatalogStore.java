@@ -0,0 +1,320 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.utils.ParserCancion;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Motor de texto (comportamiento original): instantánea canciones.txt + bitácora de cambios.
+ *
+ * Cada mutación se anexa como un registro en canciones.log:
+ *  - {@code +id;titulo;artista;genero;anio;duracion[;fileName]} → alta o actualización
+ *  - {@code -id} → eliminación
+ * Cuando la bitácora supera {@link #UMBRAL_COMPACTACION_BYTES}, un hilo en segundo plano
+ * la pliega en una instantánea nueva de canciones.txt. Al iniciar se carga la instantánea
+ * y se reproducen los registros pendientes.
+ *
+ * Junto a cada instantánea de texto se escribe canciones.bin ({@link InstantaneaBinariaCanciones}),
+ * que es la que se carga al arrancar mientras siga correspondiendo al texto; canciones.txt se
+ * conserva como formato de importación/exportación.
+ *
+ * Los registros se anexan desde el hilo escritor de un {@link CanalPersistencia}: la petición
+ * solo encola la línea y el escritor vacía el buffer y lo fuerza a disco una vez por lote.
+ * La copia en memoria se actualiza en ese mismo paso, bajo el mismo candado que el registro,
+ * así que memoria y bitácora ven las mutaciones en el mismo orden. Un registro que no se pudo
+ * anexar hace fallar el futuro de su mutación y no se aplica a la copia.
+ */
+public class TextoCatalogStore implements CatalogStore {
+
+    private static final long UMBRAL_COMPACTACION_BYTES = 256 * 1024;
+
+    // Copia de referencias del catálogo vigente, necesaria para escribir instantáneas (la escribe el hilo escritor)
+    private final Map<String, Cancion> canciones = new ConcurrentHashMap<>();
+
+    private final Path rutaCanciones;
+    private final Path rutaBinaria;
+    private final Path rutaRegistro;
+    private final Path rutaRegistroCompactando;
+
+    // 📝 Bitácora de cambios (protegida por el monitor de 'this')
+    private FileChannel canalRegistro;
+    private BufferedWriter registro;
+    private long bytesRegistro;
+    private boolean cerrado;
+
+    private final ExecutorService compactador = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "compactador-canciones");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean compactacionPendiente = new AtomicBoolean(false);
+    private final AtomicLong compactaciones = new AtomicLong();
+
+    // 📨 Cola de escritura de la bitácora
+    private final CanalPersistencia canal;
+
+    /** @param rutaCanciones instantánea de texto; la bitácora y el binario se crean a su lado */
+    public TextoCatalogStore(Path rutaCanciones, PipelinePersistencia pipeline) {
+        this.rutaCanciones = rutaCanciones;
+        String nombre = rutaCanciones.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        String base = punto > 0 ? nombre.substring(0, punto) : nombre;
+        this.rutaBinaria = rutaCanciones.resolveSibling(base + ".bin");
+        this.rutaRegistro = rutaCanciones.resolveSibling(base + ".log");
+        this.rutaRegistroCompactando = rutaCanciones.resolveSibling(base + ".log.compactando");
+        this.canal = pipeline.canal("canciones", this::vaciarRegistro);
+    }
+
+    // 🔹 Cargar instantánea (binaria o texto) y reproducir la bitácora pendiente
+    @Override
+    public void cargar(Consumer<Cancion> destino) {
+        List<Cancion> desdeBinario = InstantaneaBinariaCanciones.leer(rutaBinaria, rutaCanciones);
+        if (desdeBinario != null) {
+            for (Cancion c : desdeBinario) {
+                canciones.put(c.getId(), c);
+            }
+        } else {
+            cargarDesdeTexto();
+            escribirInstantaneaBinaria(new ArrayList<>(canciones.values()));
+        }
+
+        // Una compactación interrumpida deja su bitácora renombrada: se reproduce primero
+        boolean compactacionInterrumpida = Files.exists(rutaRegistroCompactando);
+        reproducirRegistro(rutaRegistroCompactando);
+        reproducirRegistro(rutaRegistro);
+
+        if (compactacionInterrumpida || tamanio(rutaRegistro) > UMBRAL_COMPACTACION_BYTES) {
+            try {
+                escribirInstantanea(new ArrayList<>(canciones.values()));
+                Files.deleteIfExists(rutaRegistroCompactando);
+                Files.deleteIfExists(rutaRegistro);
+            } catch (IOException e) {
+                System.err.println("❌ Error al compactar bitácora de canciones: " + e.getMessage());
+            }
+        }
+
+        canciones.values().forEach(destino);
+        abrirRegistro();
+    }
+
+    @Override
+    public CompletableFuture<Void> guardar(Cancion cancion) {
+        String linea = '+' + FormatoRegistros.formatearCancion(cancion);
+        return canal.enviar(() -> registrarCambio(linea, () -> canciones.put(cancion.getId(), cancion)));
+    }
+
+    // Se encola aunque el id no esté todavía: puede haber un alta suya delante en la cola
+    @Override
+    public CompletableFuture<Void> eliminar(String id) {
+        return canal.enviar(() -> registrarBaja(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> sincronizar() {
+        return canal.sincronizar();
+    }
+
+    // 📄 Carga en paralelo desde canciones.txt (importación o instantánea binaria desactualizada)
+    private void cargarDesdeTexto() {
+        try {
+            CargadorParalelo.Resultado r = CargadorParalelo.cargar(rutaCanciones, () -> new ParserCancion()::parsear,
+                    c -> canciones.put(c.getId(), c));
+            if (r.descartadas() > 0) {
+                System.err.println("⚠️ Se descartaron " + r.descartadas() + " líneas mal formadas de " + rutaCanciones);
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Error al cargar canciones: " + e.getMessage());
+        }
+    }
+
+    // 🔁 Aplica en orden los registros +/- de una bitácora (son idempotentes)
+    private void reproducirRegistro(Path ruta) {
+        if (!Files.exists(ruta)) return;
+
+        try (BufferedReader br = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (linea.isEmpty()) continue;
+                char op = linea.charAt(0);
+                String cuerpo = linea.substring(1);
+                if (op == '+') {
+                    Cancion c = Cancion.fromString(cuerpo);
+                    if (c != null) canciones.put(c.getId(), c);
+                } else if (op == '-') {
+                    canciones.remove(cuerpo.trim());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Error al reproducir bitácora de canciones: " + e.getMessage());
+        }
+    }
+
+    private synchronized void registrarBaja(String id) {
+        if (canciones.containsKey(id)) registrarCambio('-' + id, () -> canciones.remove(id));
+    }
+
+    /*
+     * 📝 Anexa un registro a la bitácora y aplica el cambio a la copia en memoria, los dos bajo
+     * el monitor (hilo escritor); O(1) sin importar el tamaño del catálogo.
+     */
+    private synchronized void registrarCambio(String registroLinea, Runnable aplicar) {
+        // Una rotación pudo dejarla sin abrir: se reintenta antes de dar el cambio por perdido
+        if (registro == null && !cerrado) abrirRegistro();
+        if (registro == null) {
+            throw new UncheckedIOException(new IOException("La bitácora de canciones no está abierta"));
+        }
+        try {
+            registro.write(registroLinea);
+            registro.newLine();
+            bytesRegistro += registroLinea.getBytes(StandardCharsets.UTF_8).length + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al anexar a la bitácora de canciones", e);
+        }
+        aplicar.run();
+
+        if (bytesRegistro > UMBRAL_COMPACTACION_BYTES && compactacionPendiente.compareAndSet(false, true)) {
+            compactador.submit(this::compactarRegistro);
+        }
+    }
+
+    // 💧 Fin de lote: un solo flush y un solo force para todos los registros anexados
+    private synchronized void vaciarRegistro() {
+        if (registro == null) return;
+        try {
+            registro.flush();
+            canalRegistro.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al vaciar la bitácora de canciones", e);
+        }
+    }
+
+    private synchronized void abrirRegistro() {
+        try {
+            canalRegistro = FileChannel.open(rutaRegistro, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            registro = new BufferedWriter(Channels.newWriter(canalRegistro, StandardCharsets.UTF_8));
+            bytesRegistro = tamanio(rutaRegistro);
+        } catch (IOException e) {
+            canalRegistro = null;
+            registro = null;
+            System.err.println("❌ No se pudo abrir la bitácora de canciones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pliega la bitácora en una instantánea nueva de canciones.txt.
+     * La copia del catálogo y la rotación de la bitácora ocurren bajo el mismo candado que
+     * las escrituras, así que todo registro rotado ya está reflejado en la copia; los
+     * registros posteriores quedan en la bitácora nueva y se reproducen sobre la instantánea.
+     */
+    private void compactarRegistro() {
+        try {
+            List<Cancion> copia;
+            synchronized (this) {
+                copia = new ArrayList<>(canciones.values());
+                try {
+                    if (registro != null) registro.close();
+                    registro = null;
+                    if (Files.exists(rutaRegistroCompactando)) {
+                        // Una compactación anterior falló: se conservan sus registros
+                        Files.write(rutaRegistroCompactando, Files.readAllBytes(rutaRegistro), StandardOpenOption.APPEND);
+                        Files.delete(rutaRegistro);
+                    } else {
+                        Files.move(rutaRegistro, rutaRegistroCompactando);
+                    }
+                } catch (IOException e) {
+                    System.err.println("❌ Error al rotar bitácora de canciones: " + e.getMessage());
+                } finally {
+                    abrirRegistro();
+                }
+            }
+
+            escribirInstantanea(copia);
+            Files.deleteIfExists(rutaRegistroCompactando);
+            compactaciones.incrementAndGet();
+        } catch (IOException e) {
+            System.err.println("❌ Error al compactar canciones: " + e.getMessage());
+        } finally {
+            compactacionPendiente.set(false);
+        }
+    }
+
+    // 💾 Escribe las instantáneas (texto y binaria) y las publica con renombrado atómico
+    private void escribirInstantanea(Collection<Cancion> lista) throws IOException {
+        Path temporal = rutaCanciones.resolveSibling(rutaCanciones.getFileName() + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            for (Cancion c : lista) {
+                bw.write(FormatoRegistros.formatearCancion(c));
+                bw.newLine();
+            }
+        }
+        try {
+            Files.move(temporal, rutaCanciones, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, rutaCanciones, StandardCopyOption.REPLACE_EXISTING);
+        }
+        escribirInstantaneaBinaria(lista);
+    }
+
+    private void escribirInstantaneaBinaria(Collection<Cancion> lista) {
+        if (!Files.exists(rutaCanciones)) return;
+        try {
+            InstantaneaBinariaCanciones.escribir(rutaBinaria, lista, rutaCanciones);
+        } catch (IOException e) {
+            System.err.println("⚠️ No se pudo escribir la instantánea binaria de canciones: " + e.getMessage());
+        }
+    }
+
+    private static long tamanio(Path ruta) {
+        try {
+            return Files.exists(ruta) ? Files.size(ruta) : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public Map<String, Long> estadisticas() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("bytesBitacora", bytesRegistro);
+        }
+        stats.put("compactaciones", compactaciones.get());
+        return stats;
+    }
+
+    // 🛑 Cierra la bitácora al apagar la aplicación
+    @Override
+    public void cerrar() {
+        canal.cerrar();
+        compactador.shutdown();
+        try {
+            compactador.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            cerrado = true;
+            try {
+                if (registro != null) registro.close();
+            } catch (IOException e) {
+                System.err.println("❌ Error al cerrar bitácora de canciones: " + e.getMessage());
+            }
+            canalRegistro = null;
+            registro = null;
+        }
+    }
+}
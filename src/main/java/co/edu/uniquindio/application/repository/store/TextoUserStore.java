@@ -0,0 +1,120 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.Usuario;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Motor de texto (comportamiento original): usuarios.txt reescrito completo.
+ * Formato de línea: username;password;nombre;ROL;id1,id2,id3
+ *
+ * Las escrituras usan "group commit": cada mutación encola la misma reescritura en un
+ * {@link CanalPersistencia} con ventana de agrupación, y el escritor la ejecuta una sola vez
+ * por lote para todas las mutaciones que alcanzaron a juntarse.
+ *
+ * La reescritura va a usuarios.txt.tmp, se fuerza a disco y se publica con renombrado
+ * atómico: un corte a mitad de escritura deja el archivo anterior intacto.
+ */
+public class TextoUserStore implements UserStore {
+
+    private final Path rutaUsuarios;
+
+    // Usuarios vigentes (referencias compartidas con el repositorio) para reescribir el archivo
+    private final Map<String, Usuario> usuarios = new ConcurrentHashMap<>();
+
+    // 💾 Volcado agrupado de usuarios.txt: siempre la misma instancia para que el canal la agrupe
+    private final Runnable volcado = this::guardarUsuariosEnArchivo;
+    private final CanalPersistencia canal;
+
+    public TextoUserStore(Path rutaUsuarios, PipelinePersistencia pipeline, long ventanaMs, int maxCambios) {
+        this.rutaUsuarios = rutaUsuarios;
+        this.canal = pipeline.canal("usuarios", pipeline.getPolitica(), ventanaMs, maxCambios, null);
+    }
+
+    /**
+     * 🔹 Cargar usuarios desde usuarios.txt (en paralelo, ver {@link CargadorParalelo}).
+     * Los favoritos se resuelven contra el catálogo ya cargado en la misma pasada.
+     */
+    @Override
+    public void cargar(Function<String, Cancion> resolverCancion, Consumer<Usuario> destino) {
+        try {
+            CargadorParalelo.Resultado r = CargadorParalelo.cargar(rutaUsuarios,
+                    () -> (texto, desde, hasta) -> FormatoRegistros.parsearUsuario(
+                            texto.subSequence(desde, hasta).toString(), resolverCancion),
+                    u -> {
+                        usuarios.put(u.getUsername(), u);
+                        destino.accept(u);
+                    });
+            if (r.descartadas() > 0) {
+                System.err.println("⚠️ Se descartaron " + r.descartadas() + " líneas mal formadas de " + rutaUsuarios);
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Error al cargar usuarios: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> guardar(Usuario usuario) {
+        usuarios.put(usuario.getUsername(), usuario);
+        return canal.enviar(volcado);
+    }
+
+    @Override
+    public CompletableFuture<Void> eliminar(String username) {
+        if (usuarios.remove(username) == null) return CompletableFuture.completedFuture(null);
+        return canal.enviar(volcado);
+    }
+
+    @Override
+    public CompletableFuture<Void> sincronizar() {
+        return canal.sincronizar();
+    }
+
+    // El error se relanza: hace fallar los futuros de todas las mutaciones del lote
+    private void guardarUsuariosEnArchivo() {
+        Path temporal = rutaUsuarios.resolveSibling(rutaUsuarios.getFileName() + ".tmp");
+        try {
+            try (FileChannel canalTemporal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                BufferedWriter bw = new BufferedWriter(Channels.newWriter(canalTemporal, StandardCharsets.UTF_8));
+                for (Usuario u : usuarios.values()) {
+                    // escribimos: username;password;nombre;ROL;id1,id2,...
+                    // si no hay favoritos escribimos campo vacío al final
+                    bw.write(FormatoRegistros.formatearUsuario(u));
+                    bw.newLine();
+                }
+                bw.flush();
+                canalTemporal.force(true);
+            }
+            try {
+                Files.move(temporal, rutaUsuarios, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, rutaUsuarios, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al guardar usuarios", e);
+        }
+    }
+
+    // 📊 Contadores del group commit: "agrupadas" son reescrituras ahorradas
+    @Override
+    public Map<String, Long> estadisticas() {
+        return canal.estadisticas();
+    }
+
+    // 🛑 Flush al apagar la aplicación
+    @Override
+    public void cerrar() {
+        canal.cerrar();
+    }
+}
@@ -0,0 +1,42 @@
+package co.edu.uniquindio.application.repository.store;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.Usuario;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * SPI de persistencia de usuarios (perfil, rol y favoritos). {@code UsuarioRepository}
+ * mantiene los usuarios en memoria y delega aquí la durabilidad.
+ * Igual que en {@link CatalogStore}, las escrituras son asíncronas y devuelven un futuro.
+ */
+public interface UserStore {
+
+    /**
+     * Entrega al destino cada usuario persistido (se llama una vez, al arrancar).
+     * @param resolverCancion traduce los ids de favoritos a canciones del catálogo ya cargado
+     */
+    void cargar(Function<String, Cancion> resolverCancion, Consumer<Usuario> destino);
+
+    /** Persiste un alta o cualquier cambio del usuario (incluidos sus favoritos). */
+    CompletableFuture<Void> guardar(Usuario usuario);
+
+    /** Persiste una eliminación. */
+    CompletableFuture<Void> eliminar(String username);
+
+    /** Se completa cuando todas las escrituras solicitadas hasta ahora quedaron aplicadas. */
+    default CompletableFuture<Void> sincronizar() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /** Contadores propios del motor (para /api/metricas/persistencia). */
+    default Map<String, Long> estadisticas() {
+        return Map.of();
+    }
+
+    /** Vuelca lo pendiente y libera archivos e hilos; se invoca al apagar la aplicación. */
+    default void cerrar() {}
+}
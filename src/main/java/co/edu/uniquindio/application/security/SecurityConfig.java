@@ -45,9 +45,14 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET,
                                 "/api/canciones", "/api/canciones/*",
                                 "/api/canciones/buscar", "/api/canciones/buscar/**",
-                                "/api/canciones/*/similares", "/api/canciones/*/radio"
+                                "/api/canciones/*/similares", "/api/canciones/*/radio",
+                                "/api/canciones/radio/*", "/api/canciones/autocompletar/ids", "/api/canciones/autocompletar/sugerencias"
                         ).permitAll()
 
+                        // ✅ Sesiones de radio (crear y terminar) sin token, igual que la radio simple
+                        .requestMatchers(HttpMethod.POST, "/api/canciones/*/radio").permitAll()
+                        .requestMatchers(HttpMethod.DELETE, "/api/canciones/radio/*").permitAll()
+
                         // ✅ Favoritos: permitir GET/POST/DELETE con rol USER o ADMIN
                         .requestMatchers(HttpMethod.GET,    "/api/usuarios/*/favoritos").hasAnyRole("USER","ADMIN")
                         .requestMatchers(HttpMethod.POST,   "/api/usuarios/*/favoritos/agregar").hasAnyRole("USER","ADMIN")
@@ -1,9 +1,12 @@
 package co.edu.uniquindio.application.service;
 
 import co.edu.uniquindio.application.model.Cancion;
-import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import co.edu.uniquindio.application.model.MotorSimilitud;
 import co.edu.uniquindio.application.repository.CancionRepository;
-import co.edu.uniquindio.application.trie.TrieAutocompletado;
+import co.edu.uniquindio.application.repository.UsuarioRepository;
+import co.edu.uniquindio.application.trie.IndiceAutocompletado;
+import co.edu.uniquindio.application.trie.IndiceAutocompletado.Sugerencia;
+import co.edu.uniquindio.application.utils.ParserCancion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,41 +17,151 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
 
 @Service
 public class CancionService {
 
     private final CancionRepository cancionRepository;
 
-    // ✅ Soporte para autocompletado con Trie
-    private final TrieAutocompletado trieAutocompletado;
+    // ✅ Motor de similitud vacío con la configuración elegida (ver SimilitudConfig); nunca se publica
+    private final MotorSimilitud motorBase;
 
-    // ✅ Grafo de similitud entre canciones
-    private final GrafoDeSimilitud grafoDeSimilitud;
+    /*
+     * 📸 Instantáneas publicadas del grafo de similitud y del índice de autocompletado (Tries).
+     * Los lectores toman la referencia actual sin candados; los escritores construyen o
+     * modifican una copia aparte y la publican con un cambio atómico de referencia, así que
+     * una consulta nunca ve un grafo a medio reconstruir ni un Trie modificándose.
+     */
+    private final AtomicReference<Versionado<MotorSimilitud>> similitud = new AtomicReference<>();
+    private final AtomicReference<Versionado<IndiceAutocompletado>> autocompletado = new AtomicReference<>();
+
+    // Los escritores se serializan entre sí para no perder cambios entre copia y publicación
+    private final Object escritura = new Object();
+
+    // Una carga masiva de al menos 1/8 del catálogo reconstruye el grafo en vez de agregar una a una
+    private static final int FRACCION_RECONSTRUCCION = 8;
+
+    // ⭐ Favoritos por canción (id): ordena las sugerencias del autocompletado
+    private final ToIntFunction<String> popularidad;
+
+    public CancionService(CancionRepository cancionRepository, MotorSimilitud motorSimilitud) {
+        this(cancionRepository, motorSimilitud, id -> 0);
+    }
 
     @Autowired
-    public CancionService(CancionRepository cancionRepository) {
+    public CancionService(CancionRepository cancionRepository, MotorSimilitud motorSimilitud,
+                          UsuarioRepository usuarioRepository) {
+        this(cancionRepository, motorSimilitud, usuarioRepository::popularidad);
+    }
+
+    private CancionService(CancionRepository cancionRepository, MotorSimilitud motorSimilitud,
+                           ToIntFunction<String> popularidad) {
         this.cancionRepository = cancionRepository;
-        this.trieAutocompletado = new TrieAutocompletado();
-        this.grafoDeSimilitud = new GrafoDeSimilitud();
-        inicializarTrie();             // carga inicial de títulos
+        this.motorBase = motorSimilitud;
+        this.popularidad = popularidad;
+        inicializarTrie();             // carga inicial de títulos, artistas y géneros
         construirGrafoDeSimilitud();   // construye el grafo desde las canciones actuales
     }
 
-    // ✅ Carga inicial de títulos en el Trie
+    // ✅ Índice nuevo con las canciones actuales, publicado de una vez
     private void inicializarTrie() {
-        // Nota: TrieAutocompletado no implementa 'limpiar()' en tu versión actual,
-        // por eso no intentamos llamar a un método inexistente. Insertar duplicados
-        // generalmente no rompe la búsqueda por prefijos; si quieres evitar duplicados
-        // preferimos hacerlo dentro del propio Trie (recomendado).
-        for (Cancion c : cancionRepository.listarCanciones()) {
-            trieAutocompletado.insertarPalabra(c.getTitulo());
+        synchronized (escritura) {
+            IndiceAutocompletado nuevo = new IndiceAutocompletado();
+            for (Cancion c : cancionRepository.listarCanciones()) {
+                nuevo.insertar(c, popularidad.applyAsInt(c.getId()));
+            }
+            publicar(autocompletado, nuevo);
+        }
+    }
+
+    /*
+     * 🔤 Cambio de una canción sobre el índice publicado: la versión nueva solo copia las
+     * rutas de sus claves (O(largo de sus campos)), sin reconstruir el resto.
+     */
+    private void modificarAutocompletado(UnaryOperator<IndiceAutocompletado> cambio) {
+        synchronized (escritura) {
+            IndiceAutocompletado actual = autocompletado.get().valor();
+            IndiceAutocompletado nuevo = cambio.apply(actual);
+            if (nuevo != actual) publicar(autocompletado, nuevo);
+        }
+    }
+
+    private IndiceAutocompletado conCancion(IndiceAutocompletado indice, Cancion cancion) {
+        return indice.conCancion(cancion, popularidad.applyAsInt(cancion.getId()));
+    }
+
+    // Título, artista o género cambiaron: hay que mover la canción en el índice
+    private static boolean cambiaAutocompletado(Cancion anterior, Cancion nueva) {
+        for (IndiceAutocompletado.Tipo tipo : IndiceAutocompletado.Tipo.values()) {
+            if (!Objects.equals(tipo.valor(anterior), tipo.valor(nueva))) return true;
+        }
+        return false;
+    }
+
+    /*
+     * ⭐ Cambió la cantidad de favoritos de una canción. Se lee el valor actual (no un
+     * delta), así que repetirlo es inofensivo.
+     */
+    public void actualizarPopularidad(String idCancion) {
+        synchronized (escritura) {
+            Cancion cancion = cancionRepository.buscarPorId(idCancion);
+            if (cancion == null) return;
+            modificarAutocompletado(i -> i.conPopularidad(cancion, popularidad.applyAsInt(idCancion)));
         }
     }
 
+    // 🔁 Copia del motor publicado → cambio → publicación (incrementales: O(cambio), no reconstrucción)
+    private void modificarSimilitud(Consumer<MotorSimilitud> cambio) {
+        synchronized (escritura) {
+            MotorSimilitud copia = similitud.get().valor().copiar();
+            cambio.accept(copia);
+            publicar(similitud, copia);
+        }
+    }
+
+    private static <T> void publicar(AtomicReference<Versionado<T>> referencia, T nuevo) {
+        Versionado<T> actual = referencia.get();
+        referencia.set(new Versionado<>(actual == null ? 1 : actual.version() + 1, nuevo));
+    }
+
     // ✅ Método de autocompletado
     public List<String> autocompletarTitulo(String prefijo) {
-        return trieAutocompletado.buscarPorPrefijo(prefijo);
+        return consultarAutocompletado(prefijo).valor();
+    }
+
+    // 🔖 Sugerencias junto con la versión del Trie que las produjo
+    public Versionado<List<String>> consultarAutocompletado(String prefijo) {
+        Versionado<IndiceAutocompletado> indice = autocompletado.get();
+        return indice.con(indice.valor().titulos().buscarPorPrefijo(prefijo));
+    }
+
+    // 🏆 Las 'limite' sugerencias más populares (favoritos) para el prefijo
+    public Versionado<List<String>> consultarAutocompletado(String prefijo, int limite) {
+        Versionado<IndiceAutocompletado> indice = autocompletado.get();
+        return indice.con(indice.valor().titulos().buscarPorPrefijo(prefijo, limite));
+    }
+
+    // 🔤 Sugerencias tolerantes a errores de tipeo (hasta 'maxDistancia' letras cambiadas, sobrantes o faltantes)
+    public Versionado<List<String>> consultarAutocompletadoAproximado(String prefijo, int maxDistancia, int limite) {
+        Versionado<IndiceAutocompletado> indice = autocompletado.get();
+        return indice.con(indice.valor().titulos().buscarAproximado(prefijo, maxDistancia, limite).sugerencias());
+    }
+
+    // 🆔 Ids de las canciones sugeridas, sin buscar después por título
+    public Versionado<List<String>> consultarAutocompletadoIds(String prefijo, int limite) {
+        Versionado<IndiceAutocompletado> indice = autocompletado.get();
+        return indice.con(indice.valor().titulos().buscarIdsPorPrefijo(prefijo, limite));
+    }
+
+    // 🏷️ Sugerencias tipadas (canción, artista, género) por cualquier palabra, con sus ids
+    public Versionado<List<Sugerencia>> consultarSugerencias(String consulta, int limite) {
+        Versionado<IndiceAutocompletado> indice = autocompletado.get();
+        return indice.con(indice.valor().sugerir(consulta, limite, cancionRepository::buscarPorId));
     }
 
     public Collection<Cancion> listarCanciones() {
@@ -60,31 +173,41 @@ public class CancionService {
     }
 
     public void agregarCancion(Cancion cancion) {
-        cancionRepository.agregarCancion(cancion);
-        trieAutocompletado.insertarPalabra(cancion.getTitulo());
-        construirGrafoDeSimilitud(); // reconstruye el grafo al agregar
+        synchronized (escritura) {
+            cancionRepository.agregarCancion(cancion);
+            modificarAutocompletado(i -> conCancion(i, cancion));
+            modificarSimilitud(m -> m.agregarCancion(cancion)); // solo las aristas de la nueva canción
+        }
     }
 
     public boolean actualizarCancion(Cancion cancion) {
-        boolean actualizado = cancionRepository.actualizarCancion(cancion);
-
-        // Si se actualiza el título, refrescar el Trie y el grafo
-        if (actualizado) {
-            inicializarTrie();
-            construirGrafoDeSimilitud();
+        synchronized (escritura) {
+            Cancion anterior = cancionRepository.buscarPorId(cancion.getId());
+            boolean actualizado = cancionRepository.actualizarCancion(cancion).valor();
+
+            // Si cambia un campo indexado, se mueve su id en el índice; en el grafo se recalcula solo esta canción
+            if (actualizado) {
+                if (anterior != null && cambiaAutocompletado(anterior, cancion)) {
+                    modificarAutocompletado(i -> conCancion(i.sinCancion(anterior), cancion));
+                }
+                modificarSimilitud(m -> m.actualizarCancion(cancion));
+            }
+            return actualizado;
         }
-        return actualizado;
     }
 
     public boolean eliminarCancion(String id) {
-        boolean eliminado = cancionRepository.eliminarCancion(id);
-
-        // Si se elimina, refrescar el Trie y el grafo
-        if (eliminado) {
-            inicializarTrie();
-            construirGrafoDeSimilitud();
+        synchronized (escritura) {
+            Cancion existente = cancionRepository.buscarPorId(id);
+            boolean eliminado = cancionRepository.eliminarCancion(id).valor();
+
+            // Si se elimina, quitar su id del índice y sus aristas del grafo
+            if (eliminado && existente != null) {
+                modificarAutocompletado(i -> i.sinCancion(existente));
+                modificarSimilitud(m -> m.eliminarCancion(existente));
+            }
+            return eliminado;
         }
-        return eliminado;
     }
 
     // Búsqueda básica por título o género
@@ -108,56 +231,44 @@ public class CancionService {
         try (BufferedReader br = new BufferedReader(
                 new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8))) {
 
+            // Mismo parser que la carga de canciones.txt; aquí 6 columnas = id;titulo;artista;genero;anio;fileName
+            ParserCancion parser = new ParserCancion(true);
+            List<Cancion> nuevas = new ArrayList<>();
             String linea;
             while ((linea = br.readLine()) != null) {
                 if (linea.isBlank() || linea.trim().startsWith("#")) continue;
 
-                String[] partes = linea.split(";");
-                for (int i = 0; i < partes.length; i++) partes[i] = partes[i].trim();
-
-                if (partes.length != 6 && partes.length != 7) {
+                Cancion nueva = parser.parsear(linea);
+                if (nueva == null) {
                     // formato inválido -> saltar fila
                     continue;
                 }
+                nuevas.add(nueva);
+                contador++;
+            }
 
-                String id      = partes[0];
-                String titulo  = partes[1];
-                String artista = partes[2];
-                String genero  = partes[3];
-                int anio       = Integer.parseInt(partes[4]);
-
-                Double duracion = null;
-                String fileName;
-
-                if (partes.length == 7) {
-                    // id;titulo;artista;genero;anio;duracion;fileName
-                    String durRaw = partes[5].replace(',', '.');
-                    duracion = Double.valueOf(durRaw);
-                    fileName = partes[6];
+            // Una sola copia del grafo y una sola publicación del índice para todo el archivo
+            synchronized (escritura) {
+                for (Cancion nueva : nuevas) {
+                    cancionRepository.agregarCancion(nueva);
+                }
+                modificarAutocompletado(i -> {
+                    for (Cancion nueva : nuevas) i = conCancion(i, nueva);
+                    return i;
+                });
+                /*
+                 * Grafo: cada alta incremental puntúa contra las n canciones, así que k altas cuestan
+                 * O(k·n). Si el lote es una fracción apreciable del catálogo sale más barato
+                 * reconstruir la copia (por bloques y en paralelo); si es chico, se agregan una a una.
+                 */
+                Collection<Cancion> catalogo = cancionRepository.listarCanciones();
+                if ((long) nuevas.size() * FRACCION_RECONSTRUCCION >= catalogo.size()) {
+                    modificarSimilitud(m -> m.construirGrafo(catalogo));
                 } else {
-                    // 6 columnas → asumimos que es fileName
-                    // id;titulo;artista;genero;anio;fileName
-                    fileName = partes[5];
+                    modificarSimilitud(m -> nuevas.forEach(m::agregarCancion));
                 }
-
-                // Crea la entidad y asigna el fileName
-                Cancion nueva = new Cancion(id, titulo, artista, genero, anio,
-                        duracion != null ? duracion : 0.0);
-                // Asegúrate de que tu entidad tenga setter; si no, agrega un constructor con fileName
-                nueva.setFileName(fileName);
-
-                // Persistir
-                cancionRepository.agregarCancion(nueva);
-
-                // Autocompletar (puedes incluir artista si quieres)
-                trieAutocompletado.insertarPalabra(titulo);
-
-                contador++;
             }
 
-            // reconstruimos el grafo después de la carga masiva
-            construirGrafoDeSimilitud();
-
             // Si tu repositorio necesita reescribir canciones.txt explícitamente, llama aquí:
             // cancionRepository.reconstruirArchivoCanciones();
 
@@ -169,29 +280,49 @@ public class CancionService {
     }
 
 
-    // Construcción y consulta del grafo de similitud
+    // Construcción y consulta del grafo de similitud: se reconstruye aparte y se publica al terminar
     public void construirGrafoDeSimilitud() {
-        grafoDeSimilitud.construirGrafo(cancionRepository.listarCanciones());
+        synchronized (escritura) {
+            MotorSimilitud nuevo = motorBase.copiar();
+            nuevo.construirGrafo(cancionRepository.listarCanciones());
+            publicar(similitud, nuevo);
+        }
+    }
+
+    // 📸 Instantánea vigente del motor (solo lectura: no se debe modificar)
+    public Versionado<MotorSimilitud> instantaneaSimilitud() {
+        return similitud.get();
     }
 
     public List<Cancion> obtenerCancionesSimilares(String idCancion, int limite) {
+        return consultarSimilares(idCancion, limite).valor();
+    }
+
+    // 🔖 Similares junto con la versión del grafo que los produjo
+    public Versionado<List<Cancion>> consultarSimilares(String idCancion, int limite) {
+        Versionado<MotorSimilitud> grafo = similitud.get();
         Cancion origen = cancionRepository.buscarPorId(idCancion);
-        if (origen == null) return List.of();
-        return grafoDeSimilitud.obtenerSimilares(origen, limite);
+        if (origen == null) return grafo.con(List.of());
+        return grafo.con(grafo.valor().obtenerSimilares(origen, limite));
     }
 
     public List<Cancion> iniciarRadio(String idCancion, int limite) {
+        return consultarRadio(idCancion, limite).valor();
+    }
+
+    public Versionado<List<Cancion>> consultarRadio(String idCancion, int limite) {
+        Versionado<MotorSimilitud> grafo = similitud.get();
         Cancion origen = cancionRepository.buscarPorId(idCancion);
-        if (origen == null) return List.of();
+        if (origen == null) return grafo.con(List.of());
 
-        List<Cancion> similares = grafoDeSimilitud.obtenerSimilares(origen, limite);
+        List<Cancion> similares = grafo.valor().obtenerSimilares(origen, limite);
 
         // Insertar la canción original al inicio de la "cola"
         List<Cancion> cola = new ArrayList<>();
         cola.add(origen);
         cola.addAll(similares);
 
-        return cola;
+        return grafo.con(cola);
     }
 
 }
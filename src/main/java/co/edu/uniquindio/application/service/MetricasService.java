@@ -1,6 +1,12 @@
 package co.edu.uniquindio.application.service;
 
 import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.CancionRepository;
+import co.edu.uniquindio.application.repository.UsuarioRepository;
+import co.edu.uniquindio.application.repository.store.CanalPersistencia;
+import co.edu.uniquindio.application.repository.store.PipelinePersistencia;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
@@ -10,6 +16,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
@@ -23,7 +30,22 @@ public class MetricasService {
 
     private final ReentrantLock lock = new ReentrantLock();
 
-    public MetricasService() {
+    private final UsuarioRepository usuarioRepository;
+    private final CancionRepository cancionRepository;
+    private final PipelinePersistencia pipelinePersistencia;
+
+    // 📨 Los eventos se anexan desde el hilo escritor; el archivo queda abierto entre lotes
+    private final CanalPersistencia canalEventos;
+    private BufferedWriter salidaEventos;
+
+    public MetricasService(UsuarioRepository usuarioRepository, CancionRepository cancionRepository,
+                           PipelinePersistencia pipelinePersistencia,
+                           @Value("${syncup.persistencia.metricas.politica:descartar}") String politicaEventos) {
+        this.usuarioRepository = usuarioRepository;
+        this.cancionRepository = cancionRepository;
+        this.pipelinePersistencia = pipelinePersistencia;
+        this.canalEventos = pipelinePersistencia.canal("metricas",
+                CanalPersistencia.PoliticaSaturacion.desde(politicaEventos), 0, 1024, this::vaciarEventos);
         try {
             Files.createDirectories(Paths.get(METRICAS_DIR));
             if (!Files.exists(Paths.get(METRICAS_MASTER))) {
@@ -41,14 +63,36 @@ public class MetricasService {
        REGISTRO DE EVENTOS
        ========================= */
 
-    /** Registra una línea en metricas.csv */
-    public void registrarEvento(String username, String accion, String detalle) {
+    /**
+     * Registra una línea en metricas.csv. La escritura es asíncrona: el futuro se completa
+     * cuando la línea llegó al archivo (o falla si la cola estaba llena y se descartó).
+     */
+    public CompletableFuture<Void> registrarEvento(String username, String accion, String detalle) {
+        String ts = LocalDateTime.now().format(TS_FMT);
+        String linea = escape(ts) + "," + escape(username) + "," + escape(accion) + "," + escape(detalle) + "\n";
+        return canalEventos.enviar(() -> escribirEvento(linea));
+    }
+
+    // Hilo escritor: anexa sin vaciar; el flush se hace una vez por lote
+    private void escribirEvento(String linea) {
         lock.lock();
-        try (BufferedWriter bw = Files.newBufferedWriter(Paths.get(METRICAS_MASTER),
-                StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
-            String ts = LocalDateTime.now().format(TS_FMT);
-            bw.write(escape(ts) + "," + escape(username) + "," + escape(accion) + "," + escape(detalle));
-            bw.write("\n");
+        try {
+            if (salidaEventos == null) {
+                salidaEventos = Files.newBufferedWriter(Paths.get(METRICAS_MASTER),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            salidaEventos.write(linea);
+        } catch (IOException e) {
+            throw new RuntimeException("Error escribiendo métricas", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void vaciarEventos() {
+        lock.lock();
+        try {
+            if (salidaEventos != null) salidaEventos.flush();
         } catch (IOException e) {
             throw new RuntimeException("Error escribiendo métricas", e);
         } finally {
@@ -56,11 +100,44 @@ public class MetricasService {
         }
     }
 
+    // 🛑 Drena los eventos pendientes y cierra metricas.csv
+    @PreDestroy
+    public void cerrar() {
+        canalEventos.cerrar();
+        lock.lock();
+        try {
+            if (salidaEventos != null) salidaEventos.close();
+            salidaEventos = null;
+        } catch (IOException e) {
+            System.err.println("❌ Error al cerrar métricas: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /** Conveniencia específica para exportación de favoritos */
     public void registrarExportFavoritos(String username, int cantidadFavoritos) {
         registrarEvento(username, "EXPORT_FAVORITOS", "count=" + cantidadFavoritos);
     }
 
+    /* =========================
+       PERSISTENCIA
+       ========================= */
+
+    /** Contadores de los motores de persistencia y de cada canal de escritura (cola y latencias). */
+    public Map<String, Object> estadisticasPersistencia() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("canciones", cancionRepository.estadisticasPersistencia());
+        stats.put("usuarios", usuarioRepository.estadisticasPersistencia());
+        stats.put("canales", pipelinePersistencia.estadisticas());
+        return stats;
+    }
+
+    /** Ejecutor de búsquedas: tareas encoladas y activas, cancelaciones, plazos vencidos y latencia. */
+    public Map<String, Long> estadisticasBusqueda() {
+        return cancionRepository.estadisticasBusqueda();
+    }
+
     /* =========================
        LECTURAS / AGREGACIONES
        ========================= */
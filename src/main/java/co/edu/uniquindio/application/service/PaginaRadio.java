@@ -0,0 +1,8 @@
+package co.edu.uniquindio.application.service;
+
+import co.edu.uniquindio.application.model.Cancion;
+
+import java.util.List;
+
+/** Página de una sesión de radio: el cliente pide la siguiente con el id de sesión. */
+public record PaginaRadio(String sesion, long version, List<Cancion> canciones) {}
@@ -0,0 +1,105 @@
+package co.edu.uniquindio.application.service;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.MotorSimilitud;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📻 Sesiones de radio sobre el motor de similitud.
+ *
+ * {@link #iniciar} crea una sesión y devuelve la primera página (semilla + caminata);
+ * {@link #siguiente} continúa la caminata aleatoria ponderada sin repetir las canciones de
+ * la ventana reciente. Las sesiones inactivas más de {@code syncup.radio.inactividad-min}
+ * minutos se descartan en segundo plano.
+ */
+@Service
+public class RadioService {
+
+    private final CancionService cancionService;
+    private final int tamanioVentana;
+    private final int paginaMaxima;
+    private final long inactividadMs;
+
+    private final Map<String, SesionRadio> sesiones = new ConcurrentHashMap<>();
+    private final Random semillas = new Random();
+
+    private final ScheduledExecutorService limpiador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "limpiador-radio");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public RadioService(CancionService cancionService,
+                        @Value("${syncup.radio.ventana:50}") int tamanioVentana,
+                        @Value("${syncup.radio.pagina-max:50}") int paginaMaxima,
+                        @Value("${syncup.radio.inactividad-min:30}") long inactividadMin) {
+        this.cancionService = cancionService;
+        this.tamanioVentana = Math.max(1, tamanioVentana);
+        this.paginaMaxima = Math.max(1, paginaMaxima);
+        this.inactividadMs = TimeUnit.MINUTES.toMillis(Math.max(1, inactividadMin));
+        long periodo = Math.max(1, inactividadMin / 2);
+        limpiador.scheduleAtFixedRate(() -> expirarInactivas(System.currentTimeMillis()),
+                periodo, periodo, TimeUnit.MINUTES);
+    }
+
+    // ▶️ Nueva sesión desde una canción; null si la canción no existe
+    public PaginaRadio iniciar(String idCancion, int tamanio) {
+        Cancion semilla = cancionService.buscarPorId(idCancion);
+        if (semilla == null) return null;
+
+        Versionado<MotorSimilitud> motor = cancionService.instantaneaSimilitud();
+        // En catálogos pequeños la ventana no puede cubrir casi todo o la caminata se queda sin salida
+        int ventana = Math.min(tamanioVentana, Math.max(1, motor.valor().cantidadCanciones() / 2));
+        SesionRadio sesion = new SesionRadio(UUID.randomUUID().toString(), semilla, ventana,
+                new Random(semillas.nextLong()), System.currentTimeMillis());
+        sesiones.put(sesion.getId(), sesion);
+
+        List<Cancion> pagina = sesion.primeraPagina(motor, acotar(tamanio), System.currentTimeMillis());
+        return new PaginaRadio(sesion.getId(), motor.version(), pagina);
+    }
+
+    // ⏭️ Siguiente página; null si la sesión no existe o expiró
+    public PaginaRadio siguiente(String idSesion, int tamanio) {
+        SesionRadio sesion = sesiones.get(idSesion);
+        if (sesion == null) return null;
+
+        Versionado<MotorSimilitud> motor = cancionService.instantaneaSimilitud();
+        List<Cancion> pagina = sesion.siguientePagina(motor, acotar(tamanio), System.currentTimeMillis());
+        return new PaginaRadio(idSesion, motor.version(), pagina);
+    }
+
+    public boolean terminar(String idSesion) {
+        return sesiones.remove(idSesion) != null;
+    }
+
+    // 🧹 Descarta las sesiones sin uso desde antes de ahora - inactividad; devuelve cuántas
+    public int expirarInactivas(long ahora) {
+        int antes = sesiones.size();
+        sesiones.values().removeIf(s -> ahora - s.getUltimoAcceso() > inactividadMs);
+        return antes - sesiones.size();
+    }
+
+    public int sesionesActivas() {
+        return sesiones.size();
+    }
+
+    private int acotar(int tamanio) {
+        return Math.max(1, Math.min(paginaMaxima, tamanio));
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        limpiador.shutdownNow();
+    }
+}
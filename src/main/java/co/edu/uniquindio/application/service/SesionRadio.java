@@ -0,0 +1,136 @@
+package co.edu.uniquindio.application.service;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.MotorSimilitud;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estado de una sesión de radio: canción semilla, posición actual de la caminata y
+ * ventana de no repetición (las últimas canciones sonadas).
+ *
+ * La ventana es un anillo de canciones más un {@link BitSet} indexado por el índice interno
+ * del motor, así que "¿sonó hace poco?" es un bit. Si el motor publicado cambia, el bitset
+ * se recalcula desde el anillo (O(ventana)); cada página cuesta O(tamaño de página).
+ */
+class SesionRadio {
+
+    // Intentos por paso antes de volver a la semilla (vecinos recientes o sin vecinos)
+    private static final int INTENTOS_POR_PASO = 8;
+
+    private final String id;
+    private final Cancion semilla;
+    private final Random azar;
+
+    private final Cancion[] ventana;
+    private final int[] indicesVentana;
+    private int inicioVentana;
+    private int tamVentana;
+    private final BitSet recientes = new BitSet();
+
+    private Cancion actual;
+    private int indiceActual = -1;
+    private long versionMotor = -1;
+    private volatile long ultimoAcceso;
+
+    SesionRadio(String id, Cancion semilla, int tamanioVentana, Random azar, long ahora) {
+        this.id = id;
+        this.semilla = semilla;
+        this.azar = azar;
+        this.ventana = new Cancion[Math.max(1, tamanioVentana)];
+        this.indicesVentana = new int[ventana.length];
+        this.ultimoAcceso = ahora;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    long getUltimoAcceso() {
+        return ultimoAcceso;
+    }
+
+    // ▶️ Primera página: la semilla y luego la caminata
+    synchronized List<Cancion> primeraPagina(Versionado<MotorSimilitud> motor, int tamanio, long ahora) {
+        sincronizar(motor);
+        List<Cancion> pagina = new ArrayList<>(tamanio);
+        int idxSemilla = motor.valor().indiceDe(semilla);
+        pagina.add(semilla);
+        recordar(semilla, idxSemilla);
+        actual = semilla;
+        indiceActual = idxSemilla;
+        caminar(motor.valor(), tamanio - 1, pagina);
+        ultimoAcceso = ahora;
+        return pagina;
+    }
+
+    synchronized List<Cancion> siguientePagina(Versionado<MotorSimilitud> motor, int tamanio, long ahora) {
+        sincronizar(motor);
+        List<Cancion> pagina = new ArrayList<>(tamanio);
+        caminar(motor.valor(), tamanio, pagina);
+        ultimoAcceso = ahora;
+        return pagina;
+    }
+
+    /*
+     * Paso ponderado desde la canción actual; si solo encuentra canciones recientes (o la
+     * actual ya no existe) reintenta desde la semilla. Si tampoco hay salida la página
+     * termina antes (catálogo muy pequeño o semilla eliminada).
+     */
+    private void caminar(MotorSimilitud motor, int pasos, List<Cancion> pagina) {
+        int idxSemilla = motor.indiceDe(semilla);
+        for (int paso = 0; paso < pasos; paso++) {
+            int siguiente = elegirNoReciente(motor, indiceActual);
+            if (siguiente < 0 && indiceActual != idxSemilla) siguiente = elegirNoReciente(motor, idxSemilla);
+            if (siguiente < 0) return;
+
+            Cancion cancion = motor.cancionEn(siguiente);
+            pagina.add(cancion);
+            recordar(cancion, siguiente);
+            actual = cancion;
+            indiceActual = siguiente;
+        }
+    }
+
+    private int elegirNoReciente(MotorSimilitud motor, int desde) {
+        if (desde < 0) return -1;
+        for (int intento = 0; intento < INTENTOS_POR_PASO; intento++) {
+            int candidato = motor.vecinoAleatorio(desde, azar);
+            if (candidato < 0) return -1;
+            if (!recientes.get(candidato)) return candidato;
+        }
+        return -1;
+    }
+
+    // Anillo de la ventana: al llenarse, la más vieja sale y libera su bit
+    private void recordar(Cancion cancion, int indice) {
+        if (tamVentana == ventana.length) {
+            // Los índices en la ventana son únicos (solo entran canciones no recientes)
+            if (indicesVentana[inicioVentana] >= 0) recientes.clear(indicesVentana[inicioVentana]);
+            ventana[inicioVentana] = null;
+            inicioVentana = (inicioVentana + 1) % ventana.length;
+            tamVentana--;
+        }
+        int pos = (inicioVentana + tamVentana) % ventana.length;
+        ventana[pos] = cancion;
+        indicesVentana[pos] = indice;
+        tamVentana++;
+        if (indice >= 0) recientes.set(indice);
+    }
+
+    // Motor nuevo: los índices pueden haber cambiado, se recalculan bits y posición
+    private void sincronizar(Versionado<MotorSimilitud> motor) {
+        if (motor.version() == versionMotor) return;
+        versionMotor = motor.version();
+        recientes.clear();
+        for (int k = 0; k < tamVentana; k++) {
+            int pos = (inicioVentana + k) % ventana.length;
+            indicesVentana[pos] = motor.valor().indiceDe(ventana[pos]);
+            if (indicesVentana[pos] >= 0) recientes.set(indicesVentana[pos]);
+        }
+        indiceActual = actual == null ? -1 : motor.valor().indiceDe(actual);
+    }
+}
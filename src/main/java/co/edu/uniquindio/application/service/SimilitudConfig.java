@@ -0,0 +1,32 @@
+package co.edu.uniquindio.application.service;
+
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import co.edu.uniquindio.application.model.IndiceSimilitudAproximado;
+import co.edu.uniquindio.application.model.MotorSimilitud;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selección del motor de similitud ({@code syncup.similitud.motor}):
+ * <ul>
+ *   <li>{@code exacto}: {@link GrafoDeSimilitud}, todas las aristas con peso positivo (por defecto)</li>
+ *   <li>{@code hnsw}: {@link IndiceSimilitudAproximado}, vecinos aproximados para catálogos muy grandes</li>
+ * </ul>
+ */
+@Configuration
+public class SimilitudConfig {
+
+    @Bean
+    public MotorSimilitud motorSimilitud(@Value("${syncup.similitud.motor:exacto}") String motor,
+                                         @Value("${syncup.similitud.paralelismo:0}") int paralelismo,
+                                         @Value("${syncup.similitud.hnsw.m:16}") int m,
+                                         @Value("${syncup.similitud.hnsw.ef-construccion:100}") int efConstruccion,
+                                         @Value("${syncup.similitud.hnsw.ef-busqueda:64}") int efBusqueda) {
+        return switch (motor.trim().toLowerCase()) {
+            case "exacto" -> new GrafoDeSimilitud(paralelismo);
+            case "hnsw" -> new IndiceSimilitudAproximado(m, efConstruccion, efBusqueda);
+            default -> throw new IllegalArgumentException("Motor de similitud desconocido: " + motor);
+        };
+    }
+}
@@ -2,14 +2,18 @@ package co.edu.uniquindio.application.service;
 
 import co.edu.uniquindio.application.model.Cancion;
 import co.edu.uniquindio.application.model.GrafoSocial;
+import co.edu.uniquindio.application.model.PageRankPersonalizado;
 import co.edu.uniquindio.application.model.Rol;
 import co.edu.uniquindio.application.model.Usuario;
 import co.edu.uniquindio.application.repository.CancionRepository;
 import co.edu.uniquindio.application.repository.UsuarioRepository;
+import co.edu.uniquindio.application.repository.store.CanalPersistencia;
+import co.edu.uniquindio.application.repository.store.PipelinePersistencia;
 import co.edu.uniquindio.application.security.JwtUtil;
 import co.edu.uniquindio.application.utils.CsvUtils;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -36,6 +40,10 @@ public class UsuarioService {
     private final GrafoSocial grafoSocial = new GrafoSocial();
     private static final String RUTA_GRAFO = "src/main/resources/data/grafo_social.txt";
 
+    // 💾 Deltas del grafo anexados fuera del hilo de la petición (misma instancia para agruparlos)
+    private final Runnable volcadoGrafo = () -> grafoSocial.guardarCambiosEnArchivo(RUTA_GRAFO);
+    private CanalPersistencia canalGrafo;
+
     // === NUEVO: rutas para reportes y métricas ===
     private static final String RUTA_REPORTES = "src/main/resources/data/reportes";
     private static final String RUTA_METRICAS = "src/main/resources/data/metricas";
@@ -53,6 +61,23 @@ public class UsuarioService {
     @Autowired
     private MetricasService metricasService;
 
+    @Autowired
+    private PipelinePersistencia pipelinePersistencia;
+
+    // 🧭 Descubrimiento por PageRank personalizado: reinicio, precisión y tope de empujes
+    @Value("${syncup.descubrimiento.pagerank.alfa:0.15}")
+    private double alfaPageRank = 0.15;
+
+    @Value("${syncup.descubrimiento.pagerank.epsilon:0.0001}")
+    private double epsilonPageRank = 1e-4;
+
+    @Value("${syncup.descubrimiento.pagerank.max-empujes:200000}")
+    private int maxEmpujesPageRank = 200_000;
+
+    // Tope del tamaño de la playlist pedido por el cliente
+    @Value("${syncup.descubrimiento.tamanio-max:100}")
+    private int tamanioMaxDescubrimiento = 100;
+
     @Autowired
     public UsuarioService(UsuarioRepository usuarioRepository,
                           CancionRepository cancionRepository,
@@ -68,6 +93,12 @@ public class UsuarioService {
     @PostConstruct
     public void inicializarGrafo() {
         grafoSocial.cargarRelacionesDesdeArchivo(RUTA_GRAFO);
+        canalGrafo = pipelinePersistencia.canal("grafo_social", null);
+    }
+
+    // 💾 Encola la escritura de los deltas pendientes del grafo (grafo_social.log)
+    private void persistirGrafo() {
+        canalGrafo.enviar(volcadoGrafo);
     }
 
     @PostConstruct
@@ -91,7 +122,7 @@ public class UsuarioService {
 
         // ➕ También lo agregamos al grafo y persistimos
         grafoSocial.agregarUsuario(username);
-        grafoSocial.guardarRelacionesEnArchivo(RUTA_GRAFO);
+        persistirGrafo();
 
         return true;
     }
@@ -138,7 +169,8 @@ public class UsuarioService {
         if (usuario == null) return "❌ Usuario no encontrado";
         if (cancion == null) return "❌ Canción no encontrada";
 
-        boolean agregado = usuarioRepository.agregarFavorito(username, cancion);
+        boolean agregado = usuarioRepository.agregarFavorito(username, cancion).valor();
+        if (agregado) cancionService.actualizarPopularidad(idCancion);
         return agregado ? "✅ Canción agregada a favoritos" : "⚠️ Ya estaba en favoritos";
     }
 
@@ -146,7 +178,8 @@ public class UsuarioService {
         Usuario usuario = usuarioRepository.buscarPorUsername(username);
         if (usuario == null) return "❌ Usuario no encontrado";
 
-        boolean eliminado = usuarioRepository.eliminarFavorito(username, idCancion);
+        boolean eliminado = usuarioRepository.eliminarFavorito(username, idCancion).valor();
+        if (eliminado) cancionService.actualizarPopularidad(idCancion);
         return eliminado ? "🗑️ Canción eliminada de favoritos" : "⚠️ No estaba en favoritos";
     }
 
@@ -175,14 +208,17 @@ public class UsuarioService {
         }
 
         // El repositorio devuelve Usuario; úsalo como boolean comparando con null
-        Usuario eliminado = usuarioRepository.eliminarUsuario(username);
+        Usuario eliminado = usuarioRepository.eliminarUsuario(username).valor();
         boolean ok = (eliminado != null);
 
         if (ok) {
+            // Sus favoritos dejan de contar en la popularidad del autocompletado
+            eliminado.getListaFavoritos().forEach(c -> cancionService.actualizarPopularidad(c.getId()));
+
             // Mantener consistencia del grafo social
             try {
                 grafoSocial.eliminarUsuario(username); // asegúrate de tener este método; si no, bórralo de sus listas
-                grafoSocial.guardarRelacionesEnArchivo(RUTA_GRAFO);
+                persistirGrafo();
             } catch (Exception e) {
                 System.err.println("⚠️ No se pudo sincronizar el grafo social tras eliminar usuario: " + e.getMessage());
             }
@@ -220,6 +256,16 @@ public class UsuarioService {
 
     // 🎧 Playlist de descubrimiento semanal (RF-005)
     public List<Cancion> generarPlaylistDescubrimiento(String username, int size) {
+        return generarPlaylistDescubrimiento(username, size, "vecinos");
+    }
+
+    /**
+     * modo "vecinos": suma por posición los 10 similares directos de cada favorito.
+     * modo "pagerank": PageRank personalizado desde todos los favoritos a la vez; llega a
+     * canciones a varios saltos y su costo no crece con la cantidad de favoritos.
+     */
+    public List<Cancion> generarPlaylistDescubrimiento(String username, int size, String modo) {
+        size = Math.max(0, Math.min(tamanioMaxDescubrimiento, size));
         Usuario usuario = usuarioRepository.buscarPorUsername(username);
         if (usuario == null) return Collections.emptyList();
 
@@ -230,6 +276,12 @@ public class UsuarioService {
                     .collect(Collectors.toList());
         }
 
+        if ("pagerank".equalsIgnoreCase(modo)) {
+            List<Cancion> recomendadas = new PageRankPersonalizado(alfaPageRank, epsilonPageRank, maxEmpujesPageRank)
+                    .recomendar(cancionService.instantaneaSimilitud().valor(), favoritos, size);
+            if (!recomendadas.isEmpty()) return recomendadas;
+        }
+
         Map<String, Double> scoreMap = new HashMap<>();
         int kPorFavorito = 10;
 
@@ -281,7 +333,7 @@ public class UsuarioService {
 
         if (exito) {
             // Guardar las relaciones actualizadas en el archivo del grafo
-            grafoSocial.guardarRelacionesEnArchivo(RUTA_GRAFO);
+            persistirGrafo();
             return "✅ Ahora sigues a " + destino;
         } else {
             return "⚠️ Ya estás siguiendo a " + destino; // O un mensaje adecuado si no se agregó la relación
@@ -307,7 +359,7 @@ public class UsuarioService {
 
         if (exito) {
             // Guardar las relaciones actualizadas en el archivo del grafo
-            grafoSocial.guardarRelacionesEnArchivo(RUTA_GRAFO);
+            persistirGrafo();
             return "✅ Has dejado de seguir a " + destino;
         } else {
             return "⚠️ No seguías a " + destino; // O un mensaje adecuado si no se eliminó la relación
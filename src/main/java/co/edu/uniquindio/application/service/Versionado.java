@@ -0,0 +1,13 @@
+package co.edu.uniquindio.application.service;
+
+/**
+ * Valor acompañado de la versión de la instantánea de la que salió.
+ * La versión crece cada vez que se publica una estructura nueva (grafo o Trie), así que
+ * dos respuestas con la misma versión se calcularon sobre exactamente el mismo estado.
+ */
+public record Versionado<T>(long version, T valor) {
+
+    public <R> Versionado<R> con(R otroValor) {
+        return new Versionado<>(version, otroValor);
+    }
+}
@@ -0,0 +1,172 @@
+package co.edu.uniquindio.application.trie;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.DiccionarioCatalogo;
+import co.edu.uniquindio.application.trie.TrieNode.Completado;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Índice de autocompletado del catálogo: el Trie de títulos completos más un Trie por campo
+ * (título, artista, género) que encuentra las palabras en cualquier posición, así que
+ * "tranqui" sugiere "Parche Tranqui" y "bles" sugiere al artista "Blessd".
+ *
+ * Cada valor se normaliza (minúsculas, sin tildes, palabras separadas por un espacio) y se
+ * indexa una clave por palabra: el resto del valor desde esa palabra, un separador y el
+ * valor completo. Las claves apuntan a los ids de las canciones (sus postings), con la
+ * popularidad sumada de esas canciones.
+ *
+ * Como los Tries, se construye en el lugar y luego solo cambia por versiones persistentes
+ * (con / sin canción) que se pueden publicar sin afectar a quien lee la anterior.
+ */
+public class IndiceAutocompletado {
+
+    public enum Tipo {
+        CANCION(Cancion::getTitulo),
+        ARTISTA(Cancion::getArtista),
+        GENERO(Cancion::getGenero);
+
+        private final Function<Cancion, String> campo;
+
+        Tipo(Function<Cancion, String> campo) {
+            this.campo = campo;
+        }
+
+        public String valor(Cancion cancion) {
+            return campo.apply(cancion);
+        }
+    }
+
+    /** Sugerencia tipada: el texto del campo tal como está en el catálogo y sus canciones. */
+    public record Sugerencia(Tipo tipo, String texto, List<String> idsCanciones) {}
+
+    // Separa la clave buscable del valor completo (nunca aparece en un valor normalizado)
+    private static final char SEPARADOR = '\u0001';
+
+    private final TrieAutocompletado titulos;
+    private final EnumMap<Tipo, TrieAutocompletado> palabras;
+
+    public IndiceAutocompletado() {
+        this(new TrieAutocompletado(), new EnumMap<>(Tipo.class));
+        for (Tipo tipo : Tipo.values()) palabras.put(tipo, new TrieAutocompletado());
+    }
+
+    private IndiceAutocompletado(TrieAutocompletado titulos, EnumMap<Tipo, TrieAutocompletado> palabras) {
+        this.titulos = titulos;
+        this.palabras = palabras;
+    }
+
+    // 🔤 Trie de títulos completos (prefijo exacto, aproximado, ids por título)
+    public TrieAutocompletado titulos() {
+        return titulos;
+    }
+
+    // ✅ Agrega la canción modificando este índice: solo para uno que todavía no se publicó
+    public void insertar(Cancion cancion, int popularidad) {
+        if (cancion.getTitulo() != null) titulos.insertar(cancion.getTitulo(), cancion.getId(), popularidad);
+        for (Tipo tipo : Tipo.values()) {
+            TrieAutocompletado trie = palabras.get(tipo);
+            for (String clave : claves(tipo.valor(cancion))) trie.insertar(clave, cancion.getId(), popularidad);
+        }
+    }
+
+    /*
+     * 🔁 Versiones persistentes: índice nuevo que comparte con este todo lo que no cambia.
+     * Cuestan O(largo de los campos de la canción · K).
+     */
+
+    public IndiceAutocompletado conCancion(Cancion cancion, int popularidad) {
+        return aplicar(cancion,
+                (trie, clave) -> trie.conCancion(clave, cancion.getId(), popularidad));
+    }
+
+    public IndiceAutocompletado sinCancion(Cancion cancion) {
+        return aplicar(cancion,
+                (trie, clave) -> trie.sinCancion(clave, cancion.getId()));
+    }
+
+    public IndiceAutocompletado conPopularidad(Cancion cancion, int popularidad) {
+        return aplicar(cancion,
+                (trie, clave) -> trie.conPopularidad(clave, cancion.getId(), popularidad));
+    }
+
+    private IndiceAutocompletado aplicar(Cancion cancion,
+                                         BiFunction<TrieAutocompletado, String, TrieAutocompletado> cambio) {
+        TrieAutocompletado nuevosTitulos = cancion.getTitulo() == null
+                ? titulos : cambio.apply(titulos, cancion.getTitulo());
+        boolean hubo = nuevosTitulos != titulos;
+        EnumMap<Tipo, TrieAutocompletado> nuevasPalabras = new EnumMap<>(palabras);
+        for (Tipo tipo : Tipo.values()) {
+            TrieAutocompletado trie = nuevasPalabras.get(tipo);
+            for (String clave : claves(tipo.valor(cancion))) trie = cambio.apply(trie, clave);
+            nuevasPalabras.put(tipo, trie);
+            hubo |= trie != palabras.get(tipo);
+        }
+        // Sin cambios (p. ej. misma popularidad): el mismo índice, para no publicar otra versión
+        return hubo ? new IndiceAutocompletado(nuevosTitulos, nuevasPalabras) : this;
+    }
+
+    /**
+     * 🏷️ Hasta {@code limite} sugerencias por tipo (canciones, luego artistas, luego géneros),
+     * cada tipo de más a menos popular. La consulta puede tener varias palabras y la última
+     * puede estar incompleta. {@code canciones} resuelve un id al texto original del campo.
+     */
+    public List<Sugerencia> sugerir(String consulta, int limite, Function<String, Cancion> canciones) {
+        String buscada = String.join(" ", DiccionarioCatalogo.palabras(consulta));
+        if (buscada.isEmpty() || limite <= 0) return List.of();
+
+        List<Sugerencia> sugerencias = new ArrayList<>();
+        for (Tipo tipo : Tipo.values()) {
+            TrieAutocompletado trie = palabras.get(tipo);
+            Completado[] candidatos = trie.ranking(buscada, limite);
+            List<Sugerencia> deTipo = sugerenciasDeTipo(tipo, candidatos, limite, canciones);
+            // El top-K guardado se agotó en repetidos o eliminadas: el subárbol completo tiene más
+            if (deTipo.size() < limite && candidatos.length == trie.mejoresPorNodo()) {
+                deTipo = sugerenciasDeTipo(tipo, trie.ranking(buscada, trie.mejoresPorNodo() + 1), limite, canciones);
+            }
+            sugerencias.addAll(deTipo);
+        }
+        return sugerencias;
+    }
+
+    private static List<Sugerencia> sugerenciasDeTipo(Tipo tipo, Completado[] candidatos, int limite,
+                                                      Function<String, Cancion> canciones) {
+        List<Sugerencia> sugerencias = new ArrayList<>();
+        // Un valor con dos palabras que empiezan igual aparece por dos claves: se cuenta una vez
+        Set<String> vistos = new HashSet<>();
+        for (Completado c : candidatos) {
+            if (sugerencias.size() == limite) break;
+            String valor = c.palabra().substring(c.palabra().indexOf(SEPARADOR) + 1);
+            if (!vistos.add(valor)) continue;
+
+            String texto = null;
+            List<String> ids = new ArrayList<>(c.ids().length);
+            for (String id : c.ids()) {
+                Cancion cancion = canciones.apply(id);
+                if (cancion == null) continue; // eliminada después de publicar este índice
+                if (texto == null) texto = tipo.valor(cancion);
+                ids.add(id);
+            }
+            if (texto == null) continue;
+            sugerencias.add(new Sugerencia(tipo, texto, ids));
+        }
+        return sugerencias;
+    }
+
+    // 🔑 Una clave por palabra: "parche tranqui␁parche tranqui", "tranqui␁parche tranqui"
+    static List<String> claves(String valor) {
+        if (valor == null) return List.of();
+        List<String> palabras = DiccionarioCatalogo.palabras(valor);
+        if (palabras.isEmpty()) return List.of();
+        String completo = String.join(" ", palabras);
+        List<String> claves = new ArrayList<>(palabras.size());
+        int desde = 0;
+        for (String palabra : palabras) {
+            claves.add(completo.substring(desde) + SEPARADOR + completo);
+            desde += palabra.length() + 1;
+        }
+        return claves;
+    }
+}
@@ -1,46 +1,394 @@
 package co.edu.uniquindio.application.trie;
 
+import co.edu.uniquindio.application.trie.TrieNode.Completado;
+
+import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Trie compacto (radix) de títulos para autocompletar. Cada nodo guarda sus K
+ * completaciones más populares (popularidad = favoritos de las canciones con ese título),
+ * así que una consulta con límite ≤ K cuesta O(largo del prefijo + K) sin recorrer el subárbol.
+ */
 public class TrieAutocompletado {
 
-    private final TrieNode raiz = new TrieNode();
+    public static final int MEJORES_POR_NODO = 10;
+
+    // Tope de errores de la búsqueda aproximada: con más, casi cualquier prefijo coincide
+    public static final int MAX_DISTANCIA = 2;
+
+    private final TrieNode raiz;
+    private final int k;
+
+    public TrieAutocompletado() {
+        this(MEJORES_POR_NODO);
+    }
+
+    public TrieAutocompletado(int mejoresPorNodo) {
+        this(new TrieNode(), Math.max(1, mejoresPorNodo));
+    }
+
+    private TrieAutocompletado(TrieNode raiz, int k) {
+        this.raiz = raiz;
+        this.k = k;
+    }
 
-    // ✅ Inserta una palabra en el Trie
+    // ✅ Inserta una palabra en el Trie (cada inserción es una referencia: ver eliminarPalabra)
     public void insertarPalabra(String palabra) {
+        insertar(palabra, null, 0);
+    }
+
+    // 🗑️ Quita una referencia agregada por insertarPalabra
+    public boolean eliminarPalabra(String palabra) {
+        return eliminar(palabra, null);
+    }
+
+    /**
+     * ✅ Agrega la canción al título (o actualiza su popularidad si ya estaba) y el top-K de
+     * la ruta. Modifica este Trie: solo para uno que todavía no se publicó.
+     */
+    public void insertar(String titulo, String idCancion, int popularidad) {
+        String palabra = titulo.toLowerCase();
+        agregar(bajar(raiz, palabra, false, true), palabra, idCancion, popularidad);
+    }
+
+    // 🗑️ Quita la canción del título; si nadie más lo usa, el título desaparece. O(largo del título)
+    public boolean eliminar(String titulo, String idCancion) {
+        List<TrieNode> ruta = bajar(raiz, titulo.toLowerCase(), false, false);
+        if (ruta == null || !ruta.get(ruta.size() - 1).quitarReferencia(idCancion)) return false;
+        podar(ruta);
+        return true;
+    }
+
+    /*
+     * 🔁 Versiones persistentes: devuelven un Trie nuevo y este no cambia. Solo se copian los
+     * nodos de la ruta del título (O(largo·K)); el resto se comparte con el original, así que
+     * sirven para modificar un Trie ya publicado. Si no hay cambio devuelven este mismo.
+     */
+
+    public TrieAutocompletado conCancion(String titulo, String idCancion, int popularidad) {
+        String palabra = titulo.toLowerCase();
+        TrieNode nuevaRaiz = raiz.copiar();
+        agregar(bajar(nuevaRaiz, palabra, true, true), palabra, idCancion, popularidad);
+        return new TrieAutocompletado(nuevaRaiz, k);
+    }
+
+    public TrieAutocompletado sinCancion(String titulo, String idCancion) {
+        TrieNode nuevaRaiz = raiz.copiar();
+        List<TrieNode> ruta = bajar(nuevaRaiz, titulo.toLowerCase(), true, false);
+        if (ruta == null || !ruta.get(ruta.size() - 1).quitarReferencia(idCancion)) return this;
+        podar(ruta);
+        return new TrieAutocompletado(nuevaRaiz, k);
+    }
+
+    public TrieAutocompletado conPopularidad(String titulo, String idCancion, int popularidad) {
+        TrieNode nuevaRaiz = raiz.copiar();
+        List<TrieNode> ruta = bajar(nuevaRaiz, titulo.toLowerCase(), true, false);
+        if (ruta == null) return this;
+        TrieNode nodo = ruta.get(ruta.size() - 1);
+        if (!nodo.esFinDePalabra() || nodo.posicion(idCancion) < 0) return this;
+
+        int anterior = nodo.propio.popularidad();
+        nodo.fijarPopularidad(idCancion, popularidad);
+        if (nodo.propio.popularidad() == anterior) return this;
+        refrescarRuta(ruta, nodo.propio.popularidad() > anterior);
+        return new TrieAutocompletado(nuevaRaiz, k);
+    }
+
+    private void agregar(List<TrieNode> ruta, String palabra, String idCancion, int popularidad) {
+        TrieNode nodo = ruta.get(ruta.size() - 1);
+        boolean nueva = !nodo.esFinDePalabra();
+        int anterior = nueva ? 0 : nodo.propio.popularidad();
+        nodo.agregarReferencia(palabra, idCancion, popularidad);
+        refrescarRuta(ruta, nueva || nodo.propio.popularidad() >= anterior);
+    }
+
+    /*
+     * ✂️ Tras quitar una referencia, de la hoja a la raíz: un nodo sin palabra ni hijos se
+     * elimina, uno sin palabra con un solo hijo se une con él (el Trie sigue compacto) y el
+     * resto recalcula su top-K.
+     */
+    private void podar(List<TrieNode> ruta) {
+        for (int i = ruta.size() - 1; i > 0; i--) {
+            TrieNode nodo = ruta.get(i);
+            TrieNode padre = ruta.get(i - 1);
+            if (!nodo.esFinDePalabra() && nodo.hijos.length == 0) {
+                padre.quitarHijo(nodo);
+            } else if (!nodo.esFinDePalabra() && nodo.hijos.length == 1) {
+                padre.reemplazarHijo(nodo.fusionarConHijo());
+            } else {
+                nodo.recalcular(k);
+            }
+        }
+        ruta.get(0).recalcular(k);
+    }
+
+    /*
+     * 🧭 Nodos de la raíz hasta el que termina exactamente en 'palabra'.
+     * copiar: cada nodo de la ruta se reemplaza por una copia (la raíz ya debe serlo).
+     * crear: agrega la hoja o parte una arista si hace falta; si no, null cuando no está.
+     */
+    private static List<TrieNode> bajar(TrieNode raiz, String palabra, boolean copiar, boolean crear) {
+        List<TrieNode> ruta = new ArrayList<>();
+        ruta.add(raiz);
         TrieNode nodo = raiz;
-        for (char c : palabra.toLowerCase().toCharArray()) {
-            nodo = nodo.hijos.computeIfAbsent(c, k -> new TrieNode());
+        int i = 0;
+        while (i < palabra.length()) {
+            int pos = nodo.buscarHijo(palabra.charAt(i));
+            if (pos < 0) {
+                if (!crear) return null;
+                TrieNode hoja = new TrieNode(palabra, i, palabra.length());
+                nodo.agregarHijo(-pos - 1, hoja);
+                ruta.add(hoja);
+                return ruta;
+            }
+
+            TrieNode hijo = nodo.hijos[pos];
+            if (copiar) {
+                hijo = hijo.copiar();
+                nodo.hijos[pos] = hijo;
+            }
+            int comun = 1;
+            int largo = hijo.largoEtiqueta();
+            while (comun < largo && i + comun < palabra.length()
+                    && hijo.caracterEtiqueta(comun) == palabra.charAt(i + comun)) {
+                comun++;
+            }
+
+            if (comun < largo) {
+                if (!crear) return null;
+                // ✂️ Partir la arista: nodo → intermedio(tramo común) → hijo(resto)
+                TrieNode intermedio = new TrieNode(hijo.fuente, hijo.desde, hijo.desde + comun);
+                hijo.desde += comun;
+                intermedio.claves = new char[]{hijo.caracterEtiqueta(0)};
+                intermedio.hijos = new TrieNode[]{hijo};
+                intermedio.mejores = hijo.mejores;
+                nodo.hijos[pos] = intermedio;
+                hijo = intermedio;
+            }
+            ruta.add(hijo);
+            nodo = hijo;
+            i += comun;
+        }
+        return ruta;
+    }
+
+    // De la hoja a la raíz: cada top-K depende del de sus hijos
+    private void refrescarRuta(List<TrieNode> ruta, boolean subio) {
+        Completado completado = ruta.get(ruta.size() - 1).propio;
+        for (int i = ruta.size() - 1; i >= 0; i--) {
+            if (subio) ruta.get(i).promover(completado, k);
+            else ruta.get(i).recalcular(k);
         }
-        nodo.esFinDePalabra = true;
     }
 
     // ✅ Devuelve todas las palabras que empiecen por un prefijo
     public List<String> buscarPorPrefijo(String prefijo) {
         List<String> resultados = new ArrayList<>();
-        TrieNode nodo = raiz;
+        TrieNode nodo = buscarNodo(prefijo.toLowerCase());
+        if (nodo == null) {
+            return resultados; // Prefijo no encontrado
+        }
+        buscarRecursivo(nodo, resultados);
+        return resultados;
+    }
 
-        for (char c : prefijo.toLowerCase().toCharArray()) {
-            nodo = nodo.hijos.get(c);
-            if (nodo == null) {
-                return resultados; // Prefijo no encontrado
-            }
+    // 🏆 Las 'limite' completaciones más populares del prefijo
+    public List<String> buscarPorPrefijo(String prefijo, int limite) {
+        Completado[] mejores = ranking(prefijo, limite);
+        List<String> resultados = new ArrayList<>(Math.min(limite, mejores.length));
+        for (int i = 0; i < mejores.length && i < limite; i++) {
+            resultados.add(mejores[i].palabra());
         }
-        buscarRecursivo(nodo, new StringBuilder(prefijo.toLowerCase()), resultados);
         return resultados;
     }
 
-    // 🔍 Recorre el Trie para recolectar palabras
-    private void buscarRecursivo(TrieNode nodo, StringBuilder prefijo, List<String> resultados) {
-        if (nodo.esFinDePalabra) {
-            resultados.add(prefijo.toString());
+    // 🆔 Ids de hasta 'limite' canciones cuyos títulos son las completaciones más populares
+    public List<String> buscarIdsPorPrefijo(String prefijo, int limite) {
+        List<String> ids = new ArrayList<>(Math.max(0, Math.min(limite, k)));
+        for (Completado c : ranking(prefijo, limite)) {
+            for (String id : c.ids()) {
+                if (ids.size() == limite) return ids;
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    // K: cuántas completaciones guarda cada nodo (ranking con un límite mayor recorre el subárbol)
+    int mejoresPorNodo() {
+        return k;
+    }
+
+    // Top-K guardado en el nodo del prefijo, o el subárbol completo ordenado si se pide más
+    Completado[] ranking(String prefijo, int limite) {
+        TrieNode nodo = buscarNodo(prefijo.toLowerCase());
+        if (nodo == null || limite <= 0) return TrieNode.SIN_COMPLETADOS;
+        if (limite <= k) return nodo.mejores;
+
+        List<Completado> todos = new ArrayList<>();
+        recolectar(nodo, todos);
+        Completado[] mejores = todos.toArray(TrieNode.SIN_COMPLETADOS);
+        Arrays.sort(mejores, TrieNode.ORDEN);
+        return mejores;
+    }
+
+    /** Sugerencias de la búsqueda aproximada y cuántos nodos del Trie recorrió. */
+    public record Aproximado(List<String> sugerencias, int nodosVisitados) {}
+
+    /**
+     * 🔤 Autocompletado tolerante a errores: títulos con algún prefijo a distancia de
+     * Levenshtein ≤ {@code maxDistancia} de la consulta (sin distinguir tildes), ordenados por
+     * distancia y luego por popularidad.
+     *
+     * Recorre el Trie calculando una fila de la matriz de distancias por carácter. Una rama se
+     * poda cuando toda la fila supera el máximo; cuando ningún prefijo más largo puede mejorar
+     * la distancia ya alcanzada, el subárbol entero coincide y se toma su top-K guardado.
+     */
+    public Aproximado buscarAproximado(String consulta, int maxDistancia, int limite) {
+        if (limite <= 0) return new Aproximado(List.of(), 0);
+        BusquedaAproximada busqueda = new BusquedaAproximada(plegar(consulta.toLowerCase()),
+                Math.max(0, Math.min(MAX_DISTANCIA, maxDistancia)), limite);
+        busqueda.visitar(raiz, 0, busqueda.fila(0), busqueda.fila(0)[busqueda.consulta.length]);
+
+        busqueda.coincidencias.sort(Comparator.comparingInt(Coincidencia::distancia)
+                .thenComparing(Coincidencia::completado, TrieNode.ORDEN));
+        List<String> sugerencias = new ArrayList<>(Math.min(limite, busqueda.coincidencias.size()));
+        for (int i = 0; i < busqueda.coincidencias.size() && i < limite; i++) {
+            sugerencias.add(busqueda.coincidencias.get(i).completado().palabra());
+        }
+        return new Aproximado(sugerencias, busqueda.nodosVisitados);
+    }
+
+    private record Coincidencia(int distancia, Completado completado) {}
+
+    private final class BusquedaAproximada {
+        final char[] consulta;
+        final int maxDistancia;
+        final int limite;
+        final List<Coincidencia> coincidencias = new ArrayList<>();
+        int nodosVisitados;
+
+        // Una fila por profundidad (en caracteres), reutilizadas entre ramas
+        private int[][] filas = new int[32][];
+
+        BusquedaAproximada(char[] consulta, int maxDistancia, int limite) {
+            this.consulta = consulta;
+            this.maxDistancia = maxDistancia;
+            this.limite = limite;
+            int[] inicial = fila(0);
+            for (int j = 0; j <= consulta.length; j++) inicial[j] = j;
+        }
+
+        int[] fila(int profundidad) {
+            if (profundidad >= filas.length) filas = Arrays.copyOf(filas, profundidad * 2);
+            if (filas[profundidad] == null) filas[profundidad] = new int[consulta.length + 1];
+            return filas[profundidad];
+        }
+
+        /*
+         * 'fila' es la del último carácter de la etiqueta de 'nodo' y 'distancia' la mejor
+         * distancia de un prefijo ya recorrido a la consulta completa.
+         */
+        void visitar(TrieNode nodo, int profundidad, int[] fila, int distancia) {
+            nodosVisitados++;
+            if (nodo.esFinDePalabra() && distancia <= maxDistancia) {
+                coincidencias.add(new Coincidencia(distancia, nodo.propio));
+            }
+            for (TrieNode hijo : nodo.hijos) {
+                bajarPorArista(hijo, profundidad, fila, distancia);
+            }
+        }
+
+        private void bajarPorArista(TrieNode hijo, int profundidad, int[] anterior, int distancia) {
+            int m = consulta.length;
+            for (int i = 0; i < hijo.largoEtiqueta(); i++) {
+                char c = plegar(hijo.caracterEtiqueta(i));
+                int[] fila = fila(profundidad + i + 1);
+                fila[0] = anterior[0] + 1;
+                int minimo = fila[0];
+                for (int j = 1; j <= m; j++) {
+                    int sustitucion = anterior[j - 1] + (consulta[j - 1] == c ? 0 : 1);
+                    fila[j] = Math.min(sustitucion, Math.min(anterior[j], fila[j - 1]) + 1);
+                    minimo = Math.min(minimo, fila[j]);
+                }
+                distancia = Math.min(distancia, fila[m]);
+
+                if (distancia <= maxDistancia && minimo >= distancia) {
+                    // Ningún prefijo más largo baja de 'distancia': todo el subárbol coincide
+                    nodosVisitados++;
+                    agregarSubarbol(hijo, distancia);
+                    return;
+                }
+                if (minimo > maxDistancia) return; // ✂️ poda
+                anterior = fila;
+            }
+            visitar(hijo, profundidad + hijo.largoEtiqueta(), anterior, distancia);
+        }
+
+        private void agregarSubarbol(TrieNode nodo, int distancia) {
+            Completado[] mejores = nodo.mejores;
+            if (limite > k) {
+                List<Completado> todos = new ArrayList<>();
+                recolectar(nodo, todos);
+                mejores = todos.toArray(TrieNode.SIN_COMPLETADOS);
+            }
+            for (Completado c : mejores) coincidencias.add(new Coincidencia(distancia, c));
+        }
+    }
+
+    // 🔡 Sin tildes para comparar: 'é' y 'e' no cuentan como error
+    private static final char[] PLEGADOS = new char[0x250];
+
+    static {
+        for (char c = 0; c < PLEGADOS.length; c++) {
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            PLEGADOS[c] = base.isEmpty() ? c : base.charAt(0);
         }
+    }
 
-        for (var entry : nodo.hijos.entrySet()) {
-            prefijo.append(entry.getKey());
-            buscarRecursivo(entry.getValue(), prefijo, resultados);
-            prefijo.deleteCharAt(prefijo.length() - 1);
+    private static char plegar(char c) {
+        return c < PLEGADOS.length ? PLEGADOS[c] : c;
+    }
+
+    private static char[] plegar(String texto) {
+        char[] plegado = texto.toCharArray();
+        for (int i = 0; i < plegado.length; i++) plegado[i] = plegar(plegado[i]);
+        return plegado;
+    }
+
+    // Primer nodo cuyo camino contiene todo el prefijo (puede terminar a mitad de su arista)
+    private TrieNode buscarNodo(String prefijo) {
+        TrieNode nodo = raiz;
+        int i = 0;
+        while (i < prefijo.length()) {
+            int pos = nodo.buscarHijo(prefijo.charAt(i));
+            if (pos < 0) return null;
+            nodo = nodo.hijos[pos];
+            int largo = nodo.largoEtiqueta();
+            for (int j = 1; j < largo && i + j < prefijo.length(); j++) {
+                if (nodo.caracterEtiqueta(j) != prefijo.charAt(i + j)) return null;
+            }
+            i += largo;
         }
+        return nodo;
+    }
+
+    // 🔍 Recorre el Trie para recolectar palabras (en orden alfabético)
+    private void buscarRecursivo(TrieNode nodo, List<String> resultados) {
+        if (nodo.esFinDePalabra()) {
+            resultados.add(nodo.propio.palabra());
+        }
+        for (TrieNode hijo : nodo.hijos) {
+            buscarRecursivo(hijo, resultados);
+        }
+    }
+
+    private void recolectar(TrieNode nodo, List<Completado> resultados) {
+        if (nodo.esFinDePalabra()) resultados.add(nodo.propio);
+        for (TrieNode hijo : nodo.hijos) recolectar(hijo, resultados);
     }
 }
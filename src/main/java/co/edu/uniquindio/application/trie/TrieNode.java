@@ -1,9 +1,220 @@
 package co.edu.uniquindio.application.trie;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
+/**
+ * Nodo del Trie compacto (radix): cada arista lleva un tramo de texto completo en lugar de
+ * un carácter, así que un título sin prefijos compartidos es un solo nodo.
+ *
+ * La etiqueta no se copia: es el tramo [desde, hasta) de {@code fuente}, un título ya
+ * guardado de ese subárbol. Los hijos van en dos arreglos ordenados por su primer
+ * carácter (búsqueda binaria) en vez de un HashMap con claves Character.
+ */
 public class TrieNode {
-    Map<Character, TrieNode> hijos = new HashMap<>();
-    boolean esFinDePalabra = false;
+    String fuente;
+    int desde;
+    int hasta;
+
+    char[] claves = SIN_CLAVES;
+    TrieNode[] hijos = SIN_HIJOS;
+
+    // Solo en nodos terminales: palabra, popularidad total e ids de sus canciones
+    Completado propio;
+    int[] popularidades;       // paralelo a propio.ids()
+    int sinId;                 // inserciones por insertarPalabra (sin canción asociada)
+
+    // 🏆 Mejores completaciones del subárbol (incluido este nodo). Nunca se modifica un
+    // arreglo ya asignado: se reemplaza, así que nodos y copias pueden compartirlo.
+    Completado[] mejores = SIN_COMPLETADOS;
+
+    // El arreglo de ids nunca se modifica: cada cambio crea un Completado nuevo
+    record Completado(String palabra, int popularidad, String[] ids) {}
+
+    static final Completado[] SIN_COMPLETADOS = new Completado[0];
+    private static final String[] SIN_IDS = new String[0];
+    private static final int[] SIN_POPULARIDADES = new int[0];
+    private static final char[] SIN_CLAVES = new char[0];
+    private static final TrieNode[] SIN_HIJOS = new TrieNode[0];
+
+    // Más popular primero; a igual popularidad, orden alfabético
+    static final Comparator<Completado> ORDEN = Comparator
+            .comparingInt(Completado::popularidad).reversed()
+            .thenComparing(Completado::palabra);
+
+    TrieNode() {
+        this("", 0, 0);
+    }
+
+    TrieNode(String fuente, int desde, int hasta) {
+        this.fuente = fuente;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    boolean esFinDePalabra() {
+        return propio != null;
+    }
+
+    int largoEtiqueta() {
+        return hasta - desde;
+    }
+
+    char caracterEtiqueta(int i) {
+        return fuente.charAt(desde + i);
+    }
+
+    // 📋 Copia superficial para modificar una ruta sin tocar el Trie publicado
+    TrieNode copiar() {
+        TrieNode copia = new TrieNode(fuente, desde, hasta);
+        copia.claves = claves.clone();
+        copia.hijos = hijos.clone();
+        copia.propio = propio;
+        copia.popularidades = popularidades == null ? null : popularidades.clone();
+        copia.sinId = sinId;
+        copia.mejores = mejores;
+        return copia;
+    }
+
+    // 🔎 Posición del hijo cuya etiqueta empieza con c, o (-(inserción) - 1)
+    int buscarHijo(char c) {
+        return Arrays.binarySearch(claves, c);
+    }
+
+    void agregarHijo(int posicionInsercion, TrieNode hijo) {
+        int n = claves.length;
+        char[] nuevasClaves = new char[n + 1];
+        TrieNode[] nuevosHijos = new TrieNode[n + 1];
+        System.arraycopy(claves, 0, nuevasClaves, 0, posicionInsercion);
+        System.arraycopy(hijos, 0, nuevosHijos, 0, posicionInsercion);
+        nuevasClaves[posicionInsercion] = hijo.caracterEtiqueta(0);
+        nuevosHijos[posicionInsercion] = hijo;
+        System.arraycopy(claves, posicionInsercion, nuevasClaves, posicionInsercion + 1, n - posicionInsercion);
+        System.arraycopy(hijos, posicionInsercion, nuevosHijos, posicionInsercion + 1, n - posicionInsercion);
+        claves = nuevasClaves;
+        hijos = nuevosHijos;
+    }
+
+    void quitarHijo(TrieNode hijo) {
+        int pos = buscarHijo(hijo.caracterEtiqueta(0));
+        int n = claves.length;
+        char[] nuevasClaves = new char[n - 1];
+        TrieNode[] nuevosHijos = new TrieNode[n - 1];
+        System.arraycopy(claves, 0, nuevasClaves, 0, pos);
+        System.arraycopy(hijos, 0, nuevosHijos, 0, pos);
+        System.arraycopy(claves, pos + 1, nuevasClaves, pos, n - pos - 1);
+        System.arraycopy(hijos, pos + 1, nuevosHijos, pos, n - pos - 1);
+        claves = nuevasClaves;
+        hijos = nuevosHijos;
+    }
+
+    void reemplazarHijo(TrieNode hijo) {
+        hijos[buscarHijo(hijo.caracterEtiqueta(0))] = hijo;
+    }
+
+    // 🔗 Nodo intermedio sin palabra y con un solo hijo: se une con él en una sola arista
+    TrieNode fusionarConHijo() {
+        TrieNode unido = hijos[0].copiar();
+        // fuente es una palabra completa del subárbol, así que también contiene esta etiqueta
+        unido.desde -= largoEtiqueta();
+        return unido;
+    }
+
+    // Canciones con este título más inserciones sin id; en 0 el nodo deja de ser terminal
+    int referencias() {
+        return propio == null ? 0 : propio.ids().length + sinId;
+    }
+
+    // ➕ Una referencia más a 'palabra': la canción (si no estaba) o una inserción sin id
+    void agregarReferencia(String palabra, String idCancion, int popularidad) {
+        if (propio == null) {
+            propio = new Completado(palabra, 0, SIN_IDS);
+            popularidades = SIN_POPULARIDADES;
+        }
+        if (idCancion == null) sinId++;
+        else fijarPopularidad(idCancion, popularidad);
+    }
+
+    // ➖ Quita una referencia; false si no existía
+    boolean quitarReferencia(String idCancion) {
+        if (propio == null) return false;
+        if (idCancion == null) {
+            if (sinId == 0) return false;
+            sinId--;
+        } else {
+            int i = posicion(idCancion);
+            if (i < 0) return false;
+            String[] ids = propio.ids();
+            String[] nuevosIds = new String[ids.length - 1];
+            int[] nuevasPopularidades = new int[ids.length - 1];
+            System.arraycopy(ids, 0, nuevosIds, 0, i);
+            System.arraycopy(ids, i + 1, nuevosIds, i, ids.length - i - 1);
+            System.arraycopy(popularidades, 0, nuevasPopularidades, 0, i);
+            System.arraycopy(popularidades, i + 1, nuevasPopularidades, i, ids.length - i - 1);
+            propio = new Completado(propio.palabra(), propio.popularidad() - popularidades[i], nuevosIds);
+            popularidades = nuevasPopularidades;
+        }
+        if (referencias() == 0) {
+            propio = null;
+            popularidades = null;
+        }
+        return true;
+    }
+
+    // Fija la popularidad de una canción de este título (agregándola si no estaba); la del nodo es la suma
+    void fijarPopularidad(String idCancion, int valor) {
+        String[] ids = propio.ids();
+        int i = posicion(idCancion);
+        if (i >= 0) {
+            int anterior = popularidades[i];
+            popularidades[i] = valor;
+            propio = new Completado(propio.palabra(), propio.popularidad() + valor - anterior, ids);
+            return;
+        }
+        String[] nuevosIds = Arrays.copyOf(ids, ids.length + 1);
+        nuevosIds[ids.length] = idCancion;
+        popularidades = Arrays.copyOf(popularidades, ids.length + 1);
+        popularidades[ids.length] = valor;
+        propio = new Completado(propio.palabra(), propio.popularidad() + valor, nuevosIds);
+    }
+
+    // Casi siempre hay una sola canción por título: búsqueda lineal
+    int posicion(String idCancion) {
+        String[] ids = propio.ids();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i].equals(idCancion)) return i;
+        }
+        return -1;
+    }
+
+    /*
+     * ⬆️ Una completación subió (o es nueva): el nuevo top-K sale del anterior más ella,
+     * sin mirar a los hijos. O(K).
+     */
+    void promover(Completado completado, int k) {
+        if (compartirConUnicoHijo()) return;
+        List<Completado> lista = new ArrayList<>(mejores.length + 1);
+        for (Completado c : mejores) {
+            if (!c.palabra().equals(completado.palabra())) lista.add(c);
+        }
+        int pos = Collections.binarySearch(lista, completado, ORDEN);
+        lista.add(pos < 0 ? -pos - 1 : pos, completado);
+        mejores = lista.subList(0, Math.min(k, lista.size())).toArray(SIN_COMPLETADOS);
+    }
+
+    // ⬇️ Una completación bajó: el que entra al top-K puede venir de cualquier hijo. O(hijos·K)
+    void recalcular(int k) {
+        if (compartirConUnicoHijo()) return;
+        List<Completado> lista = new ArrayList<>();
+        if (propio != null) lista.add(propio);
+        for (TrieNode hijo : hijos) Collections.addAll(lista, hijo.mejores);
+        lista.sort(ORDEN);
+        mejores = lista.subList(0, Math.min(k, lista.size())).toArray(SIN_COMPLETADOS);
+    }
+
+    // Nodo intermedio de una cadena: su top-K es exactamente el del único hijo
+    private boolean compartirConUnicoHijo() {
+        if (propio != null || hijos.length != 1) return false;
+        mejores = hijos[0].mejores;
+        return true;
+    }
 }
@@ -0,0 +1,227 @@
+package co.edu.uniquindio.application.utils;
+
+import co.edu.uniquindio.application.model.Cancion;
+
+import java.nio.CharBuffer;
+
+/**
+ * Parser de registros de canción en una sola pasada sobre un {@link CharSequence}.
+ * Formatos: {@code id;titulo;artista;genero;anio;duracion[;fileName]}. Un campo de texto
+ * puede llevar {@code \;} (un ';' que no separa) y {@code \\} (una barra invertida); cualquier
+ * otra barra invertida se conserva tal cual (ver {@link #escapar(String)}).
+ *
+ * Recorre la línea una vez, recorta los campos por índices, parsea año y duración
+ * en el sitio (acepta coma o punto como separador decimal) y solo crea Strings para
+ * los campos de texto. No es thread-safe: cada hilo usa su propia instancia.
+ */
+public final class ParserCancion {
+
+    private static final int MAX_CAMPOS = 8;
+    private static final long LIMITE_EXACTO = 1L << 53;
+    private static final double[] POTENCIAS_10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final boolean sextaColumnaEsArchivo;
+
+    // inicio/fin (ya recortados) de cada campo de la línea actual
+    private final int[] inicios = new int[MAX_CAMPOS];
+    private final int[] fines = new int[MAX_CAMPOS];
+    private final boolean[] conEscapes = new boolean[MAX_CAMPOS];
+
+    // resultado del último parseo numérico (evita boxing)
+    private long enteroLeido;
+    private double decimalLeido;
+
+    /** Parser del formato de canciones.txt: 6 columnas = sin fileName. */
+    public ParserCancion() {
+        this(false);
+    }
+
+    /**
+     * @param sextaColumnaEsArchivo formato de carga masiva: con 6 columnas la sexta es el
+     *                              fileName (duración 0) y solo se aceptan 6 o 7 columnas
+     */
+    public ParserCancion(boolean sextaColumnaEsArchivo) {
+        this.sextaColumnaEsArchivo = sextaColumnaEsArchivo;
+    }
+
+    public Cancion parsear(CharSequence linea) {
+        return linea == null ? null : parsear(linea, 0, linea.length());
+    }
+
+    /** Parsea {@code texto[desde, hasta)}; devuelve {@code null} si el registro está mal formado. */
+    public Cancion parsear(CharSequence texto, int desde, int hasta) {
+        int campos = separarCampos(texto, desde, hasta);
+        if (campos < 6) return null;
+        if (sextaColumnaEsArchivo && campos > 7) return null;
+
+        if (!leerEntero(texto, inicios[4], fines[4])) return null;
+        int anio = (int) enteroLeido;
+
+        double duracion = 0.0;
+        String fileName = null;
+        if (sextaColumnaEsArchivo && campos == 6) {
+            fileName = campo(texto, 5);
+        } else {
+            if (!leerDecimal(texto, inicios[5], fines[5])) return null;
+            duracion = decimalLeido;
+            if (campos >= 7) fileName = campo(texto, 6);
+        }
+
+        Cancion c = new Cancion(
+                campo(texto, 0),
+                campo(texto, 1),
+                campo(texto, 2),
+                campo(texto, 3),
+                anio, duracion);
+        if (fileName != null) c.setFileName(fileName);
+        return c;
+    }
+
+    /**
+     * Ubica los campos separados por ';' (salvo los escapados) y los recorta. Igual que
+     * {@code String.split}, los campos vacíos al final de la línea no cuentan.
+     */
+    private int separarCampos(CharSequence texto, int desde, int hasta) {
+        int campos = 0;
+        int inicioCampo = desde;
+        int ultimoNoVacio = 0;
+        boolean escapes = false;
+        for (int i = desde; i <= hasta; i++) {
+            char ch = i == hasta ? ';' : texto.charAt(i);
+            if (ch == '\\' && i + 1 < hasta && esEscapable(texto.charAt(i + 1))) {
+                escapes = true;
+                i++;
+            } else if (ch == ';') {
+                if (campos < MAX_CAMPOS) {
+                    inicios[campos] = inicioCampo;
+                    fines[campos] = i;
+                    conEscapes[campos] = escapes;
+                }
+                campos++;
+                if (i > inicioCampo) ultimoNoVacio = campos;
+                inicioCampo = i + 1;
+                escapes = false;
+            }
+        }
+        int total = Math.min(ultimoNoVacio, MAX_CAMPOS);
+        for (int k = 0; k < total; k++) {
+            int a = inicios[k];
+            int b = fines[k];
+            while (a < b && texto.charAt(a) <= ' ') a++;
+            while (b > a && texto.charAt(b - 1) <= ' ') b--;
+            inicios[k] = a;
+            fines[k] = b;
+        }
+        return ultimoNoVacio;
+    }
+
+    private boolean leerEntero(CharSequence texto, int a, int b) {
+        if (a >= b) return false;
+        boolean negativo = false;
+        char primero = texto.charAt(a);
+        if (primero == '-' || primero == '+') {
+            negativo = primero == '-';
+            if (++a == b) return false;
+        }
+        long valor = 0;
+        for (int i = a; i < b; i++) {
+            char ch = texto.charAt(i);
+            if (ch < '0' || ch > '9') return false;
+            valor = valor * 10 + (ch - '0');
+            if (valor > Integer.MAX_VALUE + 1L) return false;
+        }
+        valor = negativo ? -valor : valor;
+        if (valor > Integer.MAX_VALUE) return false;
+        enteroLeido = valor;
+        return true;
+    }
+
+    private boolean leerDecimal(CharSequence texto, int a, int b) {
+        if (a >= b) return false;
+        int i = a;
+        boolean negativo = false;
+        char primero = texto.charAt(i);
+        if (primero == '-' || primero == '+') {
+            negativo = primero == '-';
+            i++;
+        }
+
+        long mantisa = 0;
+        int decimales = 0;
+        int digitos = 0;
+        boolean separador = false;
+        for (; i < b; i++) {
+            char ch = texto.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                mantisa = mantisa * 10 + (ch - '0');
+                digitos++;
+                if (separador) decimales++;
+                if (mantisa >= LIMITE_EXACTO) return leerDecimalLento(texto, a, b);
+            } else if ((ch == '.' || ch == ',') && !separador) {
+                separador = true;
+            } else {
+                // exponentes, NaN, etc.: caso raro, se delega a Double.parseDouble
+                return leerDecimalLento(texto, a, b);
+            }
+        }
+        if (digitos == 0) return false;
+        if (decimales >= POTENCIAS_10.length) return leerDecimalLento(texto, a, b);
+
+        // mantisa < 2^53 y 10^k <= 10^22 son exactos: la división queda bien redondeada
+        double valor = mantisa / POTENCIAS_10[decimales];
+        decimalLeido = negativo ? -valor : valor;
+        return true;
+    }
+
+    private boolean leerDecimalLento(CharSequence texto, int a, int b) {
+        try {
+            decimalLeido = Double.parseDouble(texto.subSequence(a, b).toString().replace(',', '.'));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** 🔒 Escapa ';' y '\\' para que el valor viaje como un solo campo de texto. */
+    public static String escapar(String valor) {
+        if (valor == null || (valor.indexOf(';') < 0 && valor.indexOf('\\') < 0)) return valor;
+        StringBuilder sb = new StringBuilder(valor.length() + 4);
+        for (int i = 0; i < valor.length(); i++) {
+            char ch = valor.charAt(i);
+            if (esEscapable(ch)) sb.append('\\');
+            sb.append(ch);
+        }
+        return sb.toString();
+    }
+
+    private static boolean esEscapable(char ch) {
+        return ch == ';' || ch == '\\';
+    }
+
+    private String campo(CharSequence texto, int k) {
+        String valor = cadena(texto, inicios[k], fines[k]);
+        return conEscapes[k] ? desescapar(valor) : valor;
+    }
+
+    private static String desescapar(String valor) {
+        StringBuilder sb = new StringBuilder(valor.length());
+        for (int i = 0; i < valor.length(); i++) {
+            char ch = valor.charAt(i);
+            if (ch == '\\' && i + 1 < valor.length() && esEscapable(valor.charAt(i + 1))) ch = valor.charAt(++i);
+            sb.append(ch);
+        }
+        return sb.toString();
+    }
+
+    // Única asignación por campo de texto: se copia directamente del arreglo de origen
+    private static String cadena(CharSequence texto, int a, int b) {
+        if (texto instanceof String s) return s.substring(a, b);
+        if (texto instanceof CharBuffer cb && cb.hasArray()) {
+            return new String(cb.array(), cb.arrayOffset() + cb.position() + a, b - a);
+        }
+        return texto.subSequence(a, b).toString();
+    }
+}
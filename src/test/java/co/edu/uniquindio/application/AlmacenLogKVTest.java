@@ -0,0 +1,158 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.CancionRepository;
+import co.edu.uniquindio.application.repository.store.AlmacenLogKV;
+import co.edu.uniquindio.application.repository.store.KvCatalogStore;
+import co.edu.uniquindio.application.repository.store.MemoriaCatalogStore;
+import co.edu.uniquindio.application.repository.store.PipelinePersistencia;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlmacenLogKVTest {
+
+    private static Map<String, String> contenido(AlmacenLogKV almacen) {
+        Map<String, String> pares = new LinkedHashMap<>();
+        almacen.recorrer(pares::put);
+        return pares;
+    }
+
+    @Test
+    void abrir_descartaUnRegistroFinalTruncado(@TempDir Path dir) throws Exception {
+        Path ruta = dir.resolve("datos.kv");
+        AlmacenLogKV almacen = new AlmacenLogKV(ruta);
+        almacen.put("a", "uno");
+        almacen.put("b", "dos");
+        almacen.cerrar();
+        long sano = Files.size(ruta);
+
+        // Escritura interrumpida: cabecera de un put y parte de su clave
+        Files.write(ruta, new byte[]{1, 0, 0, 0, 5, 0, 0, 0, 3, 'c', 'l'}, StandardOpenOption.APPEND);
+
+        almacen = new AlmacenLogKV(ruta);
+        assertEquals(Map.of("a", "uno", "b", "dos"), contenido(almacen));
+        assertEquals(sano, Files.size(ruta));
+        // Lo siguiente se anexa donde terminaba el último registro válido
+        almacen.put("c", "tres");
+        almacen.cerrar();
+        assertEquals(Map.of("a", "uno", "b", "dos", "c", "tres"), contenido(new AlmacenLogKV(ruta)));
+    }
+
+    @Test
+    void abrir_descartaDesdeElPrimerRegistroConCrcInvalido(@TempDir Path dir) throws Exception {
+        Path ruta = dir.resolve("datos.kv");
+        AlmacenLogKV almacen = new AlmacenLogKV(ruta);
+        almacen.put("a", "uno");
+        almacen.cerrar();
+        long antesDeB = Files.size(ruta);
+        almacen = new AlmacenLogKV(ruta);
+        almacen.put("b", "dos");
+        almacen.cerrar();
+
+        // Un byte del valor de "b" cambiado: el CRC del registro ya no coincide
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{'X'}), antesDeB + 1 + 4 + 4 + 1);
+        }
+
+        almacen = new AlmacenLogKV(ruta);
+        assertEquals(Map.of("a", "uno"), contenido(almacen));
+        assertEquals(antesDeB, Files.size(ruta));
+        almacen.cerrar();
+    }
+
+    @Test
+    void borrados_sobrevivenAlReabrir(@TempDir Path dir) throws Exception {
+        Path ruta = dir.resolve("datos.kv");
+        AlmacenLogKV almacen = new AlmacenLogKV(ruta);
+        almacen.put("a", "uno");
+        almacen.put("b", "dos");
+        almacen.delete("a");
+        almacen.put("c", "tres");
+        almacen.cerrar();
+
+        almacen = new AlmacenLogKV(ruta);
+        assertEquals(Map.of("b", "dos", "c", "tres"), contenido(almacen));
+        assertEquals(2L, almacen.estadisticas().get("claves").longValue());
+        assertTrue(almacen.estadisticas().get("bytesMuertos") > 0);
+        almacen.cerrar();
+    }
+
+    @Test
+    void compactar_conservaLosVivosYSuOrdenAlReabrir(@TempDir Path dir) throws Exception {
+        Path ruta = dir.resolve("datos.kv");
+        AlmacenLogKV almacen = new AlmacenLogKV(ruta);
+        String relleno = "x".repeat(1000);
+        Map<String, String> esperado = new LinkedHashMap<>();
+        // Sobrescrituras y borrados hasta superar el mínimo de bytes muertos (1 MB)
+        for (int i = 0; i < 3000; i++) {
+            String clave = "k" + (i * 7 % 40);
+            if (i % 5 == 4) {
+                almacen.delete(clave);
+                esperado.remove(clave);
+            } else {
+                String valor = i + relleno;
+                almacen.put(clave, valor);
+                esperado.remove(clave);
+                esperado.put(clave, valor);
+            }
+        }
+        assertTrue(almacen.estadisticas().get("compactaciones") > 0);
+        assertFalse(Files.exists(dir.resolve("datos.kv.compactando")));
+
+        // recorrer entrega en orden de última escritura, antes y después de reabrir
+        assertEquals(new ArrayList<>(esperado.entrySet()), new ArrayList<>(contenido(almacen).entrySet()));
+        almacen.cerrar();
+        assertTrue(Files.size(ruta) < 2 * 40 * 1100 + 1024 * 1024);
+
+        almacen = new AlmacenLogKV(ruta);
+        assertEquals(new ArrayList<>(esperado.entrySet()), new ArrayList<>(contenido(almacen).entrySet()));
+        almacen.cerrar();
+    }
+
+    @Test
+    void kvCatalogStore_alReabrirCoincideConElRepositorioEnMemoria(@TempDir Path dir) throws Exception {
+        Path ruta = dir.resolve("canciones.kv");
+        Random azar = new Random(11);
+        KvCatalogStore kv = new KvCatalogStore(ruta, new PipelinePersistencia(64, "bloquear"));
+        CancionRepository conKv = new CancionRepository(kv);
+        CancionRepository enMemoria = new CancionRepository(new MemoriaCatalogStore());
+
+        for (int i = 0; i < 2000; i++) {
+            String id = "c" + azar.nextInt(300);
+            if (azar.nextInt(4) == 0) {
+                conKv.eliminarCancion(id);
+                enMemoria.eliminarCancion(id);
+            } else {
+                String titulo = "Titulo " + i, artista = "Artista " + azar.nextInt(20);
+                int anio = 1960 + azar.nextInt(60), duracion = 150 + azar.nextInt(200);
+                for (CancionRepository repo : List.of(conKv, enMemoria)) {
+                    Cancion c = new Cancion(id, titulo, artista, "Rock", anio, duracion);
+                    if (repo.buscarPorId(id) != null) repo.actualizarCancion(c);
+                    else repo.agregarCancion(c);
+                }
+            }
+        }
+        conKv.sincronizarPersistencia().join();
+        conKv.cerrar();
+        enMemoria.cerrar();
+        kv.cerrar();
+
+        KvCatalogStore reabierto = new KvCatalogStore(ruta, new PipelinePersistencia(64, "bloquear"));
+        Map<String, String> recargadas = new HashMap<>();
+        reabierto.cargar(c -> recargadas.put(c.getId(), c.toString()));
+        reabierto.cerrar();
+        Map<String, String> esperadas = enMemoria.listarCanciones().stream()
+                .collect(Collectors.toMap(Cancion::getId, Cancion::toString));
+        assertEquals(esperadas, recargadas);
+    }
+}
@@ -0,0 +1,211 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.DiccionarioCatalogo;
+import co.edu.uniquindio.application.repository.CancionRepository;
+import co.edu.uniquindio.application.repository.indice.BusquedaExpiradaException;
+import co.edu.uniquindio.application.repository.indice.EjecutorBusquedas;
+import co.edu.uniquindio.application.repository.indice.IndiceCanciones;
+import co.edu.uniquindio.application.repository.indice.MapaDeBits;
+import co.edu.uniquindio.application.repository.store.MemoriaCatalogStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusquedaAvanzadaTest {
+
+    @Test
+    void mapaDeBits_coincideConUnConjuntoOrdenado() {
+        Random rnd = new Random(3);
+        TreeSet<Integer> a = new TreeSet<>(), b = new TreeSet<>();
+        MapaDeBits ma = new MapaDeBits(), mb = new MapaDeBits();
+        for (int i = 0; i < 60000; i++) {
+            // Grupo 0 denso (contenedor de bits), el resto disperso (arreglos)
+            int x = rnd.nextBoolean() ? rnd.nextInt(20000) : rnd.nextInt(1 << 22);
+            if (rnd.nextInt(4) == 0) {
+                a.remove(x);
+                ma.quitar(x);
+            } else {
+                a.add(x);
+                ma.agregar(x);
+            }
+            int y = rnd.nextInt(3) == 0 ? rnd.nextInt(20000) : rnd.nextInt(1 << 22);
+            b.add(y);
+            mb.agregar(y);
+        }
+        assertEquals(a.size(), ma.cardinalidad());
+        assertArrayEquals(a.stream().mapToInt(Integer::intValue).toArray(), ma.aArreglo());
+
+        TreeSet<Integer> comunes = new TreeSet<>(a);
+        comunes.retainAll(b);
+        assertArrayEquals(comunes.stream().mapToInt(Integer::intValue).toArray(), ma.interseccion(mb).aArreglo());
+
+        TreeSet<Integer> todos = new TreeSet<>(a);
+        todos.addAll(b);
+        ma.agregarTodos(mb);
+        assertArrayEquals(todos.stream().mapToInt(Integer::intValue).toArray(), ma.aArreglo());
+        // La unión no comparte contenedores: cambiar b no cambia a
+        mb.quitar(b.first());
+        assertTrue(ma.contiene(b.first()));
+    }
+
+    @Test
+    void buscarAvanzada_coincideConElRecorridoCompletoTrasCambios() {
+        Random rnd = new Random(11);
+        String[] palabras = {"amor", "Canción", "noche", "rock", "luna", "día", "fuego", "sol"};
+        String[] artistas = {"Queen", "Shakira", "Soda Stereo", "Café Tacvba", "Juanes"};
+        String[] generos = {"Rock", "Pop", "Balada", "Rock Alternativo", "Música Urbana"};
+        List<Cancion> iniciales = new ArrayList<>();
+        for (int i = 0; i < 800; i++) iniciales.add(aleatoria(rnd, String.valueOf(i), palabras, artistas, generos));
+        CancionRepository repo = new CancionRepository(new MemoriaCatalogStore(iniciales));
+
+        for (int i = 0; i < 300; i++) {
+            int accion = rnd.nextInt(3);
+            String id = String.valueOf(rnd.nextInt(900));
+            if (accion == 0) repo.eliminarCancion(id);
+            else if (accion == 1 && repo.buscarPorId(id) != null) repo.actualizarCancion(aleatoria(rnd, id, palabras, artistas, generos));
+            else if (repo.buscarPorId(id) == null) repo.agregarCancion(aleatoria(rnd, id, palabras, artistas, generos));
+        }
+
+        String[] titulos = {null, "amor", "CANCION", "noche lu", "or", "a  d", "xyz"};
+        String[] consultasArtista = {null, "so", "cafe", "queen"};
+        String[] consultasGenero = {null, "rock", "musica", "ba"};
+        Integer[][] anios = {{null, null}, {1980, null}, {null, 1990}, {1975, 1985}, {1999, 1999}, {2100, null}, {1990, 1980}};
+        for (String titulo : titulos) {
+            for (String artista : consultasArtista) {
+                for (String genero : consultasGenero) {
+                    for (Integer[] rango : anios) {
+                        for (String op : List.of("AND", "OR")) {
+                            Set<String> esperado = esperado(repo.listarCanciones(), titulo, artista, genero, rango[0], rango[1], op);
+                            Set<String> obtenido = new HashSet<>();
+                            repo.buscarAvanzadaConcurrente(titulo, artista, genero, rango[0], rango[1], op)
+                                    .forEach(c -> assertTrue(obtenido.add(c.getId())));
+                            assertEquals(esperado, obtenido, titulo + "/" + artista + "/" + genero + "/" + Arrays.toString(rango) + "/" + op);
+                        }
+                    }
+                }
+            }
+        }
+        repo.cerrar();
+    }
+
+    @Test
+    void indice_reutilizaPosicionesSinMezclarCancionesEnMapasViejos() {
+        Random rnd = new Random(13);
+        String[] palabras = {"amor", "noche", "luna"};
+        String[] artistas = {"Queen", "Juanes"};
+        String[] generos = {"Rock", "Pop"};
+        IndiceCanciones indice = new IndiceCanciones();
+        for (int i = 0; i < 100; i++) indice.agregar(aleatoria(rnd, "v" + i, palabras, artistas, generos));
+
+        // Altas y bajas continuas: las posiciones no crecen más allá de las canciones vivas
+        for (int i = 0; i < 5_000; i++) {
+            indice.quitar("v" + i);
+            indice.agregar(aleatoria(rnd, "v" + (i + 100), palabras, artistas, generos));
+        }
+        assertEquals(100, indice.posicionesAsignadas());
+
+        // Un mapa calculado antes de la baja no devuelve a la canción que ocupó después su posición
+        indice.agregar(new Cancion("vieja", "Tema", "Soda Stereo", "Rock", 1990, 3.0));
+        long epoca = indice.epoca();
+        MapaDeBits antes = indice.conArtista("soda");
+        indice.quitar("vieja");
+        indice.agregar(new Cancion("nueva", "Tema", "Soda Stereo", "Rock", 1990, 3.0));
+        assertEquals(101, indice.posicionesAsignadas());
+        assertEquals(List.of(), indice.canciones(antes, epoca));
+        assertEquals("nueva", indice.canciones(indice.conArtista("soda"), indice.epoca()).get(0).getId());
+    }
+
+    @Test
+    void cerrar_apagaSoloElEjecutorQueCreoElRepositorio() {
+        List<Cancion> iniciales = List.of(new Cancion("1", "Amor de rock", "Queen", "Rock", 1980, 3.0));
+        EjecutorBusquedas compartido = new EjecutorBusquedas("virtual", 0, 2000);
+        CancionRepository conCompartido = new CancionRepository(new MemoriaCatalogStore(iniciales), compartido);
+        conCompartido.cerrar();
+        // El ejecutor inyectado sigue atendiendo: lo apaga quien lo creó
+        assertEquals(1, conCompartido.buscarAvanzadaConcurrente("amor", "queen", null, null, null, "AND").size());
+        compartido.cerrar();
+
+        CancionRepository conPropio = new CancionRepository(new MemoriaCatalogStore(iniciales));
+        assertEquals(1, conPropio.buscarAvanzadaConcurrente("amor", "queen", null, null, null, "AND").size());
+        conPropio.cerrar();
+        assertThrows(RejectedExecutionException.class,
+                () -> conPropio.buscarAvanzadaConcurrente("amor", "queen", null, null, null, "AND"));
+    }
+
+    @Test
+    void ejecutor_cancelaHermanasYRespetaElPlazo() throws Exception {
+        EjecutorBusquedas ejecutor = new EjecutorBusquedas("virtual", 0, 1_000);
+        // La lenta solo termina sola si se suelta este latch, cosa que la prueba nunca hace
+        CountDownLatch soltarLenta = new CountDownLatch(1);
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        AtomicBoolean terminoSola = new AtomicBoolean();
+        Callable<MapaDeBits> lenta = () -> {
+            try {
+                soltarLenta.await();
+                terminoSola.set(true);
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+            }
+            return new MapaDeBits();
+        };
+        MapaDeBits unValor = new MapaDeBits();
+        unValor.agregar(7);
+
+        // AND: el filtro vacío decide la consulta sin esperar a la lenta, que se interrumpe
+        List<MapaDeBits> r = ejecutor.ejecutar(List.of(lenta, () -> unValor, MapaDeBits::new), MapaDeBits::estaVacio);
+        assertEquals(1, r.size());
+        assertTrue(r.get(0).estaVacio());
+        assertTrue(interrumpida.await(10, TimeUnit.SECONDS));
+        assertFalse(terminoSola.get());
+
+        // Sin corte: la lenta agota el plazo y se cancela
+        assertThrows(BusquedaExpiradaException.class, () -> ejecutor.ejecutar(List.of(lenta), m -> false));
+
+        Map<String, Long> stats = ejecutor.estadisticas();
+        assertEquals(2, stats.get("consultas").longValue());
+        assertEquals(1, stats.get("cortesAnticipados").longValue());
+        assertEquals(1, stats.get("expiradas").longValue());
+        assertEquals(0, stats.get("encoladas").longValue());
+        ejecutor.cerrar();
+    }
+
+    private static Cancion aleatoria(Random rnd, String id, String[] palabras, String[] artistas, String[] generos) {
+        String titulo = palabras[rnd.nextInt(palabras.length)] + " " + palabras[rnd.nextInt(palabras.length)];
+        return new Cancion(id, titulo, artistas[rnd.nextInt(artistas.length)],
+                generos[rnd.nextInt(generos.length)], 1960 + rnd.nextInt(50), 3.0);
+    }
+
+    // Recorrido completo: subcadenas sin tildes ni mayúsculas
+    private static Set<String> esperado(Collection<Cancion> canciones, String titulo, String artista, String genero,
+                                        Integer desde, Integer hasta, String op) {
+        List<Predicate<Cancion>> filtros = new ArrayList<>();
+        if (titulo != null) filtros.add(c -> contiene(c.getTitulo(), titulo));
+        if (artista != null) filtros.add(c -> contiene(c.getArtista(), artista));
+        if (genero != null) filtros.add(c -> contiene(c.getGenero(), genero));
+        if (desde != null || hasta != null) {
+            filtros.add(c -> (desde == null || c.getAnio() >= desde) && (hasta == null || c.getAnio() <= hasta));
+        }
+        Set<String> ids = new HashSet<>();
+        if (filtros.isEmpty()) return ids;
+        for (Cancion c : canciones) {
+            boolean ok = "AND".equals(op)
+                    ? filtros.stream().allMatch(f -> f.test(c))
+                    : filtros.stream().anyMatch(f -> f.test(c));
+            if (ok) ids.add(c.getId());
+        }
+        return ids;
+    }
+
+    private static boolean contiene(String valor, String consulta) {
+        return DiccionarioCatalogo.normalizar(valor).contains(DiccionarioCatalogo.normalizar(consulta));
+    }
+}
@@ -0,0 +1,98 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.repository.store.CanalPersistencia;
+import co.edu.uniquindio.application.repository.store.CanalPersistencia.PoliticaSaturacion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanalPersistenciaTest {
+
+    @Test
+    void cerrar_conProductoresBloqueadosCompletaTodasLasEscrituras() throws Exception {
+        for (int ronda = 0; ronda < 20; ronda++) {
+            // Cola de 1 y escritor ocupado: el productor queda bloqueado en la cola llena y
+            // compite con la marca de cierre por el único lugar que se libera
+            CanalPersistencia canal = new CanalPersistencia("prueba", 1, PoliticaSaturacion.BLOQUEAR, 0, 1, null);
+            AtomicInteger escritas = new AtomicInteger();
+            List<CompletableFuture<Void>> futuros = new CopyOnWriteArrayList<>();
+            futuros.add(canal.enviar(() -> {
+                dormir(20);
+                escritas.incrementAndGet();
+            }));
+            dormir(2);
+            futuros.add(canal.enviar(escritas::incrementAndGet));
+
+            Thread productor = new Thread(() -> futuros.add(canal.enviar(escritas::incrementAndGet)));
+            Thread cierre = new Thread(canal::cerrar);
+            productor.start();
+            dormir(2);
+            cierre.start();
+            productor.join(TimeUnit.SECONDS.toMillis(10));
+            cierre.join(TimeUnit.SECONDS.toMillis(15));
+
+            assertFalse(productor.isAlive(), "el productor quedó bloqueado tras el cierre");
+            assertEquals(3, futuros.size());
+            CompletableFuture.allOf(futuros.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+            assertEquals(3, escritas.get());
+        }
+    }
+
+    @Test
+    void enviar_despuesDeCerrarEscribeEnLinea() {
+        CanalPersistencia canal = new CanalPersistencia("prueba", 4, PoliticaSaturacion.DESCARTAR, 0, 4, null);
+        canal.cerrar();
+        AtomicInteger escritas = new AtomicInteger();
+
+        assertTrue(canal.enviar(escritas::incrementAndGet).isDone());
+        assertEquals(1, escritas.get());
+    }
+
+    @Test
+    void enviar_duranteElCierreEsperaAQueSeVacieLaCola() throws Exception {
+        // Lotes de una tarea: la segunda escritura sigue en la cola mientras corre la primera
+        CanalPersistencia canal = new CanalPersistencia("prueba", 4, PoliticaSaturacion.BLOQUEAR, 0, 1, null);
+        List<String> orden = new CopyOnWriteArrayList<>();
+        CountDownLatch soltar = new CountDownLatch(1);
+        CompletableFuture<Void> anterior = canal.enviar(() -> {
+            try {
+                soltar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            orden.add("primera");
+        });
+        CompletableFuture<Void> encolada = canal.enviar(() -> orden.add("encolada"));
+        // Entre la primera y la encolada el escritor se demora: la posterior tendría vía libre
+        anterior.thenRun(() -> dormir(100));
+
+        // cerrar() queda esperando al escritor, que sigue con la escritura anterior
+        Thread cierre = new Thread(canal::cerrar);
+        cierre.start();
+        while (cierre.getState() != Thread.State.TIMED_WAITING) Thread.onSpinWait();
+
+        CompletableFuture<CompletableFuture<Void>> posterior =
+                CompletableFuture.supplyAsync(() -> canal.enviar(() -> orden.add("posterior")));
+        dormir(50);
+        assertFalse(posterior.isDone(), "la escritura posterior al cierre no esperó el vaciado");
+
+        soltar.countDown();
+        posterior.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS);
+        anterior.get(10, TimeUnit.SECONDS);
+        encolada.get(10, TimeUnit.SECONDS);
+        cierre.join(TimeUnit.SECONDS.toMillis(10));
+        assertEquals(List.of("primera", "encolada", "posterior"), orden);
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
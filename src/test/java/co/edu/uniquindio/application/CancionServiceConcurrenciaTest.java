@@ -0,0 +1,119 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import co.edu.uniquindio.application.repository.CancionRepository;
+import co.edu.uniquindio.application.repository.store.MemoriaCatalogStore;
+import co.edu.uniquindio.application.service.CancionService;
+import co.edu.uniquindio.application.service.Versionado;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancionServiceConcurrenciaTest {
+
+    // Lecturas de /similares, /radio y /autocompletar mientras el grafo y el Trie se reconstruyen
+    @Test
+    void lecturasConcurrentesNuncaVenEstadosParciales() throws Exception {
+        Random rnd = new Random(5);
+        List<Cancion> iniciales = new ArrayList<>();
+        iniciales.add(new Cancion("0", "Tema ancla", "Ancla", "Pop", 2000, 3.0));
+        iniciales.add(new Cancion("1", "Tema gemelo", "Ancla", "Pop", 2001, 3.0));
+        for (int i = 2; i < 1500; i++) {
+            iniciales.add(new Cancion(String.valueOf(i), "Tema " + i, "Artista" + rnd.nextInt(100),
+                    "Genero" + rnd.nextInt(10), 1950 + rnd.nextInt(70), 3.0));
+        }
+        CancionService servicio = new CancionService(
+                new CancionRepository(new MemoriaCatalogStore(iniciales)), new GrafoDeSimilitud(1));
+        long versionInicial = servicio.consultarSimilares("0", 5).version();
+
+        AtomicBoolean escribiendo = new AtomicBoolean(true);
+        List<Throwable> fallas = new CopyOnWriteArrayList<>();
+        ExecutorService hilos = Executors.newFixedThreadPool(5);
+
+        hilos.submit(() -> {
+            try {
+                for (int i = 0; i < 30; i++) {
+                    String id = "nueva" + i;
+                    servicio.construirGrafoDeSimilitud();
+                    servicio.agregarCancion(new Cancion(id, "Tema nuevo " + i, "Ancla", "Pop", 2000, 3.0));
+                    if (i % 2 == 0) servicio.eliminarCancion(id);
+                }
+            } catch (Throwable t) {
+                fallas.add(t);
+            } finally {
+                escribiendo.set(false);
+            }
+        });
+
+        for (int h = 0; h < 4; h++) {
+            hilos.submit(() -> {
+                long ultimaSimilitud = 0;
+                long ultimoTrie = 0;
+                try {
+                    while (escribiendo.get()) {
+                        Versionado<List<Cancion>> similares = servicio.consultarSimilares("0", 5);
+                        assertFalse(similares.valor().isEmpty(), "grafo vacío a mitad de reconstrucción");
+                        similares.valor().forEach(Assertions::assertNotNull);
+                        assertTrue(similares.version() >= ultimaSimilitud);
+                        ultimaSimilitud = similares.version();
+
+                        Versionado<List<Cancion>> radio = servicio.consultarRadio("0", 5);
+                        assertEquals("0", radio.valor().get(0).getId());
+                        assertTrue(radio.valor().size() > 1);
+
+                        Versionado<List<String>> sugerencias = servicio.consultarAutocompletado("tema a");
+                        assertEquals(List.of("tema ancla"), sugerencias.valor());
+                        assertTrue(sugerencias.version() >= ultimoTrie);
+                        ultimoTrie = sugerencias.version();
+                    }
+                } catch (Throwable t) {
+                    fallas.add(t);
+                }
+            });
+        }
+
+        hilos.shutdown();
+        assertTrue(hilos.awaitTermination(2, TimeUnit.MINUTES));
+        assertEquals(List.of(), fallas);
+        assertTrue(servicio.consultarSimilares("0", 5).version() > versionInicial);
+    }
+
+    // Carga masiva chica (altas una a una) y grande (reconstrucción): el grafo queda igual que reconstruido
+    @Test
+    void cargaMasiva_dejaElGrafoComoUnaReconstruccion() throws Exception {
+        Random rnd = new Random(9);
+        List<Cancion> iniciales = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            iniciales.add(new Cancion(String.valueOf(i), "Tema " + i, "Artista" + rnd.nextInt(40),
+                    "Genero" + rnd.nextInt(8), 1950 + rnd.nextInt(70), 3.0));
+        }
+        CancionService servicio = new CancionService(
+                new CancionRepository(new MemoriaCatalogStore(iniciales)), new GrafoDeSimilitud(1));
+
+        for (int lote : new int[]{10, 300}) {
+            StringBuilder archivo = new StringBuilder();
+            for (int i = 0; i < lote; i++) {
+                archivo.append("lote").append(lote).append('-').append(i).append(";Tema;Artista").append(rnd.nextInt(40))
+                        .append(";Genero").append(rnd.nextInt(8)).append(';').append(1950 + rnd.nextInt(70))
+                        .append(";x.mp3\n");
+            }
+            assertEquals(lote, servicio.cargarCancionesMasivamente(
+                    new MockMultipartFile("archivo", archivo.toString().getBytes(StandardCharsets.UTF_8))));
+
+            GrafoDeSimilitud esperado = new GrafoDeSimilitud(1);
+            esperado.construirGrafo(servicio.listarCanciones());
+            for (Cancion c : servicio.listarCanciones()) {
+                assertEquals(new HashSet<>(esperado.obtenerSimilares(c, 5000)),
+                        new HashSet<>(servicio.obtenerCancionesSimilares(c.getId(), 5000)), c.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrafoDeSimilitudTest {
+
+    private static final String[] GENEROS = {"Rock", "Pop", "Jazz", "rock", "Música", "MÚSICA"};
+    private static final String[] ARTISTAS = {"A", "B", "C", "D", "E"};
+
+    private static Cancion aleatoria(Random rnd, String id) {
+        return new Cancion(id, "T" + id,
+                ARTISTAS[rnd.nextInt(ARTISTAS.length)],
+                GENEROS[rnd.nextInt(GENEROS.length)],
+                1990 + rnd.nextInt(15), 3.0);
+    }
+
+    // Vecinos por id con su peso, para comparar grafos sin depender de las instancias
+    private static Map<String, Map<String, Double>> porId(GrafoDeSimilitud g, Collection<Cancion> canciones) {
+        Map<String, Map<String, Double>> res = new HashMap<>();
+        for (Cancion c : canciones) {
+            res.put(c.getId(), g.obtenerAdyacentes(c).entrySet().stream()
+                    .collect(Collectors.toMap(e -> e.getKey().getId(), Map.Entry::getValue)));
+        }
+        return res;
+    }
+
+    @Test
+    void mantenimientoIncremental_coincideConReconstruccionCompleta() {
+        Random rnd = new Random(42);
+        Map<String, Cancion> catalogo = new LinkedHashMap<>();
+        GrafoDeSimilitud incremental = new GrafoDeSimilitud();
+
+        for (int i = 0; i < 200; i++) {
+            Cancion c = aleatoria(rnd, String.valueOf(i));
+            catalogo.put(c.getId(), c);
+            incremental.agregarCancion(c);
+        }
+        // Actualizaciones: misma id, otros atributos (nueva instancia, como hace el repositorio)
+        for (int i = 0; i < 50; i++) {
+            Cancion c = aleatoria(rnd, String.valueOf(rnd.nextInt(200)));
+            catalogo.put(c.getId(), c);
+            incremental.actualizarCancion(c);
+        }
+        // Eliminaciones
+        for (int i = 0; i < 40; i++) {
+            Cancion c = catalogo.remove(String.valueOf(rnd.nextInt(200)));
+            if (c != null) assertTrue(incremental.eliminarCancion(c));
+        }
+
+        GrafoDeSimilitud completo = new GrafoDeSimilitud();
+        completo.construirGrafo(catalogo.values());
+
+        assertEquals(completo.cantidadCanciones(), incremental.cantidadCanciones());
+        assertEquals(porId(completo, catalogo.values()), porId(incremental, catalogo.values()));
+    }
+
+    @Test
+    void mantenimientoIncremental_consultasVenLosCambiosPendientes() {
+        Random rnd = new Random(5);
+        Map<String, Cancion> catalogo = new LinkedHashMap<>();
+        GrafoDeSimilitud incremental = new GrafoDeSimilitud();
+        for (int i = 0; i < 400; i++) {
+            Cancion c = aleatoria(rnd, String.valueOf(i));
+            catalogo.put(c.getId(), c);
+        }
+        incremental.construirGrafo(catalogo.values());
+        // Pocos cambios por fila: quedan pendientes sin fusionar en muchas de ellas
+        for (int i = 0; i < 5; i++) {
+            Cancion c = aleatoria(rnd, String.valueOf(400 + i));
+            catalogo.put(c.getId(), c);
+            incremental.agregarCancion(c);
+            assertTrue(incremental.eliminarCancion(catalogo.remove(String.valueOf(rnd.nextInt(400)))));
+        }
+
+        GrafoDeSimilitud completo = new GrafoDeSimilitud();
+        completo.construirGrafo(catalogo.values());
+        assertEquals(completo.cantidadAristas(), incremental.cantidadAristas());
+        Random azar = new Random(1);
+        for (Cancion c : catalogo.values()) {
+            // Los índices difieren de la reconstrucción: se comparan vecinos y orden por peso
+            Map<Cancion, Double> esperados = completo.obtenerAdyacentes(c);
+            List<Cancion> todos = incremental.obtenerSimilares(c, 1000);
+            assertEquals(esperados.keySet(), new HashSet<>(todos));
+            for (int k = 1; k < todos.size(); k++) {
+                assertTrue(esperados.get(todos.get(k)) <= esperados.get(todos.get(k - 1)), "pesos no crecientes");
+            }
+            assertEquals(todos.subList(0, Math.min(7, todos.size())), incremental.obtenerSimilares(c, 7));
+
+            int idx = incremental.indiceDe(c);
+            assertEquals(esperados.size(), incremental.grado(idx));
+            Set<Cancion> recorridos = new HashSet<>();
+            incremental.recorrerVecinos(idx, (vecino, peso) -> recorridos.add(incremental.cancionEn(vecino)));
+            assertEquals(esperados.keySet(), recorridos);
+            for (int t = 0; t < 20 && !esperados.isEmpty(); t++) {
+                assertTrue(recorridos.contains(incremental.cancionEn(incremental.vecinoAleatorio(idx, azar))));
+            }
+        }
+    }
+
+    @Test
+    void eliminarCancion_quitaTambienLasAristasDeSusVecinos() {
+        Cancion a = new Cancion("1", "A", "X", "Pop", 2000, 3.0);
+        Cancion b = new Cancion("2", "B", "X", "Pop", 2001, 3.0);
+        GrafoDeSimilitud g = new GrafoDeSimilitud();
+        g.agregarCancion(a);
+        g.agregarCancion(b);
+        assertEquals(List.of(b), g.obtenerSimilares(a, 5));
+
+        assertTrue(g.eliminarCancion(b));
+        assertFalse(g.eliminarCancion(b));
+        assertTrue(g.obtenerSimilares(a, 5).isEmpty());
+    }
+
+    @Test
+    void construirGrafo_porBloquesCoincideConFuerzaBruta() {
+        Random rnd = new Random(7);
+        List<Cancion> catalogo = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            Cancion c = aleatoria(rnd, String.valueOf(i));
+            // años dispersos para que la ventana ±2 no cubra todo el catálogo
+            c.setAnio(1900 + rnd.nextInt(120));
+            catalogo.add(c);
+        }
+
+        GrafoDeSimilitud porBloques = new GrafoDeSimilitud();
+        porBloques.construirGrafo(catalogo);
+        GrafoDeSimilitud fuerzaBruta = new GrafoDeSimilitud();
+        fuerzaBruta.construirGrafoFuerzaBruta(catalogo);
+
+        assertEquals(fuerzaBruta.cantidadCanciones(), porBloques.cantidadCanciones());
+        assertEquals(porId(fuerzaBruta, catalogo), porId(porBloques, catalogo));
+    }
+
+    @Test
+    void construirGrafo_paraleloCoincideConSecuencial() {
+        Random rnd = new Random(11);
+        List<Cancion> catalogo = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Cancion c = aleatoria(rnd, String.valueOf(i));
+            c.setAnio(1900 + rnd.nextInt(120));
+            catalogo.add(c);
+        }
+
+        GrafoDeSimilitud secuencial = new GrafoDeSimilitud(1);
+        secuencial.construirGrafo(catalogo);
+        GrafoDeSimilitud paralelo = new GrafoDeSimilitud(4);
+        paralelo.construirGrafo(catalogo);
+
+        assertEquals(secuencial.cantidadCanciones(), paralelo.cantidadCanciones());
+        assertEquals(porId(secuencial, catalogo), porId(paralelo, catalogo));
+    }
+
+    @Test
+    void obtenerSimilares_devuelvePrefijoOrdenadoPorPeso() {
+        Random rnd = new Random(3);
+        List<Cancion> catalogo = new ArrayList<>();
+        for (int i = 0; i < 300; i++) catalogo.add(aleatoria(rnd, String.valueOf(i)));
+        GrafoDeSimilitud g = new GrafoDeSimilitud();
+        g.construirGrafo(catalogo);
+
+        for (Cancion c : catalogo.subList(0, 20)) {
+            Map<Cancion, Double> adyacentes = g.obtenerAdyacentes(c);
+            List<Cancion> top = g.obtenerSimilares(c, 10);
+            assertEquals(Math.min(10, adyacentes.size()), top.size());
+
+            double maximo = adyacentes.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+            double anterior = Double.MAX_VALUE;
+            for (Cancion s : top) {
+                double peso = adyacentes.get(s);
+                assertTrue(peso <= anterior, "pesos no crecientes");
+                anterior = peso;
+            }
+            if (!top.isEmpty()) assertEquals(maximo, adyacentes.get(top.get(0)), 0.0);
+        }
+    }
+
+    @Test
+    void similitud_ignoraMayusculasYTildesEnGeneroYArtista() {
+        Cancion a = new Cancion("1", "A", "Bad Bunny", "Urbano", 1990, 3.0);
+        Cancion b = new Cancion("2", "B", "bad bunny ", "urbano", 2010, 3.0);
+        Cancion c = new Cancion("3", "C", "Otro", "Música", 1970, 3.0);
+        Cancion d = new Cancion("4", "D", "Nadie", "musica", 1950, 3.0);
+        GrafoDeSimilitud g = new GrafoDeSimilitud();
+        g.construirGrafo(List.of(a, b, c, d));
+
+        assertEquals(0.9, g.obtenerAdyacentes(a).get(b), 1e-6);
+        assertEquals(0.6, g.obtenerAdyacentes(c).get(d), 1e-6);
+        assertSame(a.getGenero(), new Cancion("5", "E", "X", "Urbano", 2000, 3.0).getGenero());
+    }
+}
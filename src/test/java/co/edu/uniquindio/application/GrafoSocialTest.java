@@ -2,7 +2,11 @@ package co.edu.uniquindio.application;
 
 import co.edu.uniquindio.application.model.GrafoSocial;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
 
@@ -56,4 +60,76 @@ class GrafoSocialTest {
         assertFalse(sug.contains("a"));
         assertFalse(sug.contains("b")); // ya es amigo
     }
-}
\ No newline at end of file
+
+    @Test
+    void guardarCambios_anexaDeltasYSeReproducenAlCargar(@TempDir Path dir) throws Exception {
+        String ruta = dir.resolve("grafo_social.txt").toString();
+
+        GrafoSocial g = new GrafoSocial();
+        g.agregarUsuario("a");
+        g.agregarUsuario("b");
+        g.agregarUsuario("c");
+        g.seguirUsuario("a", "b");
+        g.seguirUsuario("a", "c");
+        g.guardarRelacionesEnArchivo(ruta);
+
+        // Cambios posteriores: solo se anexan a la bitácora, la instantánea no se reescribe
+        g.seguirUsuario("b", "c");
+        g.dejarDeSeguir("a", "b");
+        g.guardarCambiosEnArchivo(ruta);
+
+        Path bitacora = dir.resolve("grafo_social.log");
+        assertEquals(List.of("+b;c", "-a;b"), Files.readAllLines(bitacora));
+        assertEquals(List.of("a;b", "a;c"), Files.readAllLines(Path.of(ruta)).stream().sorted().toList());
+
+        GrafoSocial cargado = new GrafoSocial();
+        cargado.cargarRelacionesDesdeArchivo(ruta);
+        assertEquals(Set.of("c"), cargado.obtenerAmigos("a"));
+        assertEquals(Set.of("c"), cargado.obtenerAmigos("b"));
+    }
+
+    @Test
+    void guardarCambios_compactaCuandoLaBitacoraCrece(@TempDir Path dir) throws Exception {
+        String ruta = dir.resolve("grafo_social.txt").toString();
+
+        GrafoSocial g = new GrafoSocial();
+        g.agregarUsuario("hub");
+        for (int i = 0; i < 30_000; i++) {
+            g.agregarUsuario("u" + i);
+            g.seguirUsuario("hub", "u" + i);
+        }
+        g.guardarCambiosEnArchivo(ruta);
+
+        // Superó el mínimo: los deltas se plegaron en la instantánea y la bitácora desapareció
+        assertFalse(Files.exists(dir.resolve("grafo_social.log")));
+        assertEquals(30_000, Files.readAllLines(Path.of(ruta)).size());
+
+        GrafoSocial cargado = new GrafoSocial();
+        cargado.cargarRelacionesDesdeArchivo(ruta);
+        assertEquals(30_000, cargado.obtenerAmigos("hub").size());
+    }
+
+    @Test
+    void guardarCambios_conservaLosDeltasSiLaEscrituraFalla(@TempDir Path dir) throws Exception {
+        String ruta = dir.resolve("grafo_social.txt").toString();
+        Path bitacora = dir.resolve("grafo_social.log");
+
+        GrafoSocial g = new GrafoSocial();
+        g.agregarUsuario("ñandú");
+        g.agregarUsuario("b");
+        g.guardarRelacionesEnArchivo(ruta);
+        g.seguirUsuario("ñandú", "b");
+
+        // Un directorio en el lugar de la bitácora hace fallar el anexo
+        Files.createDirectory(bitacora);
+        assertThrows(UncheckedIOException.class, () -> g.guardarCambiosEnArchivo(ruta));
+
+        Files.delete(bitacora);
+        g.guardarCambiosEnArchivo(ruta);
+        assertEquals(List.of("+ñandú;b"), Files.readAllLines(bitacora));
+
+        GrafoSocial cargado = new GrafoSocial();
+        cargado.cargarRelacionesDesdeArchivo(ruta);
+        assertEquals(Set.of("b"), cargado.obtenerAmigos("ñandú"));
+    }
+}
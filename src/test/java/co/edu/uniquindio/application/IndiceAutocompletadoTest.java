@@ -0,0 +1,87 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.trie.IndiceAutocompletado;
+import co.edu.uniquindio.application.trie.IndiceAutocompletado.Sugerencia;
+import co.edu.uniquindio.application.trie.IndiceAutocompletado.Tipo;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceAutocompletadoTest {
+
+    private final Map<String, Cancion> catalogo = new HashMap<>();
+
+    private Cancion cancion(String id, String titulo, String artista, String genero) {
+        Cancion c = new Cancion(id, titulo, artista, genero, 2020, 3.0);
+        catalogo.put(id, c);
+        return c;
+    }
+
+    private List<Sugerencia> sugerir(IndiceAutocompletado indice, String consulta, Tipo tipo) {
+        return indice.sugerir(consulta, 5, catalogo::get).stream().filter(s -> s.tipo() == tipo).toList();
+    }
+
+    @Test
+    void sugerir_encuentraPalabrasEnCualquierPosicionYPorCampo() {
+        IndiceAutocompletado indice = new IndiceAutocompletado();
+        indice.insertar(cancion("1", "Parche Tranqui", "Blessd", "Reggaetón"), 3);
+        indice.insertar(cancion("2", "Medallo", "Blessd", "reggaeton"), 5);
+        indice.insertar(cancion("3", "Tranquilo", "Otro", "Pop"), 9);
+
+        List<Sugerencia> titulos = sugerir(indice, "TRANQUI", Tipo.CANCION);
+        assertEquals(List.of("Tranquilo", "Parche Tranqui"), titulos.stream().map(Sugerencia::texto).toList());
+        assertEquals(List.of("1"), titulos.get(1).idsCanciones());
+        assertEquals(List.of("Parche Tranqui"),
+                sugerir(indice, "parche  tr", Tipo.CANCION).stream().map(Sugerencia::texto).toList());
+
+        List<Sugerencia> artistas = sugerir(indice, "bles", Tipo.ARTISTA);
+        assertEquals(1, artistas.size());
+        assertEquals("Blessd", artistas.get(0).texto());
+        assertEquals(Set.of("1", "2"), new HashSet<>(artistas.get(0).idsCanciones()));
+
+        // Géneros iguales salvo tildes y mayúsculas son una sola sugerencia
+        List<Sugerencia> generos = sugerir(indice, "reggae", Tipo.GENERO);
+        assertEquals(1, generos.size());
+        assertEquals(2, generos.get(0).idsCanciones().size());
+        assertTrue(indice.sugerir("  ", 5, catalogo::get).isEmpty());
+    }
+
+    @Test
+    void sinCancion_devuelveIndiceNuevoSinTocarElAnterior() {
+        IndiceAutocompletado indice = new IndiceAutocompletado();
+        Cancion a = cancion("1", "Parche Tranqui", "Blessd", "Urbano");
+        Cancion b = cancion("2", "Medallo", "Blessd", "Urbano");
+        indice.insertar(a, 0);
+        indice.insertar(b, 0);
+
+        IndiceAutocompletado sinA = indice.sinCancion(a);
+        assertTrue(sugerir(sinA, "tranqui", Tipo.CANCION).isEmpty());
+        assertEquals(List.of("2"), sugerir(sinA, "blessd", Tipo.ARTISTA).get(0).idsCanciones());
+        assertEquals(1, sugerir(indice, "tranqui", Tipo.CANCION).size());
+        assertTrue(sinA.titulos().buscarPorPrefijo("parche").isEmpty());
+
+        // Volver a agregarla la recupera; una popularidad igual no crea otra versión
+        IndiceAutocompletado conA = sinA.conCancion(a, 1);
+        assertSame(conA, conA.conPopularidad(b, 0));
+        assertEquals(Set.of("1", "2"), new HashSet<>(sugerir(conA, "urb", Tipo.GENERO).get(0).idsCanciones()));
+        assertEquals("Parche Tranqui", sugerir(conA, "tranqui", Tipo.CANCION).get(0).texto());
+    }
+
+    @Test
+    void sugerir_completaElLimiteAunqueElTopGuardadoTengaRepetidos() {
+        IndiceAutocompletado indice = new IndiceAutocompletado();
+        // "la la land N" entra por dos claves que empiezan con "la": el top-10 guardado tiene 5 valores
+        for (int i = 0; i < 8; i++) indice.insertar(cancion("L" + i, "La La Land " + i, "Artista", "Pop"), 100 + i);
+        for (int i = 0; i < 6; i++) indice.insertar(cancion("P" + i, "Lámpara " + i, "Artista", "Pop"), i);
+
+        List<String> textos = indice.sugerir("la", 10, catalogo::get).stream()
+                .filter(s -> s.tipo() == Tipo.CANCION).map(Sugerencia::texto).toList();
+        assertEquals(10, textos.size());
+        assertEquals(10, new HashSet<>(textos).size());
+        assertEquals("La La Land 7", textos.get(0));
+        assertEquals(List.of("Lámpara 5", "Lámpara 4"), textos.subList(8, 10));
+    }
+}
@@ -0,0 +1,119 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import co.edu.uniquindio.application.model.IndiceSimilitudAproximado;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceSimilitudAproximadoTest {
+
+    private static List<Cancion> catalogo(int n, long semilla) {
+        Random rnd = new Random(semilla);
+        List<Cancion> lista = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int genero = (int) Math.min(29, Math.abs(rnd.nextGaussian() * 8));
+            lista.add(new Cancion(String.valueOf(i), "T" + i, "Artista" + rnd.nextInt(n / 20),
+                    "Genero" + genero, 1950 + rnd.nextInt(75), 2 + rnd.nextDouble() * 4));
+        }
+        return lista;
+    }
+
+    // Recall@k con empates: un resultado acierta si su peso exacto alcanza al k-ésimo peso exacto
+    @Test
+    void recallContraGrafoExacto() {
+        List<Cancion> canciones = catalogo(3000, 1);
+        GrafoDeSimilitud exacto = new GrafoDeSimilitud();
+        exacto.construirGrafo(canciones);
+        IndiceSimilitudAproximado aproximado = new IndiceSimilitudAproximado(16, 100, 64);
+        aproximado.construirGrafo(canciones);
+
+        int k = 10;
+        double recall = 0;
+        List<Cancion> consultas = canciones.subList(0, 200);
+        for (Cancion q : consultas) {
+            Map<Cancion, Double> pesos = exacto.obtenerAdyacentes(q);
+            List<Cancion> top = exacto.obtenerSimilares(q, k);
+            List<Cancion> encontrados = aproximado.obtenerSimilares(q, k);
+            if (top.isEmpty()) {
+                assertTrue(encontrados.isEmpty());
+                recall += 1;
+                continue;
+            }
+            double kEsimo = pesos.get(top.get(top.size() - 1));
+            int aciertos = 0;
+            for (Cancion c : encontrados) {
+                assertNotEquals(q, c);
+                Double peso = pesos.get(c);
+                assertNotNull(peso, "solo canciones con similitud positiva");
+                if (peso >= kEsimo - 1e-6) aciertos++;
+            }
+            recall += (double) aciertos / top.size();
+        }
+        assertTrue(recall / consultas.size() >= 0.9, "recall@10 = " + recall / consultas.size());
+    }
+
+    @Test
+    void eliminarYActualizar_noDevuelveCancionesViejas() {
+        List<Cancion> canciones = catalogo(500, 2);
+        IndiceSimilitudAproximado indice = new IndiceSimilitudAproximado(8, 50, 32);
+        indice.construirGrafo(canciones);
+
+        Cancion origen = canciones.get(0);
+        List<Cancion> antes = indice.obtenerSimilares(origen, 5);
+        assertFalse(antes.isEmpty());
+        Cancion eliminada = antes.get(0);
+        assertTrue(indice.eliminarCancion(eliminada));
+        assertFalse(indice.obtenerSimilares(origen, 50).contains(eliminada));
+        assertEquals(499, indice.cantidadCanciones());
+
+        // Mismo id con otros rasgos: el nodo viejo queda como lápida
+        Cancion cambiada = new Cancion(origen.getId(), "T", "Nuevo", "Otro", 1800, 3.0);
+        indice.actualizarCancion(cambiada);
+        assertEquals(499, indice.cantidadCanciones());
+        assertTrue(indice.obtenerSimilares(cambiada, 5).isEmpty());
+    }
+
+    @Test
+    void copiar_losCambiosDeUnaCopiaNoAlteranAlOriginalNiAOtraCopia() {
+        List<Cancion> canciones = catalogo(2000, 3);
+        IndiceSimilitudAproximado original = new IndiceSimilitudAproximado(8, 50, 32);
+        original.construirGrafo(canciones);
+        Map<Cancion, List<Cancion>> antes = new HashMap<>();
+        for (Cancion q : canciones.subList(0, 100)) antes.put(q, original.obtenerSimilares(q, 10));
+
+        // Dos copias del mismo original, cada una con altas que re-enlazan nodos compartidos
+        IndiceSimilitudAproximado a = original.copiar();
+        IndiceSimilitudAproximado b = original.copiar();
+        List<Cancion> altasA = catalogo(600, 4).stream()
+                .map(c -> new Cancion("a" + c.getId(), c.getTitulo(), c.getArtista(), c.getGenero(), c.getAnio(), c.getDuracion()))
+                .toList();
+        List<Cancion> altasB = catalogo(600, 5).stream()
+                .map(c -> new Cancion("b" + c.getId(), c.getTitulo(), c.getArtista(), c.getGenero(), c.getAnio(), c.getDuracion()))
+                .toList();
+        altasA.forEach(a::agregarCancion);
+        altasB.forEach(b::agregarCancion);
+        for (int i = 0; i < 100; i++) a.eliminarCancion(canciones.get(i));
+
+        assertEquals(2000, original.cantidadCanciones());
+        assertEquals(2500, a.cantidadCanciones());
+        assertEquals(2600, b.cantidadCanciones());
+        antes.forEach((q, similares) -> assertEquals(similares, original.obtenerSimilares(q, 10)));
+
+        for (Cancion q : altasB.subList(0, 50)) {
+            assertEquals(-1, a.indiceDe(q));
+            assertEquals(-1, original.indiceDe(q));
+            for (Cancion c : b.obtenerSimilares(q, 10)) assertFalse(c.getId().startsWith("a"));
+        }
+        for (Cancion q : altasA.subList(0, 50)) {
+            for (Cancion c : a.obtenerSimilares(q, 10)) {
+                assertFalse(c.getId().startsWith("b"));
+                assertTrue(a.indiceDe(c) >= 0);
+            }
+        }
+        assertTrue(a.obtenerSimilares(canciones.get(0), 10).isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.store.InstantaneaBinariaCanciones;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstantaneaBinariaCancionesTest {
+
+    private static Path texto(Path dir) throws Exception {
+        Path texto = dir.resolve("canciones.txt");
+        Files.write(texto, List.of("1;Tema;Artista;Pop;2001;3.45"), StandardCharsets.UTF_8);
+        return texto;
+    }
+
+    @Test
+    void leer_devuelveLoEscrito(@TempDir Path dir) throws Exception {
+        Path texto = texto(dir);
+        Path binario = dir.resolve("canciones.bin");
+        Cancion conArchivo = new Cancion("1", "Canción ñandú", "Artista", "Pop", 2001, 3.45);
+        conArchivo.setFileName("1.mp3");
+        Cancion sinTexto = new Cancion("2", null, null, null, 1999, 4.0);
+        Cancion repetida = new Cancion("3", "Otra", "Artista", "Pop", -5, 0.07);
+        InstantaneaBinariaCanciones.escribir(binario, List.of(conArchivo, sinTexto, repetida), texto);
+
+        List<Cancion> leidas = InstantaneaBinariaCanciones.leer(binario, texto);
+        assertNotNull(leidas);
+        assertEquals(3, leidas.size());
+        assertEquals(conArchivo.toString(), leidas.get(0).toString());
+        assertEquals("1.mp3", leidas.get(0).getFileName());
+
+        // Los campos nulos se guardan como cadena vacía; sin fileName sigue sin fileName
+        Cancion vacia = leidas.get(1);
+        assertEquals("", vacia.getTitulo());
+        assertEquals("", vacia.getArtista());
+        assertEquals("", vacia.getGenero());
+        assertNull(vacia.getFileName());
+
+        // La duración pasa por un float: se redondea a los 2 decimales del texto
+        assertEquals(3.45, leidas.get(0).getDuracion());
+        assertEquals(0.07, leidas.get(2).getDuracion());
+        assertEquals(-5, leidas.get(2).getAnio());
+    }
+
+    @Test
+    void leer_descartaLaInstantaneaSiElTextoCambio(@TempDir Path dir) throws Exception {
+        Path texto = texto(dir);
+        Path binario = dir.resolve("canciones.bin");
+        List<Cancion> canciones = List.of(new Cancion("1", "Tema", "Artista", "Pop", 2001, 3.45));
+        InstantaneaBinariaCanciones.escribir(binario, canciones, texto);
+        assertNotNull(InstantaneaBinariaCanciones.leer(binario, texto));
+
+        // Misma longitud, otra fecha (editado a mano sin cambiar el tamaño)
+        FileTime fecha = Files.getLastModifiedTime(texto);
+        Files.setLastModifiedTime(texto, FileTime.fromMillis(fecha.toMillis() + 5_000));
+        assertNull(InstantaneaBinariaCanciones.leer(binario, texto));
+
+        // Misma fecha, otro tamaño
+        InstantaneaBinariaCanciones.escribir(binario, canciones, texto);
+        fecha = Files.getLastModifiedTime(texto);
+        Files.write(texto, List.of("2;Otro;Artista;Pop;2002;3.00"), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(texto, fecha);
+        assertNull(InstantaneaBinariaCanciones.leer(binario, texto));
+    }
+
+    @Test
+    void leer_descartaUnaInstantaneaTruncadaOAusente(@TempDir Path dir) throws Exception {
+        Path texto = texto(dir);
+        Path binario = dir.resolve("canciones.bin");
+        assertNull(InstantaneaBinariaCanciones.leer(binario, texto));
+
+        InstantaneaBinariaCanciones.escribir(binario,
+                List.of(new Cancion("1", "Tema", "Artista", "Pop", 2001, 3.45)), texto);
+        byte[] completo = Files.readAllBytes(binario);
+        Files.write(binario, Arrays.copyOf(completo, completo.length - 3));
+        assertNull(InstantaneaBinariaCanciones.leer(binario, texto));
+        assertFalse(Files.exists(dir.resolve("canciones.bin.tmp")));
+    }
+}
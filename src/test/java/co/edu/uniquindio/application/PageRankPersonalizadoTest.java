@@ -0,0 +1,89 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import co.edu.uniquindio.application.model.PageRankPersonalizado;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageRankPersonalizadoTest {
+
+    @Test
+    void recomendar_priorizaElVecindarioDeLasSemillasYLasExcluye() {
+        // Dos grupos sin relación: Rock/A en los 90 y Jazz/B en los 50
+        List<Cancion> catalogo = new ArrayList<>();
+        for (int i = 0; i < 30; i++) catalogo.add(new Cancion("r" + i, "R" + i, "A", "Rock", 1990 + i % 3, 3.0));
+        for (int i = 0; i < 30; i++) catalogo.add(new Cancion("j" + i, "J" + i, "B", "Jazz", 1950 + i % 3, 3.0));
+        GrafoDeSimilitud g = new GrafoDeSimilitud();
+        g.construirGrafo(catalogo);
+
+        List<Cancion> semillas = List.of(catalogo.get(0), catalogo.get(1), catalogo.get(2));
+        List<Cancion> top = new PageRankPersonalizado(0.15, 1e-6, 1_000_000).recomendar(g, semillas, 10);
+
+        assertEquals(10, top.size());
+        assertEquals(10, new HashSet<>(top).size());
+        for (Cancion c : top) {
+            assertTrue(c.getId().startsWith("r"), "fuera del grupo de las semillas: " + c.getId());
+            assertFalse(semillas.contains(c));
+        }
+    }
+
+    @Test
+    void recomendar_sinSemillasConocidasDevuelveVacio() {
+        GrafoDeSimilitud g = new GrafoDeSimilitud();
+        g.construirGrafo(List.of(new Cancion("1", "A", "X", "Pop", 2000, 3.0),
+                new Cancion("2", "B", "X", "Pop", 2000, 3.0)));
+        PageRankPersonalizado ppr = new PageRankPersonalizado(0.15, 1e-4, 1000);
+
+        assertTrue(ppr.recomendar(g, List.of(new Cancion("9", "Z", "Y", "Jazz", 1950, 3.0)), 5).isEmpty());
+        assertEquals(List.of("2"), ppr.recomendar(g, List.of(new Cancion("1", "A", "X", "Pop", 2000, 3.0)), 5)
+                .stream().map(Cancion::getId).toList());
+    }
+
+    @Test
+    void recomendar_reutilizaElAreaDeTrabajoSinArrastrarPuntajes() {
+        List<Cancion> catalogo = new ArrayList<>();
+        for (int i = 0; i < 30; i++) catalogo.add(new Cancion("r" + i, "R" + i, "A", "Rock", 1990 + i % 3, 3.0));
+        for (int i = 0; i < 30; i++) catalogo.add(new Cancion("j" + i, "J" + i, "B", "Jazz", 1950 + i % 3, 3.0));
+        GrafoDeSimilitud g = new GrafoDeSimilitud();
+        g.construirGrafo(catalogo);
+        PageRankPersonalizado ppr = new PageRankPersonalizado(0.15, 1e-6, 1_000_000);
+
+        List<Cancion> rock = List.of(catalogo.get(0));
+        List<Cancion> jazz = List.of(catalogo.get(30));
+        List<Cancion> primeraRock = ppr.recomendar(g, rock, 10);
+
+        // Una consulta de otro grupo en medio no deja residuos en la siguiente
+        for (Cancion c : ppr.recomendar(g, jazz, 10)) assertTrue(c.getId().startsWith("j"));
+        assertEquals(primeraRock, ppr.recomendar(g, rock, 10));
+        assertEquals(primeraRock, new PageRankPersonalizado(0.15, 1e-6, 1_000_000).recomendar(g, rock, 10));
+    }
+
+    @Test
+    void recomendar_conMuchasSemillasNoEmpujaCadaUna() {
+        List<Cancion> catalogo = new ArrayList<>();
+        for (int i = 0; i < 400; i++) catalogo.add(new Cancion("r" + i, "R" + i, "A", "Rock", 1990 + i % 3, 3.0));
+        int[] recorridos = new int[1];
+        GrafoDeSimilitud g = new GrafoDeSimilitud() {
+            @Override
+            public void recorrerVecinos(int idx, VisitanteVecino visitante) {
+                recorridos[0]++;
+                super.recorrerVecinos(idx, visitante);
+            }
+        };
+        g.construirGrafo(catalogo);
+
+        // 300 semillas de grado alto: 1/300 de masa no supera epsilon·grado en ninguna
+        List<Cancion> semillas = catalogo.subList(0, 300);
+        List<Cancion> top = new PageRankPersonalizado(0.15, 1e-2, 1_000_000).recomendar(g, semillas, 1_000_000);
+
+        assertFalse(top.isEmpty());
+        assertTrue(top.size() <= 100);
+        for (Cancion c : top) assertFalse(semillas.contains(c));
+        // Cada empuje recorre los vecinos dos veces: lejos de empujar las 300 semillas
+        assertTrue(recorridos[0] < 2 * 300, "recorridos: " + recorridos[0]);
+    }
+}
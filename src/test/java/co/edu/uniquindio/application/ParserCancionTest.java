@@ -0,0 +1,101 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.store.FormatoRegistros;
+import co.edu.uniquindio.application.utils.ParserCancion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserCancionTest {
+
+    private final ParserCancion parser = new ParserCancion();
+
+    @Test
+    void parsear_leeSeisYSieteColumnasRecortandoEspacios() {
+        Cancion c = parser.parsear(" 7 ; Tema ;Artista;Rock; 1999 ; 3.5 ");
+        assertEquals("7", c.getId());
+        assertEquals("Tema", c.getTitulo());
+        assertEquals(1999, c.getAnio());
+        assertEquals(3.5, c.getDuracion());
+        assertNull(c.getFileName());
+
+        assertEquals("7.mp3", parser.parsear("7;Tema;Artista;Rock;1999;3.5;7.mp3").getFileName());
+        // Como String.split: los campos vacíos del final no cuentan
+        assertNull(parser.parsear("7;Tema;Artista;Rock;1999;3.5;;").getFileName());
+    }
+
+    @Test
+    void parsear_aceptaComaOPuntoDecimal() {
+        assertEquals(3.45, parser.parsear("1;T;A;G;2000;3,45").getDuracion());
+        assertEquals(3.45, parser.parsear("1;T;A;G;2000;3.45").getDuracion());
+        assertEquals(4.0, parser.parsear("1;T;A;G;2000;4").getDuracion());
+        assertEquals(0.5, parser.parsear("1;T;A;G;2000;,5").getDuracion());
+        assertEquals(-2.25, parser.parsear("1;T;A;G;2000;-2,25").getDuracion());
+        // Fuera del camino rápido: exponente o mantisa de más de 53 bits
+        assertEquals(120.0, parser.parsear("1;T;A;G;2000;1.2e2").getDuracion());
+        assertEquals(1.2345678901234567, parser.parsear("1;T;A;G;2000;1,23456789012345678").getDuracion());
+    }
+
+    @Test
+    void parsear_devuelveNullConLineasMalFormadas() {
+        assertNull(parser.parsear((CharSequence) null));
+        assertNull(parser.parsear(""));
+        assertNull(parser.parsear("1;T;A;G;2000"));                 // faltan columnas
+        assertNull(parser.parsear("1;T;A;G;dos mil;3.5"));          // año no numérico
+        assertNull(parser.parsear("1;T;A;G;99999999999;3.5"));      // año fuera de int
+        assertNull(parser.parsear("1;T;A;G;-;3.5"));                // solo signo
+        assertNull(parser.parsear("1;T;A;G;2000;"));                // duración vacía
+        assertNull(parser.parsear("1;T;A;G;2000;3.4.5"));           // dos separadores decimales
+        assertNull(parser.parsear("1;T;A;G;2000;3,4,5"));
+        assertNull(parser.parsear("1;T;A;G;2000;tres"));
+
+        // Tras una línea mal formada el mismo parser sigue sirviendo
+        assertEquals("T", parser.parsear("1;T;A;G;2000;3").getTitulo());
+    }
+
+    @Test
+    void parsear_respetaSeparadoresEscapados() {
+        Cancion c = parser.parsear("1;AC\\;DC;Barra\\\\;Rock;1980;3.5");
+        assertEquals("AC;DC", c.getTitulo());
+        assertEquals("Barra\\", c.getArtista());
+        assertEquals("Rock", c.getGenero());
+
+        // Una barra que no escapa nada se conserva
+        assertEquals("C:\\musica", parser.parsear("1;C:\\musica;A;G;2000;3").getTitulo());
+
+        // Lo que escribe FormatoRegistros vuelve igual, aunque termine en barra o lleve ';'
+        Cancion rara = new Cancion("x;1", "Uno; dos", "Fin\\", "Géne\\;ro", 2001, 2.5);
+        rara.setFileName("a;b.mp3");
+        Cancion leida = parser.parsear(FormatoRegistros.formatearCancion(rara));
+        assertEquals(rara.getId(), leida.getId());
+        assertEquals(rara.getTitulo(), leida.getTitulo());
+        assertEquals(rara.getArtista(), leida.getArtista());
+        assertEquals(rara.getGenero(), leida.getGenero());
+        assertEquals("a;b.mp3", leida.getFileName());
+        assertEquals(2.5, leida.getDuracion());
+    }
+
+    @Test
+    void parsear_formatoMasivoTomaLaSextaColumnaComoArchivo() {
+        ParserCancion masivo = new ParserCancion(true);
+        Cancion c = masivo.parsear("1;T;A;G;2000;1.mp3");
+        assertEquals("1.mp3", c.getFileName());
+        assertEquals(0.0, c.getDuracion());
+        assertEquals(3.5, masivo.parsear("1;T;A;G;2000;3,5;1.mp3").getDuracion());
+        assertNull(masivo.parsear("1;T;A;G;2000;3.5;1.mp3;extra"));
+    }
+
+    @Test
+    void parsear_leeUnTramoDeUnBufferDeCaracteres() {
+        CharBuffer buffer = CharBuffer.wrap("xx1;Tema;A;G;2000;3.5\n2;Otro;B;H;2001;4,0\n".toCharArray());
+        Cancion primera = parser.parsear(buffer, 2, 22);
+        Cancion segunda = parser.parsear(buffer, 23, 42);
+        assertEquals("Tema", primera.getTitulo());
+        assertEquals(3.5, primera.getDuracion());
+        assertEquals("Otro", segunda.getTitulo());
+        assertEquals(4.0, segunda.getDuracion());
+    }
+}
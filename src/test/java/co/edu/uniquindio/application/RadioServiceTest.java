@@ -0,0 +1,78 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import co.edu.uniquindio.application.repository.CancionRepository;
+import co.edu.uniquindio.application.repository.store.MemoriaCatalogStore;
+import co.edu.uniquindio.application.service.CancionService;
+import co.edu.uniquindio.application.service.PaginaRadio;
+import co.edu.uniquindio.application.service.RadioService;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioServiceTest {
+
+    private static CancionService servicioCon(int n) {
+        Random rnd = new Random(9);
+        List<Cancion> canciones = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            canciones.add(new Cancion(String.valueOf(i), "Tema " + i, "Artista" + rnd.nextInt(20),
+                    "Genero" + rnd.nextInt(4), 1990 + rnd.nextInt(20), 3.0));
+        }
+        return new CancionService(new CancionRepository(new MemoriaCatalogStore(canciones)), new GrafoDeSimilitud(1));
+    }
+
+    @Test
+    void paginasSucesivasNoRepitenDentroDeLaVentana() {
+        CancionService canciones = servicioCon(400);
+        RadioService radio = new RadioService(canciones, 30, 50, 30);
+
+        PaginaRadio primera = radio.iniciar("0", 10);
+        assertNotNull(primera.sesion());
+        assertEquals("0", primera.canciones().get(0).getId());
+        assertEquals(10, primera.canciones().size());
+
+        List<String> sonadas = new ArrayList<>();
+        primera.canciones().forEach(c -> sonadas.add(c.getId()));
+        for (int p = 0; p < 20; p++) {
+            PaginaRadio pagina = radio.siguiente(primera.sesion(), 10);
+            assertEquals(10, pagina.canciones().size());
+            pagina.canciones().forEach(c -> sonadas.add(c.getId()));
+        }
+
+        // Ninguna canción se repite entre las últimas 30 sonadas
+        for (int i = 0; i < sonadas.size(); i++) {
+            for (int j = Math.max(0, i - 29); j < i; j++) {
+                assertNotEquals(sonadas.get(j), sonadas.get(i), "repetida en la posición " + i);
+            }
+        }
+        // Cada paso sigue una arista del grafo
+        for (int i = 1; i < sonadas.size(); i++) {
+            Cancion anterior = canciones.buscarPorId(sonadas.get(i - 1));
+            Cancion actual = canciones.buscarPorId(sonadas.get(i));
+            assertTrue(canciones.instantaneaSimilitud().valor().obtenerSimilares(anterior, Integer.MAX_VALUE).contains(actual)
+                    || canciones.instantaneaSimilitud().valor().obtenerSimilares(canciones.buscarPorId("0"), Integer.MAX_VALUE).contains(actual));
+        }
+    }
+
+    @Test
+    void sesionContinuaTrasReconstruirElGrafoYExpiraPorInactividad() {
+        CancionService canciones = servicioCon(200);
+        RadioService radio = new RadioService(canciones, 20, 50, 30);
+        PaginaRadio primera = radio.iniciar("5", 5);
+
+        canciones.construirGrafoDeSimilitud();
+        PaginaRadio segunda = radio.siguiente(primera.sesion(), 5);
+        assertTrue(segunda.version() > primera.version());
+        assertEquals(5, segunda.canciones().size());
+
+        assertNull(radio.iniciar("no-existe", 5));
+        assertEquals(0, radio.expirarInactivas(System.currentTimeMillis()));
+        assertEquals(1, radio.expirarInactivas(System.currentTimeMillis() + 31 * 60_000L));
+        assertNull(radio.siguiente(primera.sesion(), 5));
+        radio.cerrar();
+    }
+}
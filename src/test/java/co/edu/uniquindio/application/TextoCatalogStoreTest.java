@@ -0,0 +1,170 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.CancionRepository;
+import co.edu.uniquindio.application.repository.Escritura;
+import co.edu.uniquindio.application.repository.store.FormatoRegistros;
+import co.edu.uniquindio.application.repository.store.PipelinePersistencia;
+import co.edu.uniquindio.application.repository.store.TextoCatalogStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextoCatalogStoreTest {
+
+    private static Cancion cancion(int i) {
+        return new Cancion("c" + i, "Titulo " + i, "Artista " + (i % 50), "Rock", 1990 + i % 30, 180 + i % 60);
+    }
+
+    private static TextoCatalogStore abrir(Path dir, Map<String, Cancion> destino) {
+        TextoCatalogStore store = new TextoCatalogStore(dir.resolve("canciones.txt"),
+                new PipelinePersistencia(1024, "bloquear"));
+        store.cargar(c -> destino.put(c.getId(), c));
+        return store;
+    }
+
+    private static Map<String, Cancion> recargar(Path dir) {
+        Map<String, Cancion> cargadas = new HashMap<>();
+        abrir(dir, cargadas).cerrar();
+        return cargadas;
+    }
+
+    @Test
+    void cambios_seAnexanALaBitacoraYSeReproducenSobreLaInstantanea(@TempDir Path dir) throws Exception {
+        Files.write(dir.resolve("canciones.txt"), List.of(
+                FormatoRegistros.formatearCancion(cancion(1)),
+                FormatoRegistros.formatearCancion(cancion(2))), StandardCharsets.UTF_8);
+
+        TextoCatalogStore store = abrir(dir, new HashMap<>());
+        Cancion modificada = new Cancion("c1", "Otro titulo", "Artista 1", "Jazz", 2001, 200);
+        store.guardar(modificada);
+        store.guardar(cancion(3));
+        store.eliminar("c2").join();
+        store.sincronizar().join();
+
+        // La instantánea no se reescribió: todo quedó en la bitácora
+        assertEquals(2, Files.readAllLines(dir.resolve("canciones.txt")).size());
+        assertEquals(3, Files.readAllLines(dir.resolve("canciones.log")).size());
+        store.cerrar();
+
+        Map<String, Cancion> cargadas = recargar(dir);
+        assertEquals(Set.of("c1", "c3"), cargadas.keySet());
+        assertEquals("Otro titulo", cargadas.get("c1").getTitulo());
+        assertEquals("Jazz", cargadas.get("c1").getGenero());
+    }
+
+    @Test
+    void cargar_registroYaPlegadoEnLaInstantaneaEsIdempotente(@TempDir Path dir) throws Exception {
+        // La compactación escribió la instantánea con c1 y c2, pero se cortó antes de
+        // borrar la bitácora rotada: sus registros ya están dentro de la instantánea
+        Files.write(dir.resolve("canciones.txt"), List.of(
+                FormatoRegistros.formatearCancion(cancion(1)),
+                FormatoRegistros.formatearCancion(cancion(2))), StandardCharsets.UTF_8);
+        Files.write(dir.resolve("canciones.log.compactando"), List.of(
+                "+" + FormatoRegistros.formatearCancion(cancion(1)),
+                "+" + FormatoRegistros.formatearCancion(cancion(2)),
+                "-c9",
+                "+" + FormatoRegistros.formatearCancion(cancion(9)),
+                "-c9"), StandardCharsets.UTF_8);
+        Files.write(dir.resolve("canciones.log"), List.of(
+                "-c2"), StandardCharsets.UTF_8);
+
+        Map<String, Cancion> cargadas = recargar(dir);
+        assertEquals(Set.of("c1"), cargadas.keySet());
+        assertEquals("Titulo 1", cargadas.get("c1").getTitulo());
+
+        // La compactación interrumpida se completa al cargar
+        assertFalse(Files.exists(dir.resolve("canciones.log.compactando")));
+        assertEquals(0L, Files.size(dir.resolve("canciones.log")));
+        assertEquals(Set.of("c1"), recargar(dir).keySet());
+    }
+
+    @Test
+    void compactacion_rotaLaBitacoraSinPerderCambiosConcurrentes(@TempDir Path dir) throws Exception {
+        TextoCatalogStore store = abrir(dir, new HashMap<>());
+
+        // ~80 bytes por registro: más de 256 KB de bitácora dispara compactaciones mientras se escribe
+        int total = 8000;
+        for (int i = 0; i < total; i++) {
+            store.guardar(cancion(i));
+            if (i % 3 == 0) store.eliminar("c" + (i / 2));
+        }
+        store.sincronizar().join();
+        store.cerrar();
+
+        assertTrue(store.estadisticas().get("compactaciones") > 0);
+        Set<String> esperadas = new HashSet<>();
+        for (int i = 0; i < total; i++) {
+            esperadas.add("c" + i);
+            if (i % 3 == 0) esperadas.remove("c" + (i / 2));
+        }
+        assertEquals(esperadas, recargar(dir).keySet());
+    }
+
+    @Test
+    void guardar_fallaSiLaBitacoraEstaCerrada(@TempDir Path dir) {
+        TextoCatalogStore store = abrir(dir, new HashMap<>());
+        store.cerrar();
+
+        // Tras cerrar el cambio corre en el hilo que llama y su futuro informa el fallo
+        assertTrue(store.guardar(cancion(1)).isCompletedExceptionally());
+    }
+
+    @Test
+    void repositorio_actualizarYEliminarDevuelvenElFuturoDeLaPersistencia(@TempDir Path dir) throws Exception {
+        Files.write(dir.resolve("canciones.txt"), List.of(
+                FormatoRegistros.formatearCancion(cancion(1)),
+                FormatoRegistros.formatearCancion(cancion(2))), StandardCharsets.UTF_8);
+        TextoCatalogStore store = new TextoCatalogStore(dir.resolve("canciones.txt"),
+                new PipelinePersistencia(1024, "bloquear"));
+        CancionRepository repo = new CancionRepository(store);
+
+        Escritura<Boolean> actualizada = repo.actualizarCancion(new Cancion("c1", "Otro", "Artista 1", "Jazz", 2001, 200));
+        assertTrue(actualizada.valor());
+        actualizada.persistida().join();
+        Escritura<Boolean> eliminada = repo.eliminarCancion("c2");
+        assertTrue(eliminada.valor());
+        eliminada.persistida().join();
+        // Al completarse los futuros los registros ya están en la bitácora
+        assertEquals(2, Files.readAllLines(dir.resolve("canciones.log")).size());
+
+        Escritura<Boolean> inexistente = repo.eliminarCancion("c9");
+        assertFalse(inexistente.valor());
+        assertTrue(inexistente.persistida().isDone());
+        assertFalse(repo.actualizarCancion(cancion(9)).valor());
+        repo.cerrar();
+        store.cerrar();
+    }
+
+    @Test
+    void guardar_bytesPorMutacionNoCrecenConElCatalogo(@TempDir Path dir) throws Exception {
+        long bytesPequeno = bytesPorMutacion(dir.resolve("pequeno"), 100);
+        long bytesGrande = bytesPorMutacion(dir.resolve("grande"), 20_000);
+
+        // Cada mutación anexa solo su registro, no reescribe el catálogo (tiempos: BenchmarkBitacoraCatalogo)
+        assertEquals(bytesPequeno, bytesGrande);
+    }
+
+    private static void sembrar(Path dir, int n) throws Exception {
+        Files.createDirectories(dir);
+        List<String> lineas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) lineas.add(FormatoRegistros.formatearCancion(cancion(i)));
+        Files.write(dir.resolve("canciones.txt"), lineas, StandardCharsets.UTF_8);
+    }
+
+    private static long bytesPorMutacion(Path dir, int catalogo) throws Exception {
+        sembrar(dir, catalogo);
+        TextoCatalogStore store = abrir(dir, new HashMap<>());
+        long antes = store.estadisticas().get("bytesBitacora");
+        store.guardar(new Cancion("c0", "Nuevo titulo", "Artista 0", "Pop", 2020, 210)).join();
+        long despues = store.estadisticas().get("bytesBitacora");
+        store.cerrar();
+        return despues - antes;
+    }
+}
@@ -0,0 +1,197 @@
+package co.edu.uniquindio.application;
+
+import co.edu.uniquindio.application.trie.TrieAutocompletado;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrieAutocompletadoTest {
+
+    // Top por fuerza bruta: más favoritos primero, luego alfabético
+    private static List<String> esperado(Map<String, Integer> popularidad, String prefijo, int limite) {
+        return popularidad.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefijo))
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limite)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void buscarPorPrefijo_conLimiteDevuelveLosMasPopularesAunTrasCambios() {
+        Random rnd = new Random(5);
+        Map<String, Integer> popularidad = new HashMap<>();
+        TrieAutocompletado trie = new TrieAutocompletado(5);
+        for (int i = 0; i < 400; i++) {
+            String titulo = "" + (char) ('a' + rnd.nextInt(3)) + (char) ('a' + rnd.nextInt(3)) + "x" + i;
+            int p = rnd.nextInt(50);
+            popularidad.put(titulo, p);
+            trie.insertar(titulo, "id" + i, p);
+        }
+
+        // Cambios persistentes: suben y bajan; el Trie original no debe cambiar
+        TrieAutocompletado original = trie;
+        List<String> antes = original.buscarPorPrefijo("a", 5);
+        List<String> titulos = new ArrayList<>(popularidad.keySet());
+        for (int i = 0; i < 300; i++) {
+            String titulo = titulos.get(rnd.nextInt(titulos.size()));
+            int p = rnd.nextInt(60);
+            popularidad.put(titulo, p);
+            trie = trie.conPopularidad(titulo, "id" + titulo.substring(3), p);
+        }
+        assertEquals(antes, original.buscarPorPrefijo("a", 5));
+
+        for (String prefijo : List.of("", "a", "b", "ca", "bbx", "ab" + "x1", "zz")) {
+            assertEquals(esperado(popularidad, prefijo, 3), trie.buscarPorPrefijo(prefijo, 3), prefijo);
+            assertEquals(esperado(popularidad, prefijo, 5), trie.buscarPorPrefijo(prefijo, 5), prefijo);
+            // Más que el top guardado: recorre el subárbol
+            assertEquals(esperado(popularidad, prefijo, 40), trie.buscarPorPrefijo(prefijo, 40), prefijo);
+        }
+    }
+
+    @Test
+    void buscarPorPrefijo_encuentraPrefijosQueTerminanAMitadDeUnaArista() {
+        Random rnd = new Random(9);
+        TreeSet<String> palabras = new TreeSet<>();
+        TrieAutocompletado trie = new TrieAutocompletado();
+        for (int i = 0; i < 2000; i++) {
+            // Alfabeto pequeño y largos variados: aristas que se parten y palabras que son prefijo de otras
+            StringBuilder sb = new StringBuilder();
+            for (int j = rnd.nextInt(8); j >= 0; j--) sb.append((char) ('a' + rnd.nextInt(3)));
+            palabras.add(sb.toString());
+            trie.insertarPalabra(sb.toString().toUpperCase());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            StringBuilder prefijo = new StringBuilder();
+            for (int j = rnd.nextInt(6); j > 0; j--) prefijo.append((char) ('a' + rnd.nextInt(4)));
+            String p = prefijo.toString();
+            List<String> esperado = palabras.stream().filter(w -> w.startsWith(p)).collect(Collectors.toList());
+            assertEquals(esperado, trie.buscarPorPrefijo(p), p);
+        }
+    }
+
+    @Test
+    void eliminar_quitaTitulosSinCancionesYConservaLasVersionesAnteriores() {
+        Random rnd = new Random(13);
+        Map<String, Set<String>> idsPorTitulo = new TreeMap<>();
+        Map<String, String> tituloPorId = new HashMap<>();
+        TrieAutocompletado trie = new TrieAutocompletado(4);
+
+        for (int i = 0; i < 3000; i++) {
+            boolean persistente = i % 2 == 0;
+            if (!tituloPorId.isEmpty() && rnd.nextInt(3) == 0) {
+                // Quitar (eliminar la canción o cambiarle el título)
+                String id = new ArrayList<>(tituloPorId.keySet()).get(rnd.nextInt(tituloPorId.size()));
+                String titulo = tituloPorId.remove(id);
+                idsPorTitulo.get(titulo).remove(id);
+                if (idsPorTitulo.get(titulo).isEmpty()) idsPorTitulo.remove(titulo);
+                if (persistente) trie = trie.sinCancion(titulo, id);
+                else assertTrue(trie.eliminar(titulo, id));
+            } else {
+                StringBuilder sb = new StringBuilder();
+                for (int j = rnd.nextInt(6); j >= 0; j--) sb.append((char) ('a' + rnd.nextInt(3)));
+                String titulo = sb.toString();
+                String id = "c" + i;
+                tituloPorId.put(id, titulo);
+                idsPorTitulo.computeIfAbsent(titulo, t -> new TreeSet<>()).add(id);
+                if (persistente) trie = trie.conCancion(titulo, id, 0);
+                else trie.insertar(titulo, id, 0);
+            }
+        }
+
+        TrieAutocompletado antes = trie;
+        List<String> todosAntes = antes.buscarPorPrefijo("");
+        for (String prefijo : List.of("", "a", "ab", "bca", "cc", "abcabc")) {
+            List<String> esperado = idsPorTitulo.keySet().stream().filter(t -> t.startsWith(prefijo)).toList();
+            assertEquals(esperado, trie.buscarPorPrefijo(prefijo), prefijo);
+            // Misma popularidad: títulos en orden alfabético, cada uno con todas sus canciones
+            assertEquals(esperado.stream().flatMap(t -> idsPorTitulo.get(t).stream().map(id -> t)).limit(4).toList(),
+                    trie.buscarIdsPorPrefijo(prefijo, 4).stream().map(tituloPorId::get).toList(), prefijo);
+        }
+
+        // Vaciar el Trie por la vía persistente: la versión anterior sigue intacta
+        for (Map.Entry<String, String> e : tituloPorId.entrySet()) trie = trie.sinCancion(e.getValue(), e.getKey());
+        assertTrue(trie.buscarPorPrefijo("").isEmpty());
+        assertEquals(todosAntes, antes.buscarPorPrefijo(""));
+        assertSame(trie, trie.sinCancion("abc", "c1"));
+    }
+
+    // Menor distancia de Levenshtein entre la consulta y algún prefijo del título
+    private static int distanciaAPrefijo(String consulta, String titulo) {
+        int[] fila = new int[consulta.length() + 1];
+        for (int j = 0; j <= consulta.length(); j++) fila[j] = j;
+        int mejor = fila[consulta.length()];
+        for (int i = 1; i <= titulo.length(); i++) {
+            int[] nueva = new int[fila.length];
+            nueva[0] = i;
+            for (int j = 1; j <= consulta.length(); j++) {
+                int costo = consulta.charAt(j - 1) == titulo.charAt(i - 1) ? 0 : 1;
+                nueva[j] = Math.min(fila[j - 1] + costo, Math.min(fila[j], nueva[j - 1]) + 1);
+            }
+            fila = nueva;
+            mejor = Math.min(mejor, fila[consulta.length()]);
+        }
+        return mejor;
+    }
+
+    @Test
+    void buscarAproximado_coincideConLaDistanciaPorFuerzaBruta() {
+        Random rnd = new Random(21);
+        Map<String, Integer> popularidad = new HashMap<>();
+        TrieAutocompletado trie = new TrieAutocompletado(5);
+        for (int i = 0; i < 1500; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 3 + rnd.nextInt(6); j > 0; j--) sb.append((char) ('a' + rnd.nextInt(4)));
+            int p = rnd.nextInt(30);
+            popularidad.merge(sb.toString(), p, Integer::sum);
+            trie.insertar(sb.toString(), "c" + i, p);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            StringBuilder consulta = new StringBuilder();
+            for (int j = 1 + rnd.nextInt(6); j > 0; j--) consulta.append((char) ('a' + rnd.nextInt(5)));
+            int maxDistancia = 1 + rnd.nextInt(2);
+            int limite = rnd.nextBoolean() ? 5 : 20;
+
+            String q = consulta.toString();
+            List<String> esperado = popularidad.keySet().stream()
+                    .filter(t -> distanciaAPrefijo(q, t) <= maxDistancia)
+                    .sorted(Comparator.<String>comparingInt(t -> distanciaAPrefijo(q, t))
+                            .thenComparing(t -> -popularidad.get(t))
+                            .thenComparing(Comparator.naturalOrder()))
+                    .limit(limite)
+                    .toList();
+            assertEquals(esperado, trie.buscarAproximado(q, maxDistancia, limite).sugerencias(), q + "~" + maxDistancia);
+        }
+    }
+
+    @Test
+    void buscarAproximado_toleraErroresYTildes() {
+        TrieAutocompletado trie = new TrieAutocompletado();
+        trie.insertar("Héroes del Silencio - Entre dos tierras", "1", 5);
+        trie.insertar("Yogurcito", "2", 1);
+        trie.insertar("Yo no soy esa", "3", 9);
+
+        assertEquals(List.of("héroes del silencio - entre dos tierras"),
+                trie.buscarAproximado("heroes del silensio", 1, 5).sugerencias());
+        assertEquals(List.of("yogurcito"), trie.buscarAproximado("yogurcto", 1, 5).sugerencias());
+        assertTrue(trie.buscarAproximado("yogurcto", 0, 5).sugerencias().isEmpty());
+    }
+
+    @Test
+    void popularidadDeUnTitulo_sumaSusCanciones() {
+        TrieAutocompletado trie = new TrieAutocompletado();
+        trie.insertar("Hola", "1", 2);
+        trie.insertar("hola", "2", 2);
+        trie.insertar("Holanda", "3", 3);
+
+        assertEquals(List.of("hola", "holanda"), trie.buscarPorPrefijo("HO", 10));
+        assertEquals(List.of("holanda", "hola"), trie.conPopularidad("hola", "2", 0).buscarPorPrefijo("ho", 10));
+        assertSame(trie, trie.conPopularidad("adios", "9", 7));
+    }
+}
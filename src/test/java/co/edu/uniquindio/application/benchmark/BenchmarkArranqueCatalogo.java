@@ -0,0 +1,87 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.store.CargadorParalelo;
+import co.edu.uniquindio.application.repository.store.FormatoRegistros;
+import co.edu.uniquindio.application.repository.store.InstantaneaBinariaCanciones;
+import co.edu.uniquindio.application.utils.ParserCancion;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🚀 Arranque del catálogo: lectura de canciones.txt línea por línea, la carga paralela del
+ * texto ({@link CargadorParalelo}) y la instantánea binaria mapeada
+ * ({@link InstantaneaBinariaCanciones}), sobre el mismo catálogo sintético.
+ *
+ * Argumento opcional: cantidad de canciones (1000000).
+ */
+public class BenchmarkArranqueCatalogo {
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("arranque");
+        Path texto = dir.resolve("canciones.txt");
+        Path binario = dir.resolve("canciones.bin");
+
+        List<Cancion> catalogo = Catalogos.sintetico(n, 1);
+        try (BufferedWriter bw = Files.newBufferedWriter(texto, StandardCharsets.UTF_8)) {
+            for (Cancion c : catalogo) {
+                bw.write(FormatoRegistros.formatearCancion(c));
+                bw.newLine();
+            }
+        }
+        InstantaneaBinariaCanciones.escribir(binario, catalogo, texto);
+        System.out.printf("n=%d  texto=%d MB  binario=%d MB%n", n,
+                Files.size(texto) >> 20, Files.size(binario) >> 20);
+        catalogo = null;
+
+        double secuencial = Catalogos.medianaMs(3, () -> comprobar(n, cargarLineaPorLinea(texto)));
+        double paralelo = Catalogos.medianaMs(3, () -> comprobar(n, cargarEnParalelo(texto)));
+        double mapeado = Catalogos.medianaMs(3, () -> comprobar(n, InstantaneaBinariaCanciones.leer(binario, texto)));
+        System.out.printf("texto línea por línea  %8.1f ms%n", secuencial);
+        System.out.printf("texto en paralelo      %8.1f ms%n", paralelo);
+        System.out.printf("binario mapeado        %8.1f ms  (%.1fx frente al texto en paralelo)%n",
+                mapeado, paralelo / mapeado);
+
+        Files.delete(texto);
+        Files.delete(binario);
+        Files.delete(dir);
+    }
+
+    private static List<Cancion> cargarLineaPorLinea(Path texto) {
+        List<Cancion> canciones = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(texto, StandardCharsets.UTF_8)) {
+            ParserCancion parser = new ParserCancion();
+            String linea;
+            while ((linea = br.readLine()) != null) canciones.add(parser.parsear(linea));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return canciones;
+    }
+
+    private static List<Cancion> cargarEnParalelo(Path texto) {
+        List<Cancion> canciones = new ArrayList<>();
+        try {
+            CargadorParalelo.cargar(texto, () -> new ParserCancion()::parsear, canciones::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return canciones;
+    }
+
+    private static void comprobar(int esperadas, List<Cancion> cargadas) {
+        if (cargadas == null || cargadas.size() != esperadas) {
+            throw new IllegalStateException("se cargaron " + (cargadas == null ? "null" : cargadas.size())
+                    + " canciones, se esperaban " + esperadas);
+        }
+    }
+}
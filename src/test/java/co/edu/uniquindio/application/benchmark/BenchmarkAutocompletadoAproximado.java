@@ -0,0 +1,83 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.trie.TrieAutocompletado;
+
+import java.util.Random;
+
+/**
+ * 🔤 Latencia y nodos visitados de {@link TrieAutocompletado#buscarAproximado}: prefijos de
+ * títulos reales de 4, 8 y 14 caracteres con 1 o 2 ediciones al azar (sustitución, borrado o
+ * inserción), buscados con esa misma distancia máxima.
+ *
+ * Los títulos son de 1 a 5 palabras de un vocabulario de 5000, con frecuencias sesgadas, más
+ * un número que los hace únicos. Argumento opcional: cantidad de títulos (1000000).
+ */
+public class BenchmarkAutocompletadoAproximado {
+
+    private static final int CONSULTAS = 2000;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random azar = new Random(1);
+        String[] vocabulario = new String[5000];
+        for (int i = 0; i < vocabulario.length; i++) vocabulario[i] = palabra(azar, 3 + azar.nextInt(7));
+
+        String[] titulos = new String[n];
+        TrieAutocompletado trie = new TrieAutocompletado();
+        for (int i = 0; i < n; i++) {
+            StringBuilder titulo = new StringBuilder();
+            for (int j = 0, palabras = 1 + azar.nextInt(5); j < palabras; j++) {
+                if (j > 0) titulo.append(' ');
+                titulo.append(vocabulario[(int) Math.min(vocabulario.length - 1, Math.abs(azar.nextGaussian()) * 800)]);
+            }
+            titulos[i] = titulo.append(' ').append(i).toString();
+            trie.insertar(titulos[i], String.valueOf(i), azar.nextInt(1000));
+        }
+
+        for (int largo : new int[]{4, 8, 14}) {
+            for (int distancia = 1; distancia <= TrieAutocompletado.MAX_DISTANCIA; distancia++) {
+                String[] consultas = new String[CONSULTAS];
+                for (int q = 0; q < CONSULTAS; q++) {
+                    String titulo = titulos[azar.nextInt(n)];
+                    consultas[q] = conErrores(azar, titulo.substring(0, Math.min(largo, titulo.length())), distancia);
+                }
+                for (String consulta : consultas) trie.buscarAproximado(consulta, distancia, 10);
+
+                long[] muestras = new long[CONSULTAS];
+                long nodos = 0;
+                int vacias = 0;
+                for (int q = 0; q < CONSULTAS; q++) {
+                    long inicio = System.nanoTime();
+                    TrieAutocompletado.Aproximado resultado = trie.buscarAproximado(consultas[q], distancia, 10);
+                    muestras[q] = System.nanoTime() - inicio;
+                    nodos += resultado.nodosVisitados();
+                    if (resultado.sugerencias().isEmpty()) vacias++;
+                }
+                System.out.printf("n=%d largo=%2d distancia=%d  p50=%7.1f us  p99=%7.1f us  nodos medios=%d  sin resultado=%d%n",
+                        n, largo, distancia, Catalogos.percentilUs(muestras, 50), Catalogos.percentilUs(muestras, 99),
+                        nodos / CONSULTAS, vacias);
+            }
+        }
+    }
+
+    private static String palabra(Random azar, int largo) {
+        StringBuilder palabra = new StringBuilder(largo);
+        for (int j = 0; j < largo; j++) palabra.append((char) ('a' + azar.nextInt(26)));
+        return palabra.toString();
+    }
+
+    // ✏️ Aplica el número dado de sustituciones, borrados o inserciones en posiciones al azar
+    private static String conErrores(Random azar, String texto, int errores) {
+        StringBuilder b = new StringBuilder(texto);
+        for (int e = 0; e < errores; e++) {
+            int p = azar.nextInt(b.length());
+            switch (azar.nextInt(3)) {
+                case 0 -> b.setCharAt(p, (char) ('a' + azar.nextInt(26)));
+                case 1 -> b.deleteCharAt(p);
+                default -> b.insert(p, (char) ('a' + azar.nextInt(26)));
+            }
+            if (b.isEmpty()) b.append('a');
+        }
+        return b.toString();
+    }
+}
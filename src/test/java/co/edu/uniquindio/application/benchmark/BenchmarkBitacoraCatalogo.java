@@ -0,0 +1,88 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.store.FormatoRegistros;
+import co.edu.uniquindio.application.repository.store.PipelinePersistencia;
+import co.edu.uniquindio.application.repository.store.TextoCatalogStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 📝 Costo por mutación de {@link TextoCatalogStore} según el tamaño del catálogo: cada cambio
+ * anexa un registro a la bitácora y espera su force, así que el tiempo y los bytes por mutación
+ * deberían quedar planos aunque n crezca. Como referencia se mide reescribir canciones.txt
+ * completo con un force, que es lo que costaba cada mutación antes de la bitácora.
+ *
+ * Argumentos opcionales: tamaños de catálogo (1000 10000 100000).
+ */
+public class BenchmarkBitacoraCatalogo {
+
+    private static final int MUTACIONES = 500;
+
+    public static void main(String[] args) throws IOException {
+        int[] tamanos = args.length == 0 ? new int[]{1_000, 10_000, 100_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) tamanos[i] = Integer.parseInt(args[i]);
+
+        for (int n : tamanos) {
+            Path dir = Files.createTempDirectory("bitacora");
+            Path texto = dir.resolve("canciones.txt");
+            List<Cancion> catalogo = Catalogos.sintetico(n, 1);
+            reescribir(texto, catalogo);
+
+            PipelinePersistencia pipeline = new PipelinePersistencia(1024, "bloquear");
+            TextoCatalogStore store = new TextoCatalogStore(texto, pipeline);
+            store.cargar(c -> { });
+
+            // Cada mutación espera su futuro: mide el camino completo hasta el force
+            long[] muestras = new long[MUTACIONES];
+            long bytesAntes = store.estadisticas().get("bytesBitacora");
+            for (int k = 0; k < MUTACIONES; k++) {
+                Cancion c = catalogo.get(k % n);
+                Cancion cambiada = new Cancion(c.getId(), "Cambio " + k, c.getArtista(), c.getGenero(),
+                        c.getAnio(), c.getDuracion());
+                long inicio = System.nanoTime();
+                store.guardar(cambiada).join();
+                muestras[k] = System.nanoTime() - inicio;
+            }
+            long bytes = store.estadisticas().get("bytesBitacora") - bytesAntes;
+            store.cerrar();
+            pipeline.cerrar();
+
+            double reescritura = Catalogos.medianaMs(3, () -> reescribir(dir.resolve("referencia.txt"), catalogo));
+            System.out.printf("n=%7d  mutación p50=%7.1f µs p99=%7.1f µs  %4d bytes/mutación"
+                            + "  |  reescribir canciones.txt=%8.1f ms%n",
+                    n, Catalogos.percentilUs(muestras, 50), Catalogos.percentilUs(muestras, 99),
+                    bytes / MUTACIONES, reescritura);
+
+            try (var archivos = Files.list(dir)) {
+                for (Path p : archivos.toList()) Files.delete(p);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    // Catálogo completo a disco con un force al final
+    private static void reescribir(Path destino, List<Cancion> catalogo) {
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter bw = new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8))) {
+            for (Cancion c : catalogo) {
+                bw.write(FormatoRegistros.formatearCancion(c));
+                bw.newLine();
+            }
+            bw.flush();
+            canal.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+
+import java.util.List;
+
+/**
+ * 🪣 Construcción por bloques ({@link GrafoDeSimilitud#construirGrafo}) frente a la de fuerza
+ * bruta sobre catálogos sintéticos de varios tamaños, en un solo hilo. La fuerza bruta solo se
+ * mide hasta 20000 canciones (es n²); en ambos casos se comprueba que salen las mismas aristas.
+ *
+ * La regla de ±2 años enlaza cada canción con una fracción fija del catálogo, así que las
+ * aristas crecen con n² y el costo por arista es lo que muestra si el trabajo es lineal en la
+ * salida. Catálogos de 100k o más no caben en memoria con esta regla.
+ *
+ * Argumentos opcionales: tamaños de catálogo (5000 10000 20000).
+ */
+public class BenchmarkGrafoBloques {
+
+    private static final int MAX_FUERZA_BRUTA = 20_000;
+
+    public static void main(String[] args) {
+        int[] tamanos = args.length == 0 ? new int[]{5_000, 10_000, 20_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) tamanos[i] = Integer.parseInt(args[i]);
+
+        for (int n : tamanos) {
+            List<Cancion> catalogo = Catalogos.sintetico(n, 1);
+            GrafoDeSimilitud grafo = new GrafoDeSimilitud(1);
+            double bloques = Catalogos.medianaMs(3, () -> grafo.construirGrafo(catalogo));
+            long aristas = grafo.cantidadAristas();
+            System.out.printf("n=%7d  bloques=%8.1f ms  aristas=%,d  ns/arista=%.1f", n, bloques, aristas,
+                    bloques * 1e6 / Math.max(1, aristas));
+
+            if (n <= MAX_FUERZA_BRUTA) {
+                double fuerzaBruta = Catalogos.medianaMs(1, () -> grafo.construirGrafoFuerzaBruta(catalogo));
+                if (grafo.cantidadAristas() != aristas) {
+                    throw new IllegalStateException("fuerza bruta: " + grafo.cantidadAristas()
+                            + " aristas, bloques: " + aristas);
+                }
+                System.out.printf("  fuerzaBruta=%8.1f ms  (%.2fx)", fuerzaBruta, fuerzaBruta / bloques);
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+
+import java.util.List;
+
+/**
+ * ➕➖ Costo de agregar y eliminar una canción en {@link GrafoDeSimilitud} ya construido, para
+ * catálogos de varios tamaños. Se construye el grafo sin las últimas canciones del catálogo
+ * sintético y luego se agregan y eliminan una a una; además del tiempo por operación se muestra
+ * el grado medio de lo tocado, porque cada operación actualiza la fila de cada vecino.
+ *
+ * Agregar puntúa contra las n canciones (O(n)) y cada vecino recibe la arista en sus cambios
+ * pendientes (O(√grado) amortizado); eliminar solo recorre los vecinos. Si las filas se
+ * copiaran enteras, el costo por vecino crecería con el grado y el de la operación con n·grado.
+ *
+ * Argumentos opcionales: tamaños de catálogo (2500 5000 10000 20000).
+ */
+public class BenchmarkGrafoIncremental {
+
+    private static final int OPERACIONES = 300;
+
+    public static void main(String[] args) {
+        int[] tamanos = args.length == 0 ? new int[]{2_500, 5_000, 10_000, 20_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) tamanos[i] = Integer.parseInt(args[i]);
+
+        for (int n : tamanos) {
+            List<Cancion> catalogo = Catalogos.sintetico(n + OPERACIONES, 1);
+            List<Cancion> base = catalogo.subList(0, n);
+            List<Cancion> nuevas = catalogo.subList(n, n + OPERACIONES);
+            GrafoDeSimilitud grafo = new GrafoDeSimilitud(1);
+            grafo.construirGrafo(base);
+
+            // Calentamiento: una pasada completa de altas y bajas
+            nuevas.forEach(grafo::agregarCancion);
+            nuevas.forEach(grafo::eliminarCancion);
+
+            long[] altas = new long[OPERACIONES];
+            long[] bajas = new long[OPERACIONES];
+            long grados = 0;
+            for (int k = 0; k < OPERACIONES; k++) {
+                long inicio = System.nanoTime();
+                grafo.agregarCancion(nuevas.get(k));
+                altas[k] = System.nanoTime() - inicio;
+                grados += grafo.grado(grafo.indiceDe(nuevas.get(k)));
+            }
+            for (int k = 0; k < OPERACIONES; k++) {
+                long inicio = System.nanoTime();
+                grafo.eliminarCancion(nuevas.get(k));
+                bajas[k] = System.nanoTime() - inicio;
+            }
+            if (grafo.cantidadCanciones() != n) {
+                throw new IllegalStateException("quedaron " + grafo.cantidadCanciones() + " canciones, se esperaban " + n);
+            }
+
+            double gradoMedio = (double) grados / OPERACIONES;
+            double altaUs = Catalogos.percentilUs(altas, 50);
+            double bajaUs = Catalogos.percentilUs(bajas, 50);
+            System.out.printf("n=%6d  grado≈%6.0f  agregar p50=%8.1f µs p99=%8.1f µs  eliminar p50=%8.1f µs p99=%8.1f µs"
+                            + "  (eliminar: %.0f ns/vecino)%n",
+                    n, gradoMedio, altaUs, Catalogos.percentilUs(altas, 99), bajaUs,
+                    Catalogos.percentilUs(bajas, 99), bajaUs * 1e3 / Math.max(1, gradoMedio));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 🧵 Escalado de {@link GrafoDeSimilitud#construirGrafo} con el paralelismo: mismo catálogo,
+ * 1, 2, 4, ... hilos hasta los núcleos disponibles (o la lista dada). Comprueba además que
+ * todas las construcciones producen el mismo número de aristas.
+ *
+ * Argumentos opcionales: tamaño del catálogo (20000) y niveles de paralelismo.
+ */
+public class BenchmarkGrafoParalelo {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        int[] niveles;
+        if (args.length > 1) {
+            niveles = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) niveles[i - 1] = Integer.parseInt(args[i]);
+        } else {
+            niveles = IntStream.iterate(1, p -> p <= nucleos, p -> p * 2).toArray();
+        }
+
+        List<Cancion> catalogo = Catalogos.sintetico(n, 1);
+        System.out.printf("n=%d, núcleos=%d%n", n, nucleos);
+        double base = 0;
+        long aristasBase = -1;
+        for (int paralelismo : niveles) {
+            GrafoDeSimilitud grafo = new GrafoDeSimilitud(paralelismo);
+            double ms = Catalogos.medianaMs(3, () -> grafo.construirGrafo(catalogo));
+            long aristas = grafo.cantidadAristas();
+            if (aristasBase < 0) {
+                aristasBase = aristas;
+                base = ms;
+            } else if (aristas != aristasBase) {
+                throw new IllegalStateException("paralelismo " + paralelismo + ": " + aristas
+                        + " aristas, se esperaban " + aristasBase);
+            }
+            System.out.printf("paralelismo=%2d  %8.1f ms  aceleración=%.2fx  aristas=%d%n",
+                    paralelismo, ms, base / ms, aristas);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.store.CatalogStore;
+import co.edu.uniquindio.application.repository.store.FormatoRegistros;
+import co.edu.uniquindio.application.repository.store.KvCatalogStore;
+import co.edu.uniquindio.application.repository.store.PipelinePersistencia;
+import co.edu.uniquindio.application.repository.store.TextoCatalogStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * ⚖️ Los dos motores de {@code syncup.storage.motor} frente a frente sobre el mismo catálogo:
+ * {@code texto} (canciones.txt + bitácora) y {@code kv} ({@link KvCatalogStore}). Para cada
+ * tamaño se mide el arranque ({@code cargar} sobre un store recién abierto), la latencia de un
+ * cambio y de una baja esperando su futuro, y lo que ocupa el directorio al terminar.
+ *
+ * Ojo al leer las latencias: el futuro del texto se completa tras el force del lote, el del
+ * kv tras el write del registro ({@code AlmacenLogKV} solo hace force al cerrar y al compactar).
+ *
+ * Argumentos opcionales: tamaños de catálogo (1000 10000 100000).
+ */
+public class BenchmarkMotoresCatalogo {
+
+    private static final int MUTACIONES = 500;
+
+    public static void main(String[] args) throws IOException {
+        int[] tamanos = args.length == 0 ? new int[]{1_000, 10_000, 100_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) tamanos[i] = Integer.parseInt(args[i]);
+
+        for (int n : tamanos) {
+            List<Cancion> catalogo = Catalogos.sintetico(n, 1);
+            medir("texto", n, catalogo, (dir, pipeline) -> new TextoCatalogStore(dir.resolve("canciones.txt"), pipeline));
+            medir("kv   ", n, catalogo, (dir, pipeline) -> new KvCatalogStore(dir.resolve("canciones.kv"), pipeline));
+        }
+    }
+
+    private static void medir(String motor, int n, List<Cancion> catalogo,
+                              BiFunction<Path, PipelinePersistencia, CatalogStore> abrir) throws IOException {
+        Path dir = Files.createTempDirectory("motores");
+
+        // Carga inicial: el texto parte de canciones.txt, el kv de las altas una a una
+        if (motor.startsWith("texto")) {
+            try (BufferedWriter bw = Files.newBufferedWriter(dir.resolve("canciones.txt"), StandardCharsets.UTF_8)) {
+                for (Cancion c : catalogo) {
+                    bw.write(FormatoRegistros.formatearCancion(c));
+                    bw.newLine();
+                }
+            }
+        } else {
+            PipelinePersistencia pipeline = new PipelinePersistencia(1024, "bloquear");
+            CatalogStore store = abrir.apply(dir, pipeline);
+            catalogo.forEach(store::guardar);
+            store.sincronizar().join();
+            store.cerrar();
+            pipeline.cerrar();
+        }
+
+        // Arranque: cada corrida abre el store y lo recorre completo (un pipeline por apertura:
+        // el canal "canciones" no se puede registrar dos veces)
+        int[] leidas = new int[1];
+        double arranque = Catalogos.medianaMs(3, () -> {
+            PipelinePersistencia pipeline = new PipelinePersistencia(1024, "bloquear");
+            CatalogStore store = abrir.apply(dir, pipeline);
+            leidas[0] = 0;
+            store.cargar(c -> leidas[0]++);
+            store.cerrar();
+            pipeline.cerrar();
+        });
+        if (leidas[0] != n) throw new IllegalStateException(motor + ": se leyeron " + leidas[0] + " de " + n);
+
+        PipelinePersistencia pipeline = new PipelinePersistencia(1024, "bloquear");
+        CatalogStore store = abrir.apply(dir, pipeline);
+        store.cargar(c -> { });
+        long[] cambios = new long[MUTACIONES];
+        long[] bajas = new long[MUTACIONES];
+        for (int k = 0; k < MUTACIONES; k++) {
+            Cancion c = catalogo.get(k % n);
+            Cancion cambiada = new Cancion(c.getId(), "Cambio " + k, c.getArtista(), c.getGenero(),
+                    c.getAnio(), c.getDuracion());
+            long inicio = System.nanoTime();
+            store.guardar(cambiada).join();
+            cambios[k] = System.nanoTime() - inicio;
+        }
+        for (int k = 0; k < MUTACIONES; k++) {
+            long inicio = System.nanoTime();
+            store.eliminar(catalogo.get(n - 1 - k % n).getId()).join();
+            bajas[k] = System.nanoTime() - inicio;
+        }
+        store.cerrar();
+        pipeline.cerrar();
+
+        long bytes = 0;
+        try (var archivos = Files.list(dir)) {
+            for (Path p : archivos.toList()) {
+                bytes += Files.size(p);
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+
+        System.out.printf("%s n=%7d  arranque=%8.1f ms  cambio p50=%7.1f µs p99=%7.1f µs"
+                        + "  baja p50=%7.1f µs p99=%7.1f µs  disco=%6d KiB%n",
+                motor, n, arranque, Catalogos.percentilUs(cambios, 50), Catalogos.percentilUs(cambios, 99),
+                Catalogos.percentilUs(bajas, 50), Catalogos.percentilUs(bajas, 99), bytes / 1024);
+    }
+}
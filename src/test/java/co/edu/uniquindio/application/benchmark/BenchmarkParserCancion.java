@@ -0,0 +1,73 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.repository.store.FormatoRegistros;
+import co.edu.uniquindio.application.utils.ParserCancion;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 🧮 Tiempo y bytes asignados por registro de {@link ParserCancion} frente al parseo con
+ * {@code String.split} que usaba {@code Cancion.fromString} (split, trim, replace de la coma
+ * y {@code Double.parseDouble}). Los bytes salen del contador de asignación del hilo, así que
+ * incluyen la {@link Cancion} y sus cadenas, que ambos crean.
+ *
+ * Argumento opcional: cantidad de líneas (200000).
+ */
+public class BenchmarkParserCancion {
+
+    private static final int VUELTAS = 10;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        List<Cancion> catalogo = Catalogos.sintetico(n, 1);
+        String[] lineas = new String[n];
+        for (int i = 0; i < n; i++) lineas[i] = FormatoRegistros.formatearCancion(catalogo.get(i));
+
+        ParserCancion parser = new ParserCancion();
+        // Cada variante con su propio bucle: una llamada compartida mezclaría los perfiles del JIT
+        LongSupplier conParser = () -> {
+            long control = 0;
+            for (String linea : lineas) control += parser.parsear(linea).getAnio();
+            return control;
+        };
+        LongSupplier conSplit = () -> {
+            long control = 0;
+            for (String linea : lineas) control += conSplit(linea).getAnio();
+            return control;
+        };
+        for (int ronda = 0; ronda < 2; ronda++) {
+            medir("ParserCancion", lineas.length, conParser);
+            medir("String.split ", lineas.length, conSplit);
+        }
+    }
+
+    private static void medir(String nombre, int lineas, LongSupplier pasada) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().threadId();
+        long control = 0;
+        for (int vuelta = 0; vuelta < 3; vuelta++) control += pasada.getAsLong();
+
+        System.gc();
+        long bytesAntes = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int vuelta = 0; vuelta < VUELTAS; vuelta++) control += pasada.getAsLong();
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesAntes;
+        long registros = (long) VUELTAS * lineas;
+        System.out.printf("%s  %6.0f ns/registro  %5d bytes/registro  (control %d)%n",
+                nombre, (double) nanos / registros, bytes / registros, control);
+    }
+
+    // Referencia: el parseo anterior basado en split
+    private static Cancion conSplit(String linea) {
+        String[] partes = linea.split(";");
+        if (partes.length < 6) return null;
+        Cancion c = new Cancion(partes[0].trim(), partes[1].trim(), partes[2].trim(), partes[3].trim(),
+                Integer.parseInt(partes[4].trim()), Double.parseDouble(partes[5].trim().replace(",", ".")));
+        if (partes.length >= 7) c.setFileName(partes[6].trim());
+        return c;
+    }
+}
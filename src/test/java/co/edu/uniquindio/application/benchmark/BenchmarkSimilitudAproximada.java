@@ -0,0 +1,82 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+import co.edu.uniquindio.application.model.GrafoDeSimilitud;
+import co.edu.uniquindio.application.model.IndiceSimilitudAproximado;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 🧭 Recall y latencia de {@link IndiceSimilitudAproximado} frente al grafo exacto, barriendo
+ * efBusqueda. Un resultado aproximado cuenta como acierto si su peso exacto alcanza el del
+ * k-ésimo vecino exacto (con empates, cualquiera de los empatados es una respuesta válida).
+ *
+ * Argumentos opcionales: tamaño del catálogo (10000) y k (10).
+ */
+public class BenchmarkSimilitudAproximada {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        List<Cancion> catalogo = Catalogos.sintetico(n, 1);
+
+        long inicio = System.nanoTime();
+        GrafoDeSimilitud exacto = new GrafoDeSimilitud(1);
+        exacto.construirGrafo(catalogo);
+        System.out.printf("exacto: construcción %d ms, %,d aristas%n",
+                (System.nanoTime() - inicio) / 1_000_000, exacto.cantidadAristas());
+        inicio = System.nanoTime();
+        IndiceSimilitudAproximado aproximado = new IndiceSimilitudAproximado(16, 100, 64);
+        aproximado.construirGrafo(catalogo);
+        System.out.printf("hnsw:   construcción %d ms, %,d enlaces%n",
+                (System.nanoTime() - inicio) / 1_000_000, aproximado.cantidadEnlaces());
+
+        Random azar = new Random(5);
+        List<Cancion> consultas = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) consultas.add(catalogo.get(azar.nextInt(n)));
+
+        long[] muestras = medir(consultas, c -> exacto.obtenerSimilares(c, k));
+        System.out.printf("exacto:          p50=%7.1f us  p99=%7.1f us%n",
+                Catalogos.percentilUs(muestras, 50), Catalogos.percentilUs(muestras, 99));
+
+        for (int ef : new int[]{16, 32, 64, 128, 256}) {
+            aproximado.setEfBusqueda(ef);
+            muestras = medir(consultas, c -> aproximado.obtenerSimilares(c, k));
+            double recall = 0;
+            for (Cancion consulta : consultas) {
+                recall += recall(exacto, consulta, aproximado.obtenerSimilares(consulta, k), k);
+            }
+            System.out.printf("hnsw ef=%3d:     p50=%7.1f us  p99=%7.1f us  recall@%d=%.3f%n", ef,
+                    Catalogos.percentilUs(muestras, 50), Catalogos.percentilUs(muestras, 99), k,
+                    recall / consultas.size());
+        }
+    }
+
+    private static long[] medir(List<Cancion> consultas, Consumer<Cancion> consulta) {
+        consultas.forEach(consulta);
+        long[] muestras = new long[consultas.size()];
+        for (int i = 0; i < muestras.length; i++) {
+            long inicio = System.nanoTime();
+            consulta.accept(consultas.get(i));
+            muestras[i] = System.nanoTime() - inicio;
+        }
+        return muestras;
+    }
+
+    private static double recall(GrafoDeSimilitud exacto, Cancion consulta, List<Cancion> obtenidas, int k) {
+        List<Cancion> esperadas = exacto.obtenerSimilares(consulta, k);
+        if (esperadas.isEmpty()) return 1;
+        Map<Cancion, Double> pesos = exacto.obtenerAdyacentes(consulta);
+        double umbral = pesos.get(esperadas.get(esperadas.size() - 1)) - 1e-6;
+        int aciertos = 0;
+        for (Cancion c : obtenidas) {
+            Double peso = pesos.get(c);
+            if (peso != null && peso >= umbral) aciertos++;
+        }
+        return Math.min(1, (double) aciertos / esperadas.size());
+    }
+}
@@ -0,0 +1,53 @@
+package co.edu.uniquindio.application.benchmark;
+
+import co.edu.uniquindio.application.model.Cancion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Catálogos sintéticos y medición para los benchmarks (clases con main, no pruebas: se
+ * corren con {@code ./gradlew benchmark -Pclase=<Clase>}).
+ */
+final class Catalogos {
+
+    private Catalogos() {
+    }
+
+    /**
+     * 🎲 n canciones con géneros sesgados (unos pocos géneros concentran la mayoría, como en un
+     * catálogo real), ~20 canciones por artista y años entre 1950 y 2024.
+     */
+    static List<Cancion> sintetico(int n, long semilla) {
+        Random rnd = new Random(semilla);
+        List<Cancion> canciones = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int genero = (int) Math.min(299, Math.abs(rnd.nextGaussian() * 40));
+            canciones.add(new Cancion(String.valueOf(i), "Tema " + i, "Artista " + rnd.nextInt(n / 20 + 1),
+                    "Genero " + genero, 1950 + rnd.nextInt(75), 2 + rnd.nextInt(400) / 100.0));
+        }
+        return canciones;
+    }
+
+    // ⏱️ Mediana de los tiempos (en ms) de varias corridas, tras una de calentamiento
+    static double medianaMs(int corridas, Runnable accion) {
+        accion.run();
+        long[] tiempos = new long[corridas];
+        for (int i = 0; i < corridas; i++) {
+            long inicio = System.nanoTime();
+            accion.run();
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        return tiempos[corridas / 2] / 1e6;
+    }
+
+    // Percentil p (0-100) de muestras en nanosegundos, en microsegundos
+    static double percentilUs(long[] muestras, int p) {
+        long[] ordenadas = muestras.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[Math.min(ordenadas.length - 1, ordenadas.length * p / 100)] / 1e3;
+    }
+}